@@ -7,6 +7,7 @@ module za.ac.mandela.WRPV301.Capstone {
     requires java.xml;
     requires com.google.common;
     requires org.apache.commons.lang3;
+    requires jdk.management;
 
     opens za.ac.mandela.WRPV301.Capstone.UI to javafx.fxml, javafx.controls, javafx.graphics, javafx.base, com.google.common;
     opens za.ac.mandela.WRPV301.Capstone to javafx.fxml, javafx.controls, javafx.graphics, javafx.base, com.google.common;
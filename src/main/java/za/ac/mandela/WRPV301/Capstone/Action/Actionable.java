@@ -2,6 +2,8 @@ package za.ac.mandela.WRPV301.Capstone.Action;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -23,6 +25,13 @@ public abstract class Actionable implements Serializable {
         }
     }
 
+    /**
+     * @return every {@link Action} of this object, whether or not it is currently available
+     */
+    public List<Action> getActions() {
+        return Collections.unmodifiableList(actions);
+    }
+
     /**
      * Returns an {@link ArrayList} of {@link Action}s for this object for which the {@link Action#isActive()} method returns true
      * @return an {@link ArrayList} of available {@link Action}s for this object
@@ -1,8 +1,10 @@
 package za.ac.mandela.WRPV301.Capstone.Action;
 
-import com.google.common.collect.ListMultimap;
 import za.ac.mandela.WRPV301.Capstone.Event.ConsoleEvent;
+import za.ac.mandela.WRPV301.Capstone.Util.WordDictionary;
 
+import java.util.BitSet;
+import java.util.Objects;
 import java.util.Set;
 
 /**
@@ -10,6 +12,20 @@ import java.util.Set;
  * action associated with it
  */
 public abstract class Describable extends Actionable {
+    /**
+     * The number of times the single word description of any Describable has changed, so that indices of descriptions
+     * can be cheaply checked for changes
+     */
+    private static int descriptionChanges = 0;
+    /**
+     * The {@link WordDictionary} ids of the adjectives of this object; null until needed after a change
+     */
+    private transient BitSet adjectiveIds;
+    /**
+     * The value of {@link #getAdjectiveContext()} when {@link #adjectiveIds} was filled
+     */
+    private transient Object adjectiveContext;
+
     /**
      * @return a full description of this object
      */
@@ -57,7 +73,56 @@ public abstract class Describable extends Actionable {
 
     /**
      * @return a set of adjectives associated with this object, used for user command disambiguation
-     * @see za.ac.mandela.WRPV301.Capstone.Util.InputParser#disambiguate(ListMultimap, String)
+     * @see #getAdjectiveIds()
      */
     public abstract Set<String> getAdjectives();
+
+    /**
+     * Gets the adjectives of this object as {@link WordDictionary} ids, computing them from {@link #getAdjectives()}
+     * only when they may have changed, so that {@link za.ac.mandela.WRPV301.Capstone.Util.InputParser} can match
+     * adjectives without building sets for every candidate
+     * @return the ids of the adjectives of this object; must not be modified
+     */
+    public BitSet getAdjectiveIds() {
+        Object context = getAdjectiveContext();
+        if (Objects.isNull(adjectiveIds) || context != adjectiveContext) {
+            adjectiveIds = WordDictionary.idsOf(getAdjectives());
+            adjectiveContext = context;
+        }
+        return adjectiveIds;
+    }
+
+    /**
+     * Records that the adjectives of this object have changed, e.g. when it is opened or unlocked; subclasses whose
+     * adjectives depend on their state must call this whenever that state changes
+     */
+    protected void adjectivesChanged() {
+        adjectiveIds = null;
+    }
+
+    /**
+     * Records that the single word description of this object has changed, e.g. when a weapon is named; subclasses
+     * whose single word description depends on their state must call this whenever that state changes
+     */
+    protected void descriptionChanged() {
+        descriptionChanges++;
+    }
+
+    /**
+     * @return the number of times the single word description of any Describable has changed through
+     * {@link #descriptionChanged()}; every single word description is unchanged for as long as this is
+     */
+    public static int getDescriptionChanges() {
+        return descriptionChanges;
+    }
+
+    /**
+     * Gets the outside state the adjectives of this object depend on, if any; the adjectives are recomputed whenever
+     * this is no longer the same (identical) object
+     * @return the outside state the adjectives depend on; null by default, for adjectives that depend only on the state
+     * of this object
+     */
+    protected Object getAdjectiveContext() {
+        return null;
+    }
 }
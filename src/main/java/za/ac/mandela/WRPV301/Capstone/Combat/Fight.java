@@ -1,9 +1,5 @@
 package za.ac.mandela.WRPV301.Capstone.Combat;
 
-import com.google.common.collect.ListMultimap;
-import com.google.common.collect.MultimapBuilder;
-import za.ac.mandela.WRPV301.Capstone.Action.Action;
-import za.ac.mandela.WRPV301.Capstone.Action.Actionable;
 import za.ac.mandela.WRPV301.Capstone.Event.AccesswayChangeEvent;
 import za.ac.mandela.WRPV301.Capstone.Event.ConsoleEvent;
 import za.ac.mandela.WRPV301.Capstone.Game;
@@ -46,6 +42,7 @@ public class Fight implements Serializable {
      */
     private Fight(Room fightLocation, boolean playerInitiated) {
         numPlayerActionsRemaining = 2;
+        fightLocation.markChanged(); //enemy health and the outcome of the fight must survive a save
         initiativeOrder = new ArrayList<>(fightLocation.getEnemies());
         if (playerInitiated) {
             initiativeOrder.add(0, Game.getPlayer()); //place player at the top of the initiative order
@@ -125,6 +122,13 @@ public class Fight implements Serializable {
         return initiativeOrder;
     }
 
+    /**
+     * @return the {@link Combatant} for which it is the current turn
+     */
+    public Combatant getCurrentCombatant() {
+        return currentCombatant;
+    }
+
     /**
      * Finds an enemy that is not of the same type as the specified {@link Combatant}
      * @param from the {@link Combatant} for which to find a disparate {@link Combatant} member
@@ -134,23 +138,4 @@ public class Fight implements Serializable {
         ArrayList<Combatant> otherCombatants = initiativeOrder.stream().filter(combatant -> !(from.getClass().isInstance(combatant))).collect(Collectors.toCollection(ArrayList::new));
         return otherCombatants.get(d(otherCombatants.size()));
     }
-
-    /**
-     * @return {@link ListMultimap} of {@link Action}s available to the player in this fight
-     */
-    public ListMultimap<Actionable, Action> getFightActions() {
-        ListMultimap<Actionable, Action> fightActionMap = MultimapBuilder
-                .linkedHashKeys()
-                .arrayListValues()
-                .build();
-        if (currentCombatant.equals(Game.getPlayer())) {
-            for (Combatant combatant : initiativeOrder) {
-                if (combatant instanceof Enemy) {
-                    Enemy enemy = (Enemy) combatant;
-                    fightActionMap.putAll(enemy, enemy.getAvailableActions());
-                }
-            }
-        }
-        return fightActionMap;
-    }
 }
@@ -1,38 +1,164 @@
 package za.ac.mandela.WRPV301.Capstone.Event;
 
 import java.io.Serializable;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static za.ac.mandela.WRPV301.Capstone.Util.Utils.eventBus;
 
 /**
- * Class used to pass messages to the user during map generation via an {@link com.google.common.eventbus.EventBus}
+ * Class used to pass messages to the user during map generation via an {@link com.google.common.eventbus.EventBus}.
+ * Generation reports progress far more often than it can usefully be shown, so reports are coalesced: only the latest
+ * message and the latest telemetry summary are kept, and they are published together at most once every
+ * {@link #REFRESH_INTERVAL_MILLIS}, from a dedicated thread rather than the generating one
  */
 public class GenerationEvent implements Serializable {
     /**
-     * The message to pass to the user during generation
+     * The shortest time, in milliseconds, between two published events
      */
-    private final String message;
+    public static final long REFRESH_INTERVAL_MILLIS = 100;
+    /**
+     * True on threads whose generation progress should not be published, such as those building maps ahead of time;
+     * inherited by the threads they start, so that parallel carvers are muted too
+     */
+    private static final InheritableThreadLocal<Boolean> muted = new InheritableThreadLocal<>() {
+        @Override
+        protected Boolean initialValue() {
+            return false;
+        }
+    };
+    /**
+     * The latest message reported since the last event was published, or null if none
+     */
+    private static final AtomicReference<Message> pendingMessage = new AtomicReference<>();
+    /**
+     * The latest telemetry summary reported since the last event was published, or null if none
+     */
+    private static final AtomicReference<String> pendingTelemetry = new AtomicReference<>();
+    /**
+     * The thread events are published from, once per refresh interval while there is anything to publish
+     */
+    private static final ScheduledExecutorService publisher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "generation-progress");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The message to pass to the user during generation, or null if only the telemetry has changed
+     */
+    private final Message message;
+    /**
+     * A summary of the generation phases completed so far, or null if it has not changed since the last event
+     */
+    private final String telemetry;
 
     /**
      * Private constructor
      * @param message the message to pass to the user during generation
+     * @param telemetry a summary of the generation phases completed so far
      */
-    private GenerationEvent(String message) {
+    private GenerationEvent(Message message, String telemetry) {
         this.message = message;
+        this.telemetry = telemetry;
     }
 
     /**
-     * @return the message to pass to the user during generation.
+     * @return the message to pass to the user during generation, or null if only the telemetry has changed
      */
     public String getMessage() {
-        return message;
+        return Objects.isNull(message) ? null : message.toString();
+    }
+
+    /**
+     * @return a summary of the generation phases completed so far, or null if it has not changed since the last event
+     */
+    public String getTelemetry() {
+        return telemetry;
     }
 
     /**
-     * Creates and publishes a new Generation event to a shared {@link com.google.common.eventbus.EventBus instance}
-     * @param message the message to pass to the user during generation.
+     * Reports a message to pass to the user during generation; it is published with the next event, unless another
+     * message replaces it first. Nothing is reported if the calling thread is muted; see {@link #muteCurrentThread()}
+     * @param format the message, as a {@link String#format(String, Object...)} format string; only formatted if the
+     *               message is published
+     * @param args the arguments referenced by the format string
      */
-    public static void of(String message) {
-        eventBus.post(new GenerationEvent(message));
+    public static void of(String format, Object... args) {
+        if (!muted.get() && Objects.isNull(pendingMessage.getAndSet(new Message(format, args)))) {
+            schedule();
+        }
+    }
+
+    /**
+     * Reports a summary of the generation phases completed so far; it is published with the next event, unless another
+     * summary replaces it first. Nothing is reported if the calling thread is muted
+     * @param summary the summary of the generation phases completed so far
+     */
+    public static void telemetry(String summary) {
+        if (!muted.get() && Objects.isNull(pendingTelemetry.getAndSet(summary))) {
+            schedule();
+        }
+    }
+
+    /**
+     * Stops the calling thread, and any thread it starts from now on, from publishing generation events
+     */
+    public static void muteCurrentThread() {
+        muted.set(true);
+    }
+
+    /**
+     * Schedules the publication of the pending message and telemetry after one refresh interval
+     */
+    private static void schedule() {
+        publisher.schedule(GenerationEvent::publish, REFRESH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Publishes the pending message and telemetry, if either is still pending, to a shared
+     * {@link com.google.common.eventbus.EventBus instance}
+     */
+    private static void publish() {
+        Message message = pendingMessage.getAndSet(null);
+        String telemetry = pendingTelemetry.getAndSet(null);
+        if (Objects.nonNull(message) || Objects.nonNull(telemetry)) {
+            eventBus.post(new GenerationEvent(message, telemetry));
+        }
+    }
+
+    /**
+     * A message that is only formatted when it is read
+     */
+    private static class Message implements Serializable {
+        /**
+         * The {@link String#format(String, Object...)} format string of the message
+         */
+        private final String format;
+        /**
+         * The arguments referenced by the format string
+         */
+        private final Object[] args;
+
+        /**
+         * Constructor
+         * @param format the {@link String#format(String, Object...)} format string of the message
+         * @param args the arguments referenced by the format string
+         */
+        private Message(String format, Object[] args) {
+            this.format = format;
+            this.args = args;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return args.length == 0 ? format : String.format(format, args);
+        }
     }
 }
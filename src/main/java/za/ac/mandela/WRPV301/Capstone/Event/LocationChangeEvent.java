@@ -1,8 +1,11 @@
 package za.ac.mandela.WRPV301.Capstone.Event;
 
+import za.ac.mandela.WRPV301.Capstone.Game;
+import za.ac.mandela.WRPV301.Capstone.Map.MapData;
 import za.ac.mandela.WRPV301.Capstone.Map.Location.MapLocation;
 
 import java.io.Serializable;
+import java.util.Objects;
 
 import static za.ac.mandela.WRPV301.Capstone.Util.Utils.eventBus;
 
@@ -24,11 +27,15 @@ public class LocationChangeEvent implements Serializable {
     }
 
     /**
-     * Creates and publishes a change event for a given {@link MapLocation}
+     * Creates and publishes a change event for a given {@link MapLocation}, if it is part of the current map; changes
+     * to locations that are still being generated, possibly on another thread, are not published
      * @param location the changed {@link MapLocation}
      */
     public static void on(MapLocation location) {
-        eventBus.post(new LocationChangeEvent(location));
+        MapData mapData = Game.getMapData();
+        if (Objects.nonNull(mapData) && mapData.get(location.getRow(), location.getColumn()) == location) {
+            eventBus.post(new LocationChangeEvent(location));
+        }
     }
 
 
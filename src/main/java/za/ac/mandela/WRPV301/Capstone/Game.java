@@ -4,12 +4,32 @@ import za.ac.mandela.WRPV301.Capstone.Event.ConsoleEvent;
 import za.ac.mandela.WRPV301.Capstone.Event.MapChangeEvent;
 import za.ac.mandela.WRPV301.Capstone.Event.PlayerChangeEvent;
 import za.ac.mandela.WRPV301.Capstone.Map.MapData;
+import za.ac.mandela.WRPV301.Capstone.Map.MapDataBuilder;
+import za.ac.mandela.WRPV301.Capstone.Map.MapPool;
+import za.ac.mandela.WRPV301.Capstone.Map.MazeAlgorithm;
+
+import java.util.Objects;
 
 
 /**
  * Overarching class for containing static members and methods specific to game logic
  */
 public class Game {
+    /**
+     * Grid sizes above this are carved in parallel tiles rather than in a single depth-first pass, and generated
+     * progressively, so that play can start while the rest of the map is generated; see
+     * {@link MapData#generateRemainder(java.util.concurrent.Executor)}
+     */
+    private static final int TILED_GENERATION_THRESHOLD = 100;
+    /**
+     * Grid sizes above this are generated a chunk at a time as the player explores them, so that memory use does not
+     * grow with the size of the map; see {@link MapData#isChunked()}
+     */
+    public static final int CHUNKED_GENERATION_THRESHOLD = 2048;
+    /**
+     * Maps built ahead of time for the grid size last played or offered, so that a new game can start at once
+     */
+    private static final MapPool mapPool = new MapPool(Game::mapBuilder);
     /**
      * The current {@link Player instance};
      */
@@ -25,13 +45,53 @@ public class Game {
 
 
     /**
-     * Performs the tasks necessary to create a fresh game state
+     * Performs the tasks necessary to create a fresh game state. A map built ahead of time is used if one of the right
+     * size is ready; otherwise large maps are returned as soon as the region around the starting point is playable; see
+     * {@link MapData#isComplete()}. Either way, more maps of the same size are then built in the background
      * @param gridSize the size of the map grid to be generated
      */
     public static void newGame(int gridSize) {
-        mapData = MapData.build(gridSize);
+        mapData = mapPool.take(gridSize);
+        if (Objects.isNull(mapData)) {
+            MapDataBuilder builder = mapBuilder(gridSize);
+            mapData = gridSize > TILED_GENERATION_THRESHOLD ? builder.buildProgressively() : builder.build();
+        }
         player = new Player();
         player.setCurrentLocation(mapData.getStartingPoint());
+        mapPool.prepare(gridSize);
+    }
+
+    /**
+     * Starts building maps of a grid size in the background, ready for the next new game; maps of any other size are
+     * discarded
+     * @param gridSize the size of the map grid likely to be chosen next
+     */
+    public static void prepareMaps(int gridSize) {
+        mapPool.prepare(gridSize);
+    }
+
+    /**
+     * @return the grid size maps are being built ahead of time for, or -1 if none
+     */
+    public static int getPreparedGridSize() {
+        return mapPool.getGridSideSize();
+    }
+
+    /**
+     * Creates a {@link MapDataBuilder} configured for a grid size, for both maps built on demand and maps built ahead of
+     * time
+     * @param gridSize the size of the map grid to be generated
+     * @return a configured {@link MapDataBuilder}
+     */
+    private static MapDataBuilder mapBuilder(int gridSize) {
+        MapDataBuilder builder = MapDataBuilder.newInstance().setGridSideSize(gridSize);
+        if (gridSize > CHUNKED_GENERATION_THRESHOLD) {
+            return builder.setChunked(true);
+        }
+        if (gridSize > TILED_GENERATION_THRESHOLD) {
+            return builder.setAlgorithm(MazeAlgorithm.TILED).setProgressive(true);
+        }
+        return builder.setAlgorithm(MazeAlgorithm.DEPTH_FIRST);
     }
 
     /**
@@ -59,7 +59,7 @@ public abstract class PlayerItem extends Describable {
      * in the {@link Player#inventory}
      */
     protected void take() {
-        Game.getPlayer().getInventory().add(this);
+        Game.getPlayer().addItem(this);
         ((Room) Game.getPlayer().getCurrentLocation()).removePlayerItem(this);
     }
 
@@ -75,7 +75,7 @@ public abstract class PlayerItem extends Describable {
      * {@link Player#currentLocation}
      */
     protected void drop() {
-        Game.getPlayer().getInventory().remove(this);
+        Game.getPlayer().removeItem(this);
         ((Room) Game.getPlayer().getCurrentLocation()).addPlayerItem(this);
     }
 }
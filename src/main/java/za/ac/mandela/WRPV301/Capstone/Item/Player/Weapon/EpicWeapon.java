@@ -262,6 +262,8 @@ public class EpicWeapon extends Weapon {
             return String.format("You take %s.", getSingleWordDescription());
         }
         hasName = true;
+        adjectivesChanged();
+        descriptionChanged();
         return String.format("You take the %s %s %s. You decide such a fine weapon deserves a name: %s", adjective, material, type, name);
     }
 
@@ -14,7 +14,9 @@ import javafx.scene.control.TextInputDialog;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import za.ac.mandela.WRPV301.Capstone.Event.ConsoleEvent;
+import za.ac.mandela.WRPV301.Capstone.Map.MapData;
 import za.ac.mandela.WRPV301.Capstone.Util.FileIO;
+import za.ac.mandela.WRPV301.Capstone.Util.MonoFonts;
 import za.ac.mandela.WRPV301.Capstone.Event.PlayerChangeEvent;
 
 import java.io.File;
@@ -33,6 +35,11 @@ public class Launcher extends Application {
     public Button loadGameButton;
     private static Scene scene;
 
+    /**
+     * The grid size offered when no game has been started yet
+     */
+    private static final int DEFAULT_GRID_SIZE = 30;
+
     /**
      * The main application window
      */
@@ -54,6 +61,8 @@ public class Launcher extends Application {
             scene = new Scene(loader.load(Main.class.getResourceAsStream("Launcher.fxml")));
             primaryStage.setScene(scene);
             primaryStage.show();
+            Game.prepareMaps(DEFAULT_GRID_SIZE);
+            MonoFonts.discover();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -62,9 +71,13 @@ public class Launcher extends Application {
     /**
      * Creates a new game and switches scene contents to the main game scene when done, with an interleading generation dialog
      * Involves a little bit of thread f#ckery, because JavaFX be like that. I'm not proud of this example of concurrency.
+     * Progressively generated maps switch to the game scene as soon as they are playable, and the generating thread
+     * then carries on with the rest of the map, handing it to the JavaFX Application thread a batch at a time.
+     * The size last played is offered first, since maps of that size are built ahead of time.
      */
     public static void newGame() {
-        TextInputDialog dialog = new TextInputDialog("30");
+        int preparedGridSize = Game.getPreparedGridSize();
+        TextInputDialog dialog = new TextInputDialog(String.valueOf(preparedGridSize > 0 ? preparedGridSize : DEFAULT_GRID_SIZE));
         dialog.setTitle("New Game");
         dialog.setHeaderText("Please enter the size of the grid");
         dialog.setContentText("Resultant grid will be n by n, where n is your input\n30 is a good default value.\n");
@@ -84,6 +97,10 @@ public class Launcher extends Application {
                             new Alert(Alert.AlertType.ERROR, "Size too small; must be larger than 10.", ButtonType.OK)
                                     .showAndWait();
                             result = Optional.empty();
+                        } else if (i > MapData.MAX_CHUNKED_GRID_SIDE_SIZE) {
+                            new Alert(Alert.AlertType.ERROR, String.format("Size too large; must be at most %d.",
+                                    MapData.MAX_CHUNKED_GRID_SIDE_SIZE), ButtonType.OK).showAndWait();
+                            result = Optional.empty();
                         } else if (i > 100) {
                             Optional<ButtonType> confirm = new Alert(Alert.AlertType.CONFIRMATION,
                                     String.format("Are you sure? Generation may take long with an input value of %d", i),
@@ -115,10 +132,11 @@ public class Launcher extends Application {
                 scene.setRoot(loader.load(Main.class.getResourceAsStream("Generate.fxml")));
                 scene.getWindow().sizeToScene();
                 scene.getWindow().setOnCloseRequest(eventBus::post);
-                new Thread(new Task<>() {
+                Thread generator = new Thread(new Task<>() {
                     @Override
                     protected Object call() {
                         Game.newGame(gridSize);
+                        MapData mapData = Game.getMapData();
                         Platform.runLater(() -> {
                             try {
                                 scene.setRoot(FXMLLoader.load(Main.class.getResource("Game.fxml")));
@@ -128,9 +146,12 @@ public class Launcher extends Application {
                                 e.printStackTrace();
                             }
                         });
+                        mapData.generateRemainder(Platform::runLater);
                         return null;
                     }
-                }).start();
+                });
+                generator.setDaemon(true);
+                generator.start();
             } catch (IOException e) {
                 e.printStackTrace();
             }
@@ -12,6 +12,7 @@ import za.ac.mandela.WRPV301.Capstone.Event.ConsoleEvent;
 
 import java.io.Serializable;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Optional;
 
 import static za.ac.mandela.WRPV301.Capstone.Util.Utils.*;
@@ -148,6 +149,16 @@ public abstract class Accessway extends Describable implements Serializable {
         return isOpen;
     }
 
+    /**
+     * Records that the state of this Accessway has changed, so that it is included when the game is saved. Has no
+     * effect unless this Accessway is part of the current {@link za.ac.mandela.WRPV301.Capstone.Map.MapData}
+     */
+    public void markChanged() {
+        if (Objects.nonNull(Game.getMapData())) {
+            Game.getMapData().markChanged(this);
+        }
+    }
+
     @Override
     public HashSet<String> getAdjectives() {
         HashSet<String> adjectives = new HashSet<>();
@@ -156,6 +167,15 @@ public abstract class Accessway extends Describable implements Serializable {
         return adjectives;
     }
 
+    /**
+     * {@inheritDoc}
+     * @return the {@link Player}'s current location, since the facing direction adjective is relative to it
+     */
+    @Override
+    protected Object getAdjectiveContext() {
+        return Game.getPlayer().getCurrentLocation();
+    }
+
     /**
      * Enum to describe the size of an {@link Accessway}; for fluff only, does not affect the game in any way
      */
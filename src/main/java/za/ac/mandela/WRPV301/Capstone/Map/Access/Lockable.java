@@ -93,6 +93,8 @@ public abstract class Lockable extends Accessway {
             unlock();
         }
         isOpen = true;
+        adjectivesChanged();
+        markChanged();
     }
 
     /**
@@ -121,6 +123,8 @@ public abstract class Lockable extends Accessway {
     private void unlock() {
         if (Game.getPlayer().hasItem(getLock().getKey())) {
             getLock().unlock();
+            adjectivesChanged();
+            markChanged();
             AccesswayChangeEvent.on(this);
         }
     }
@@ -0,0 +1,713 @@
+package za.ac.mandela.WRPV301.Capstone.Map;
+
+import za.ac.mandela.WRPV301.Capstone.Item.Room.Crown;
+import za.ac.mandela.WRPV301.Capstone.Map.Access.Accessway;
+import za.ac.mandela.WRPV301.Capstone.Map.Location.Direction;
+import za.ac.mandela.WRPV301.Capstone.Map.Location.MapLocation;
+import za.ac.mandela.WRPV301.Capstone.Map.Location.Room;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static za.ac.mandela.WRPV301.Capstone.Util.Utils.*;
+
+/**
+ * The chunks of a chunked {@link MapData} instance, see {@link MapData#isChunked()}: square regions of the grid, each
+ * generated the first time the player comes near it. Only the chunks around the player are held in memory, and only
+ * they are in the map's backing network; {@link MapData#get(int, int)} returns null for every other cell.
+ * <p>
+ * Every chunk is carved as a spanning tree, as a tile of a {@link MazeAlgorithm#TILED} maze is, and joined to the
+ * chunk to its north or west by a single passage, so the chunks form a binary tree and the whole map is one spanning
+ * tree. Every {@link MapLocation} and {@link Accessway} is created from a stream that depends only on the map seed and
+ * its own grid cell or slot, so a chunk can be thrown away and regenerated identically. Chunks far from the player
+ * are evicted: unchanged chunks are simply dropped, while chunks with changes, including any cell the player has seen,
+ * are spilled to disk as a {@link MapDelta} and applied again when the chunk is regenerated. Memory use therefore
+ * depends on the eviction radius, not on the size of the map or how much of it has been explored.
+ * <p>
+ * The ending point lies a few chunks from the starting point. There is no key chain, since the dead ends of the whole
+ * map can never be walked in order.
+ */
+class ChunkedWorld {
+    /**
+     * The size, in cells, of any side of a chunk
+     */
+    static final int CHUNK_SIZE = TiledMazeCarver.TILE_SIZE;
+    /**
+     * The distance, in chunks, around the player within which chunks are loaded ahead of time, so that every passage
+     * out of the player's chunk leads into a loaded one
+     */
+    private static final int PRELOAD_RADIUS = 1;
+    /**
+     * The distance, in chunks, from the player beyond which chunks are evicted; larger than {@link #PRELOAD_RADIUS} so
+     * that walking back and forth over a chunk border does not evict and reload chunks
+     */
+    private static final int EVICTION_RADIUS = 2;
+    /**
+     * The size, in cells, of any side of the square of chunks that may be held in memory at once
+     */
+    static final int RESIDENT_SIDE_SIZE = (2 * EVICTION_RADIUS + 1) * CHUNK_SIZE;
+    /**
+     * The distance, in chunks, of the ending point from the starting point, along either axis
+     */
+    private static final int END_DISTANCE = 4;
+    /**
+     * The smallest chunked grid, in cells along any side; the ending point must fit around the central starting chunk
+     */
+    static final int MIN_GRID_SIDE_SIZE = (2 * END_DISTANCE + 1) * CHUNK_SIZE;
+    /**
+     * The largest chunked grid, in cells along any side, so that every {@link Accessway} slot fits in an int
+     */
+    static final int MAX_GRID_SIDE_SIZE = 32768;
+    /**
+     * The number of node groups; every chunk is a group, and neighbouring chunks never share one
+     */
+    static final int GROUPS = 16;
+
+    /**
+     * The map the chunks belong to
+     */
+    private final MapData mapData;
+    /**
+     * The seed the map is generated from
+     */
+    private final long seed;
+    /**
+     * The size, in cells, of any side of the square map grid
+     */
+    private final int gridSideSize;
+    /**
+     * The number of chunks along any side of the grid
+     */
+    private final int chunksPerSide;
+    /**
+     * The cell, indexed by {@code row * gridSideSize + column}, of the starting point
+     */
+    private final int startCell;
+    /**
+     * The cell of the ending point
+     */
+    private final int endCell;
+    /**
+     * The chunks held in memory, by chunk index, in row-major order
+     */
+    private final TreeMap<Integer, Chunk> resident = new TreeMap<>();
+    /**
+     * The chunk last looked up by {@link #get(int, int)}, so that looking up its neighbours does not search
+     * {@link #resident}; null if it has been evicted
+     */
+    private Chunk lastChunk;
+    /**
+     * The indices of the chunks spilled to disk and not held in memory
+     */
+    private final BitSet spilled = new BitSet();
+    /**
+     * The directory chunks are spilled to, or null until the first is
+     */
+    private Path spillDirectory;
+    /**
+     * Reusable {@link Random} instance, reseeded for every stream a chunk draws from
+     */
+    private final Random random = new Random();
+
+    /**
+     * Constructor; chooses the starting point in the central chunk and the ending point {@link #END_DISTANCE} chunks
+     * from it, but generates no chunks
+     * @param mapData the map the chunks belong to
+     * @param seed the seed the map is generated from
+     * @param gridSideSize the size, in cells, of any side of the square map grid; a multiple of {@link #CHUNK_SIZE}
+     */
+    ChunkedWorld(MapData mapData, long seed, int gridSideSize) {
+        this.mapData = mapData;
+        this.seed = seed;
+        this.gridSideSize = gridSideSize;
+        this.chunksPerSide = gridSideSize / CHUNK_SIZE;
+        Random endpoints = GenerationPhase.BUILD_MAZE.random(seed);
+        int centre = chunksPerSide / 2;
+        startCell = randomCell(centre, centre, endpoints);
+        int offset = endpoints.nextInt(2 * END_DISTANCE + 1) - END_DISTANCE;
+        int side = endpoints.nextBoolean() ? END_DISTANCE : -END_DISTANCE;
+        endCell = endpoints.nextBoolean()
+                ? randomCell(centre + side, centre + offset, endpoints)
+                : randomCell(centre + offset, centre + side, endpoints);
+    }
+
+    /**
+     * Picks a random cell in a chunk
+     * @param chunkRow the row coordinate of the chunk
+     * @param chunkColumn the column coordinate of the chunk
+     * @param random the source of randomness
+     * @return the cell, indexed by {@code row * gridSideSize + column}
+     */
+    private int randomCell(int chunkRow, int chunkColumn, Random random) {
+        int row = chunkRow * CHUNK_SIZE + random.nextInt(CHUNK_SIZE);
+        return row * gridSideSize + chunkColumn * CHUNK_SIZE + random.nextInt(CHUNK_SIZE);
+    }
+
+    /**
+     * @return the size, in cells, of any side of the square map grid
+     */
+    int getGridSideSize() {
+        return gridSideSize;
+    }
+
+    /**
+     * @return the player's starting location; its chunk is loaded if it is not in memory
+     */
+    MapLocation getStartingPoint() {
+        return load(startCell / gridSideSize, startCell % gridSideSize);
+    }
+
+    /**
+     * @return the maze's endpoint, or null if its chunk is not in memory
+     */
+    MapLocation getEndingPoint() {
+        return get(endCell / gridSideSize, endCell % gridSideSize);
+    }
+
+    /**
+     * Gets the node group of a cell
+     * @param row the row coordinate of the cell
+     * @param column the column coordinate of the cell
+     * @return the node group of the cell; one of {@link #GROUPS}
+     */
+    int groupOf(int row, int column) {
+        return ((row / CHUNK_SIZE) * 5 + column / CHUNK_SIZE) % GROUPS;
+    }
+
+    /**
+     * @return the number of chunks held in memory
+     */
+    int getResidentChunkCount() {
+        return resident.size();
+    }
+
+    /**
+     * @return the number of chunks spilled to disk and not held in memory
+     */
+    int getSpilledChunkCount() {
+        return spilled.cardinality();
+    }
+
+    /**
+     * Gets the {@link MapLocation} of a cell, if its chunk is in memory
+     * @param row the row coordinate of the cell; must be within the grid
+     * @param column the column coordinate of the cell; must be within the grid
+     * @return the {@link MapLocation} of the cell, or null if its chunk is not in memory
+     */
+    MapLocation get(int row, int column) {
+        int index = (row / CHUNK_SIZE) * chunksPerSide + column / CHUNK_SIZE;
+        Chunk chunk = lastChunk;
+        if (Objects.isNull(chunk) || chunk.index != index) {
+            chunk = resident.get(index);
+            if (Objects.isNull(chunk)) {
+                return null;
+            }
+            lastChunk = chunk;
+        }
+        return chunk.locations[(row % CHUNK_SIZE) * CHUNK_SIZE + column % CHUNK_SIZE];
+    }
+
+    /**
+     * Gets the {@link MapLocation} of a cell, loading its chunk if it is not in memory
+     * @param row the row coordinate of the cell; must be within the grid
+     * @param column the column coordinate of the cell; must be within the grid
+     * @return the {@link MapLocation} of the cell
+     */
+    MapLocation load(int row, int column) {
+        return chunk((row / CHUNK_SIZE) * chunksPerSide + column / CHUNK_SIZE)
+                .locations[(row % CHUNK_SIZE) * CHUNK_SIZE + column % CHUNK_SIZE];
+    }
+
+    /**
+     * Puts a {@link MapLocation} in its cell; its chunk must be in memory
+     * @param location the {@link MapLocation} to put in place
+     */
+    void set(MapLocation location) {
+        int row = location.getRow(), column = location.getColumn();
+        resident.get((row / CHUNK_SIZE) * chunksPerSide + column / CHUNK_SIZE)
+                .locations[(row % CHUNK_SIZE) * CHUNK_SIZE + column % CHUNK_SIZE] = location;
+    }
+
+    /**
+     * Gets the {@link Accessway} in a slot, loading the chunk of the slot's owning cell if it is not in memory. The
+     * {@link Accessway} may not be in the map's backing network, if the other cell it joins is in a chunk that is not
+     * @param slot the slot of the {@link Accessway}; see {@link MapData#getAccesswaySlot(Accessway)}
+     * @return the {@link Accessway} in the given slot, or null if there is none
+     */
+    Accessway getAccessway(int slot) {
+        int cell = slot / 2, row = cell / gridSideSize, column = cell % gridSideSize;
+        return chunk((row / CHUNK_SIZE) * chunksPerSide + column / CHUNK_SIZE).accessways[localSlot(slot)];
+    }
+
+    /**
+     * Puts an {@link Accessway} in a slot; the chunk of the slot's owning cell must be in memory
+     * @param slot the slot of the {@link Accessway}; see {@link MapData#getAccesswaySlot(Accessway)}
+     * @param accessway the {@link Accessway} to put in place
+     */
+    void setAccessway(int slot, Accessway accessway) {
+        chunkOfSlot(slot).accessways[localSlot(slot)] = accessway;
+    }
+
+    /**
+     * Records that the {@link MapLocation} of a cell has changed since generation; ignored if its chunk is not in memory
+     * @param row the row coordinate of the cell
+     * @param column the column coordinate of the cell
+     */
+    void markChanged(int row, int column) {
+        Chunk chunk = resident.get((row / CHUNK_SIZE) * chunksPerSide + column / CHUNK_SIZE);
+        if (Objects.nonNull(chunk)) {
+            chunk.changedLocations.set((row % CHUNK_SIZE) * CHUNK_SIZE + column % CHUNK_SIZE);
+        }
+    }
+
+    /**
+     * Records that the {@link Accessway} in a slot has changed since generation; ignored if the chunk of the slot's
+     * owning cell is not in memory
+     * @param slot the slot of the {@link Accessway}; see {@link MapData#getAccesswaySlot(Accessway)}
+     */
+    void markChanged(int slot) {
+        Chunk chunk = chunkOfSlot(slot);
+        if (Objects.nonNull(chunk)) {
+            chunk.changedAccessways.set(localSlot(slot));
+        }
+    }
+
+    /**
+     * Checks whether the {@link MapLocation} of a cell has been recorded as changed
+     * @param row the row coordinate of the cell
+     * @param column the column coordinate of the cell
+     * @return true if the cell's chunk is in memory and its {@link MapLocation} has changed since generation
+     */
+    boolean isChanged(int row, int column) {
+        Chunk chunk = resident.get((row / CHUNK_SIZE) * chunksPerSide + column / CHUNK_SIZE);
+        return Objects.nonNull(chunk) && chunk.changedLocations.get((row % CHUNK_SIZE) * CHUNK_SIZE + column % CHUNK_SIZE);
+    }
+
+    /**
+     * Checks whether the {@link Accessway} in a slot has been recorded as changed
+     * @param slot the slot of the {@link Accessway}; see {@link MapData#getAccesswaySlot(Accessway)}
+     * @return true if the chunk of the slot's owning cell is in memory and its {@link Accessway} has changed since
+     * generation
+     */
+    boolean isChanged(int slot) {
+        Chunk chunk = chunkOfSlot(slot);
+        return Objects.nonNull(chunk) && chunk.changedAccessways.get(localSlot(slot));
+    }
+
+    /**
+     * @param slot the slot of an {@link Accessway}; see {@link MapData#getAccesswaySlot(Accessway)}
+     * @return the chunk of the slot's owning cell, or null if it is not in memory
+     */
+    private Chunk chunkOfSlot(int slot) {
+        int cell = slot / 2, row = cell / gridSideSize, column = cell % gridSideSize;
+        return resident.get((row / CHUNK_SIZE) * chunksPerSide + column / CHUNK_SIZE);
+    }
+
+    /**
+     * @param slot the slot of an {@link Accessway}; see {@link MapData#getAccesswaySlot(Accessway)}
+     * @return the index of the slot within the {@link Chunk#accessways} of its owning cell's chunk
+     */
+    private int localSlot(int slot) {
+        int cell = slot / 2, row = cell / gridSideSize, column = cell % gridSideSize;
+        return ((row % CHUNK_SIZE) * CHUNK_SIZE + column % CHUNK_SIZE) * 2 + slot % 2;
+    }
+
+    /**
+     * Moves the player's focus to a cell: chunks beyond {@link #EVICTION_RADIUS} of it are evicted, then chunks within
+     * {@link #PRELOAD_RADIUS} of it are loaded
+     * @param row the row coordinate of the cell
+     * @param column the column coordinate of the cell
+     * @return true if any chunk was evicted or loaded
+     * @throws UncheckedIOException if a chunk could not be spilled to or read back from disk
+     */
+    boolean focus(int row, int column) {
+        int chunkRow = row / CHUNK_SIZE, chunkColumn = column / CHUNK_SIZE;
+        ArrayList<Chunk> evicted = new ArrayList<>();
+        for (Chunk chunk : resident.values()) {
+            if (Math.abs(chunk.index / chunksPerSide - chunkRow) > EVICTION_RADIUS
+                    || Math.abs(chunk.index % chunksPerSide - chunkColumn) > EVICTION_RADIUS) {
+                evicted.add(chunk);
+            }
+        }
+        for (Chunk chunk : evicted) {
+            if (hasChanged(chunk)) {
+                spill(chunk);
+            }
+            for (MapLocation location : chunk.locations) {
+                mapData.removeNode(location);
+            }
+            resident.remove(chunk.index);
+        }
+        lastChunk = null;
+        boolean loaded = false;
+        int lastRow = Math.min(chunksPerSide - 1, chunkRow + PRELOAD_RADIUS);
+        int lastColumn = Math.min(chunksPerSide - 1, chunkColumn + PRELOAD_RADIUS);
+        for (int i = Math.max(0, chunkRow - PRELOAD_RADIUS); i <= lastRow; i++) {
+            for (int j = Math.max(0, chunkColumn - PRELOAD_RADIUS); j <= lastColumn; j++) {
+                if (!resident.containsKey(i * chunksPerSide + j)) {
+                    chunk(i * chunksPerSide + j);
+                    loaded = true;
+                }
+            }
+        }
+        return loaded || !evicted.isEmpty();
+    }
+
+    /**
+     * Gets a chunk, generating it and adding it to the map's backing network if it is not in memory, then applying the
+     * changes it was spilled with, if it was
+     * @param index the index of the chunk, in row-major order
+     * @return the chunk
+     * @throws UncheckedIOException if the chunk was spilled but could not be read back
+     */
+    private Chunk chunk(int index) {
+        Chunk chunk = resident.get(index);
+        if (Objects.isNull(chunk)) {
+            chunk = generate(index);
+            resident.put(index, chunk);
+            attach(chunk);
+            if (spilled.get(index)) {
+                spilled.clear(index);
+                unspill(chunk);
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Generates a chunk: its interior is carved as a spanning tree, the passages joining it to its neighbours in the
+     * binary tree of chunks are opened, dead ends and the endpoints become {@link Room}s, and every passage whose slot
+     * is owned by a cell of the chunk gets an {@link Accessway}
+     * @param index the index of the chunk, in row-major order
+     * @return the new chunk, not yet added to the map
+     */
+    private Chunk generate(int index) {
+        int chunkRow = index / chunksPerSide, chunkColumn = index % chunksPerSide;
+        MazeGrid maze = new MazeGrid(CHUNK_SIZE);
+        random.setSeed(mixSeed(GenerationPhase.CARVE_MAZE.seed(seed), index));
+        TiledMazeCarver.carveRegion(maze, 0, 0, CHUNK_SIZE, CHUNK_SIZE, random);
+        int link = link(chunkRow, chunkColumn);
+        if (link >= CHUNK_SIZE) {
+            maze.open(link - CHUNK_SIZE, 0, Direction.WEST);
+        } else if (link >= 0) {
+            maze.open(0, link, Direction.NORTH);
+        }
+        if (chunkColumn + 1 < chunksPerSide && (link = link(chunkRow, chunkColumn + 1)) >= CHUNK_SIZE) {
+            maze.open(link - CHUNK_SIZE, CHUNK_SIZE - 1, Direction.EAST);
+        }
+        if (chunkRow + 1 < chunksPerSide && (link = link(chunkRow + 1, chunkColumn)) >= 0 && link < CHUNK_SIZE) {
+            maze.open(CHUNK_SIZE - 1, link, Direction.SOUTH);
+        }
+        Chunk chunk = new Chunk(index, chunkRow * CHUNK_SIZE, chunkColumn * CHUNK_SIZE);
+        for (int i = 0; i < CHUNK_SIZE; i++) {
+            for (int j = 0; j < CHUNK_SIZE; j++) {
+                int local = i * CHUNK_SIZE + j;
+                int cell = (chunk.firstRow + i) * gridSideSize + chunk.firstColumn + j;
+                chunk.locations[local] = createLocation(cell, maze.degree(i, j) == 1);
+                if (maze.isConnected(i, j, Direction.EAST)) {
+                    chunk.accessways[local * 2] = createAccessway(cell * 2);
+                }
+                if (maze.isConnected(i, j, Direction.SOUTH)) {
+                    chunk.accessways[local * 2 + 1] = createAccessway(cell * 2 + 1);
+                }
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Gets the passage joining a chunk to its parent in the binary tree of chunks: the chunk to its north, or to its
+     * west. Both chunks sharing the border derive the same passage
+     * @param chunkRow the row coordinate of the chunk
+     * @param chunkColumn the column coordinate of the chunk
+     * @return the column of the passage through the northern border, the row of the passage through the western
+     * border plus {@link #CHUNK_SIZE}, or -1 for the root chunk in the north-western corner, which has no parent
+     */
+    private int link(int chunkRow, int chunkColumn) {
+        if (chunkRow == 0 && chunkColumn == 0) {
+            return -1;
+        }
+        int index = chunkRow * chunksPerSide + chunkColumn;
+        random.setSeed(mixSeed(GenerationPhase.CARVE_MAZE.seed(seed), (long) chunksPerSide * chunksPerSide + index));
+        boolean west = chunkRow == 0 || (chunkColumn > 0 && random.nextBoolean());
+        return (west ? CHUNK_SIZE : 0) + random.nextInt(CHUNK_SIZE);
+    }
+
+    /**
+     * Creates the {@link MapLocation} of a cell from the streams of its grid cell, without events or change records
+     * @param cell the cell, indexed by {@code row * gridSideSize + column}
+     * @param deadEnd true if the cell has a single passage
+     * @return the new {@link MapLocation}
+     */
+    private MapLocation createLocation(int cell, boolean deadEnd) {
+        int row = cell / gridSideSize, column = cell % gridSideSize;
+        if (cell == endCell) {
+            Room end = mapData.randomRoom(row, column, true, random);
+            end.addRoomItemNoEvent(new Crown(end));
+            end.setVisibleNoEvent(true);
+            return end;
+        }
+        if (cell == startCell || deadEnd) {
+            return mapData.randomRoom(row, column, deadEnd && cell == startCell, random);
+        }
+        return mapData.randomLocation(row, column, random);
+    }
+
+    /**
+     * Creates the {@link Accessway} in a slot from the slot's stream
+     * @param slot the slot of the {@link Accessway}; see {@link MapData#getAccesswaySlot(Accessway)}
+     * @return the new {@link Accessway}
+     */
+    private Accessway createAccessway(int slot) {
+        random.setSeed(mixSeed(GenerationPhase.BUILD_MAZE.seed(seed), slot));
+        Random previous = setThreadRandom(random);
+        try {
+            return Accessway.randomUnlockedOrOpen();
+        } finally {
+            setThreadRandom(previous);
+        }
+    }
+
+    /**
+     * Adds the cells of a chunk to the map's backing network, along with every passage between two cells in memory:
+     * those within the chunk, and those joining it to its neighbours in memory
+     * @param chunk the chunk to add; must already be in {@link #resident}
+     */
+    private void attach(Chunk chunk) {
+        for (MapLocation location : chunk.locations) {
+            mapData.addNode(location);
+        }
+        for (int local = 0; local < chunk.locations.length; local++) {
+            attach(chunk.locations[local], chunk.accessways[local * 2], Direction.EAST);
+            attach(chunk.locations[local], chunk.accessways[local * 2 + 1], Direction.SOUTH);
+        }
+        Chunk west = chunk.firstColumn > 0 ? resident.get(chunk.index - 1) : null;
+        if (Objects.nonNull(west)) {
+            for (int local = CHUNK_SIZE - 1; local < west.locations.length; local += CHUNK_SIZE) {
+                attach(west.locations[local], west.accessways[local * 2], Direction.EAST);
+            }
+        }
+        Chunk north = chunk.firstRow > 0 ? resident.get(chunk.index - chunksPerSide) : null;
+        if (Objects.nonNull(north)) {
+            for (int local = (CHUNK_SIZE - 1) * CHUNK_SIZE; local < north.locations.length; local++) {
+                attach(north.locations[local], north.accessways[local * 2 + 1], Direction.SOUTH);
+            }
+        }
+    }
+
+    /**
+     * Adds the {@link Accessway} leading east or south out of a cell to the map's backing network, if there is one and
+     * the cell it leads to is in memory
+     * @param location the {@link MapLocation} of the cell
+     * @param accessway the {@link Accessway} leading out of the cell, or null if there is none
+     * @param direction {@link Direction#EAST} or {@link Direction#SOUTH}
+     */
+    private void attach(MapLocation location, Accessway accessway, Direction direction) {
+        if (Objects.nonNull(accessway)) {
+            MapLocation neighbour = mapData.getNeighbour(location, direction);
+            if (Objects.nonNull(neighbour)) {
+                mapData.addEdge(location, neighbour, accessway);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a chunk must be spilled rather than dropped when it is evicted
+     * @param chunk the chunk to check
+     * @return true if any {@link MapLocation} or {@link Accessway} in the chunk has changed since generation, or any cell
+     * other than the ending point is visible
+     */
+    private boolean hasChanged(Chunk chunk) {
+        if (!chunk.changedLocations.isEmpty() || !chunk.changedAccessways.isEmpty()) {
+            return true;
+        }
+        for (MapLocation location : chunk.locations) {
+            if (location.isVisible() && location.getRow() * gridSideSize + location.getColumn() != endCell) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Captures the changes made to a chunk since it was generated
+     * @param chunk the chunk, which must be in memory
+     * @return a new {@link MapDelta} covering the chunk
+     */
+    private MapDelta delta(Chunk chunk) {
+        BitSet visible = new BitSet(chunk.locations.length);
+        for (int local = 0; local < chunk.locations.length; local++) {
+            if (chunk.locations[local].isVisible()) {
+                visible.set(local);
+            }
+        }
+        BitSet changedLocations = chunk.changedLocations, changedAccessways = chunk.changedAccessways;
+        ArrayList<MapLocation> locations = new ArrayList<>(changedLocations.cardinality());
+        for (int local = changedLocations.nextSetBit(0); local >= 0; local = changedLocations.nextSetBit(local + 1)) {
+            locations.add(chunk.locations[local]);
+        }
+        int[] accesswaySlots = new int[changedAccessways.cardinality()];
+        ArrayList<Accessway> accessways = new ArrayList<>(accesswaySlots.length);
+        int count = 0;
+        for (int local = changedAccessways.nextSetBit(0); local >= 0; local = changedAccessways.nextSetBit(local + 1)) {
+            int cell = (chunk.firstRow + local / 2 / CHUNK_SIZE) * gridSideSize + chunk.firstColumn + local / 2 % CHUNK_SIZE;
+            accesswaySlots[count++] = cell * 2 + local % 2;
+            accessways.add(chunk.accessways[local]);
+        }
+        return new MapDelta(chunk.firstRow, chunk.firstColumn, CHUNK_SIZE, visible, locations, accesswaySlots, accessways);
+    }
+
+    /**
+     * Captures the changes made to the map since it was generated: chunks in memory are captured as they are, and
+     * chunks spilled to disk as the bytes they were spilled as
+     * @return a new {@link MapDelta} for the whole map
+     * @throws UncheckedIOException if a spilled chunk could not be read
+     */
+    MapDelta capture() {
+        ArrayList<MapDelta> chunks = new ArrayList<>();
+        for (Chunk chunk : resident.values()) {
+            if (hasChanged(chunk)) {
+                chunks.add(delta(chunk));
+            }
+        }
+        TreeMap<Integer, byte[]> spilledChunks = new TreeMap<>();
+        try {
+            for (int index = spilled.nextSetBit(0); index >= 0; index = spilled.nextSetBit(index + 1)) {
+                spilledChunks.put(index, Files.readAllBytes(spillFile(index)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new MapDelta(chunks, spilledChunks);
+    }
+
+    /**
+     * Applies the changes captured by {@link #capture()} to a freshly regenerated map: spilled chunks are spilled again,
+     * to be applied when they are loaded, and the changes to every other chunk are applied at once
+     * @param chunks the deltas of the chunks that were in memory
+     * @param spilledChunks the bytes of the chunks that were spilled to disk, by chunk index
+     * @throws UncheckedIOException if a spilled chunk could not be written
+     */
+    void restore(ArrayList<MapDelta> chunks, TreeMap<Integer, byte[]> spilledChunks) {
+        try {
+            for (Map.Entry<Integer, byte[]> entry : spilledChunks.entrySet()) {
+                Files.write(spillFile(entry.getKey()), entry.getValue());
+                spilled.set(entry.getKey());
+                Chunk chunk = resident.get(entry.getKey());
+                if (Objects.nonNull(chunk)) {
+                    spilled.clear(entry.getKey());
+                    unspill(chunk);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (MapDelta chunk : chunks) {
+            chunk.applyTo(mapData);
+        }
+    }
+
+    /**
+     * Writes the changes made to a chunk to disk, so that they can be applied when the chunk is regenerated
+     * @param chunk the chunk to spill, which must be in memory
+     * @throws UncheckedIOException if the chunk could not be written
+     */
+    private void spill(Chunk chunk) {
+        try (MapDelta.Writer writer = new MapDelta.Writer(
+                new BufferedOutputStream(Files.newOutputStream(spillFile(chunk.index))), mapData)) {
+            writer.writeObject(delta(chunk));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        spilled.set(chunk.index);
+    }
+
+    /**
+     * Reads the changes a chunk was spilled with back from disk and applies them to the regenerated chunk
+     * @param chunk the regenerated chunk, which must be in memory
+     * @throws UncheckedIOException if the chunk could not be read
+     */
+    private void unspill(Chunk chunk) {
+        try {
+            Path file = spillFile(chunk.index);
+            try (MapDelta.Reader reader = new MapDelta.Reader(
+                    new BufferedInputStream(Files.newInputStream(file)), mapData)) {
+                ((MapDelta) reader.readObject()).applyTo(mapData);
+            }
+            Files.delete(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new UncheckedIOException(
+                    new InvalidObjectException(String.format("Spilled chunk %d is corrupt", chunk.index)));
+        }
+    }
+
+    /**
+     * Gets the file a chunk is spilled to, creating the spill directory if it does not exist yet; both are deleted when
+     * the virtual machine exits
+     * @param index the index of the chunk
+     * @return the file the chunk is spilled to
+     * @throws IOException if the spill directory could not be created
+     */
+    private Path spillFile(int index) throws IOException {
+        if (Objects.isNull(spillDirectory)) {
+            spillDirectory = Files.createTempDirectory("chunks");
+            spillDirectory.toFile().deleteOnExit();
+        }
+        Path file = spillDirectory.resolve(index + ".chunk");
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    /**
+     * A square region of the grid held in memory; passages crossing its eastern and southern borders are held by it,
+     * those crossing its northern and western borders by its neighbours
+     */
+    private static class Chunk {
+        /**
+         * The index of the chunk, in row-major order
+         */
+        private final int index;
+        /**
+         * The row coordinate of the chunk's top row of cells
+         */
+        private final int firstRow;
+        /**
+         * The column coordinate of the chunk's left column of cells
+         */
+        private final int firstColumn;
+        /**
+         * The {@link MapLocation} of every cell, in row-major order
+         */
+        private final MapLocation[] locations = new MapLocation[CHUNK_SIZE * CHUNK_SIZE];
+        /**
+         * The {@link Accessway} in every slot owned by a cell, indexed by {@code cell * 2} for the passage leading east
+         * and {@code cell * 2 + 1} for the passage leading south, where cells are in row-major order; null where there
+         * is no passage
+         */
+        private final Accessway[] accessways = new Accessway[CHUNK_SIZE * CHUNK_SIZE * 2];
+        /**
+         * The cells, indexed as {@link #locations} is, whose {@link MapLocation} has changed since generation
+         */
+        private final BitSet changedLocations = new BitSet();
+        /**
+         * The slots, indexed as {@link #accessways} is, whose {@link Accessway} has changed since generation
+         */
+        private final BitSet changedAccessways = new BitSet();
+
+        /**
+         * Constructor
+         * @param index the index of the chunk, in row-major order
+         * @param firstRow the row coordinate of the chunk's top row of cells
+         * @param firstColumn the column coordinate of the chunk's left column of cells
+         */
+        private Chunk(int index, int firstRow, int firstColumn) {
+            this.index = index;
+            this.firstRow = firstRow;
+            this.firstColumn = firstColumn;
+        }
+    }
+}
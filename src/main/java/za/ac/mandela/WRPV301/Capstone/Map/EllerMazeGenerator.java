@@ -0,0 +1,139 @@
+package za.ac.mandela.WRPV301.Capstone.Map;
+
+import za.ac.mandela.WRPV301.Capstone.Map.Location.Direction;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Streaming maze generator using Eller's algorithm. The maze is produced one row at a time, top to bottom, and every
+ * row is handed to a {@link RowConsumer} as soon as it is complete. Only the current row's passages and set
+ * memberships are kept, so working memory is proportional to the width of the maze and independent of its height.
+ * The result is a perfect maze: every cell is reachable from every other along exactly one path.
+ */
+public class EllerMazeGenerator {
+    /**
+     * Receives the rows of a maze as they are generated
+     */
+    @FunctionalInterface
+    public interface RowConsumer {
+        /**
+         * Accepts a completed row
+         * @param row the row coordinate of the completed row
+         * @param passages the passages of every cell in the row, by column; a cell has an open passage in a
+         *                 {@link Direction} if bit {@code 1 << direction.ordinal()} is set. The array is reused for
+         *                 later rows, so it must be copied if it is to be kept
+         */
+        void accept(int row, byte[] passages);
+    }
+
+    /**
+     * Private constructor; this class only has static members
+     */
+    private EllerMazeGenerator() {
+    }
+
+    /**
+     * Generates a perfect maze row by row
+     * @param width the number of cells in every row
+     * @param height the number of rows
+     * @param seed the seed from which all randomness is derived; the same seed and width always produce the same rows
+     * @param consumer the consumer to hand every row to, in order, as soon as it is complete
+     */
+    public static void generate(int width, int height, long seed, RowConsumer consumer) {
+        Random random = new Random(seed);
+        byte east = (byte) MazeGrid.bit(Direction.EAST), west = (byte) MazeGrid.bit(Direction.WEST);
+        byte south = (byte) MazeGrid.bit(Direction.SOUTH), north = (byte) MazeGrid.bit(Direction.NORTH);
+        //set ids are always kept within [0, width), so none of these arrays grow with the height of the maze
+        int[] sets = new int[width];
+        int[] parents = new int[width];
+        int[] members = new int[width];
+        int[] candidates = new int[width];
+        int[] chosen = new int[width];
+        boolean[] setGoesDown = new boolean[width];
+        boolean[] goesDown = new boolean[width];
+        byte[] current = new byte[width];
+        byte[] next = new byte[width];
+        for (int column = 0; column < width; column++) {
+            sets[column] = column;
+        }
+        for (int row = 0; row < height; row++) {
+            boolean lastRow = row == height - 1;
+            for (int id = 0; id < width; id++) {
+                parents[id] = id;
+            }
+            //join horizontally adjacent cells of different sets; on the last row, every such pair must be joined
+            for (int column = 0; column + 1 < width; column++) {
+                int left = find(parents, sets[column]), right = find(parents, sets[column + 1]);
+                if (left != right && (lastRow || random.nextBoolean())) {
+                    parents[right] = left;
+                    current[column] |= east;
+                    current[column + 1] |= west;
+                }
+            }
+            for (int column = 0; column < width; column++) {
+                sets[column] = find(parents, sets[column]);
+            }
+            if (lastRow) {
+                consumer.accept(row, current);
+                break;
+            }
+            //every set must continue downward through at least one cell, chosen uniformly if none is picked at random
+            Arrays.fill(setGoesDown, false);
+            Arrays.fill(candidates, 0);
+            for (int column = 0; column < width; column++) {
+                int set = sets[column];
+                goesDown[column] = random.nextBoolean();
+                setGoesDown[set] |= goesDown[column];
+                if (random.nextInt(++candidates[set]) == 0) {
+                    chosen[set] = column;
+                }
+            }
+            for (int column = 0; column < width; column++) {
+                int set = sets[column];
+                if (!setGoesDown[set]) {
+                    goesDown[chosen[set]] = true;
+                    setGoesDown[set] = true;
+                }
+            }
+            Arrays.fill(members, 0);
+            Arrays.fill(next, (byte) 0);
+            for (int column = 0; column < width; column++) {
+                if (goesDown[column]) {
+                    current[column] |= south;
+                    next[column] |= north;
+                    members[sets[column]]++;
+                }
+            }
+            consumer.accept(row, current);
+            //cells below a downward passage keep their set; every other cell starts a set of its own with an unused id
+            int freeId = 0;
+            for (int column = 0; column < width; column++) {
+                if (!goesDown[column]) {
+                    while (members[freeId] > 0) {
+                        freeId++;
+                    }
+                    sets[column] = freeId;
+                    members[freeId]++;
+                }
+            }
+            byte[] completed = current;
+            current = next;
+            next = completed;
+        }
+    }
+
+    /**
+     * Finds the representative set id of a set id, halving the path along the way
+     * @param parents the union-find links between set ids
+     * @param id the set id to resolve
+     * @return the representative set id
+     */
+    private static int find(int[] parents, int id) {
+        while (parents[id] != id) {
+            parents[id] = parents[parents[id]];
+            id = parents[id];
+        }
+        return id;
+    }
+}
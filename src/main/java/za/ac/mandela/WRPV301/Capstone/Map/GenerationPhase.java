@@ -0,0 +1,67 @@
+package za.ac.mandela.WRPV301.Capstone.Map;
+
+import java.util.Random;
+
+import static za.ac.mandela.WRPV301.Capstone.Util.Utils.mixSeed;
+
+/**
+ * Enum with values describing the phases of {@link MapData} generation. Every phase draws its randomness from its own
+ * stream, derived from the map seed and a fixed stream number, so that a change to the number of random values one
+ * phase consumes does not alter the output of any other phase.
+ */
+enum GenerationPhase {
+    /**
+     * Creation of the initial {@link za.ac.mandela.WRPV301.Capstone.Map.Location.MapLocation} of every grid cell
+     */
+    FILL_NODES(1),
+    /**
+     * Carving of the maze by the {@link MazeCarver} of the chosen {@link MazeAlgorithm}, if it has one; carvers may
+     * derive further streams from this one, such as one per tile
+     */
+    CARVE_MAZE(2),
+    /**
+     * Traversal of the grid, choice of the starting point and creation of every
+     * {@link za.ac.mandela.WRPV301.Capstone.Map.Access.Accessway}
+     */
+    BUILD_MAZE(3),
+    /**
+     * Creation of {@link za.ac.mandela.WRPV301.Capstone.Map.Location.Room}s; every room derives a further stream from
+     * this one using its grid cell, so a room's contents depend only on the seed and its position
+     */
+    POPULATE_ROOMS(4),
+    /**
+     * Placement of locks, keys and guarding enemies
+     */
+    DISTRIBUTE_KEYS(5);
+
+    /**
+     * The fixed stream number of this phase; never reuse or renumber, or existing seeds will produce different maps
+     */
+    private final int stream;
+
+    /**
+     * Constructor
+     * @param stream the fixed stream number of this phase
+     */
+    GenerationPhase(int stream) {
+        this.stream = stream;
+    }
+
+    /**
+     * Derives the seed of this phase's stream
+     * @param mapSeed the seed of the map being generated
+     * @return the seed of this phase's stream
+     */
+    long seed(long mapSeed) {
+        return mixSeed(mapSeed, stream);
+    }
+
+    /**
+     * Creates a {@link Random} instance for this phase's stream
+     * @param mapSeed the seed of the map being generated
+     * @return a new {@link Random} instance for this phase's stream
+     */
+    Random random(long mapSeed) {
+        return new Random(seed(mapSeed));
+    }
+}
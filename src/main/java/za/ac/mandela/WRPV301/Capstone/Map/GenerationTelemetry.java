@@ -0,0 +1,316 @@
+package za.ac.mandela.WRPV301.Capstone.Map;
+
+import za.ac.mandela.WRPV301.Capstone.Event.GenerationEvent;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Timings of the phases of {@link MapData} generation, with the number of nodes and edges each phase dealt with and the
+ * heap it allocated on the threads it ran on. Phases that run more than once, such as the batches of a progressive
+ * map, are summed. Read headlessly through {@link MapData#getTelemetry()}; a summary is also reported through
+ * {@link GenerationEvent#telemetry(String)} whenever a phase completes
+ */
+public class GenerationTelemetry {
+    /**
+     * The JVM's thread bean, if it can measure the heap allocated by a thread, or null otherwise
+     */
+    private static final com.sun.management.ThreadMXBean allocationBean = allocationBean();
+
+    /**
+     * The measurements recorded so far, in phase order
+     */
+    private final EnumMap<Phase, Measurement> measurements = new EnumMap<>(Phase.class);
+
+    /**
+     * Enum with values describing the measured phases of generation
+     */
+    public enum Phase {
+        /**
+         * Creation of the initial {@link za.ac.mandela.WRPV301.Capstone.Map.Location.MapLocation} of every grid cell
+         */
+        FILL_NODES("Fill nodes"),
+        /**
+         * Carving of the maze ahead of traversal; parallel carvers allocate on threads other than the measured one
+         */
+        CARVE_MAZE("Carve maze"),
+        /**
+         * Traversal of the grid and creation of every {@link za.ac.mandela.WRPV301.Capstone.Map.Access.Accessway}
+         */
+        BUILD_MAZE("Build maze"),
+        /**
+         * Grouping of nodes for rendering
+         */
+        GROUP_NODES("Group nodes"),
+        /**
+         * Placement of locks, keys and guarding enemies
+         */
+        DISTRIBUTE_KEYS("Distribute keys"),
+        /**
+         * Planning of a progressive map: its endpoints, key chain and creation order
+         */
+        PLAN_MAZE("Plan maze"),
+        /**
+         * Creation of the cells of a progressive map, on whichever threads create them
+         */
+        CREATE_CELLS("Create cells"),
+        /**
+         * Addition of created cells to a progressive map, on the thread that owns it
+         */
+        ADD_CELLS("Add cells");
+
+        /**
+         * The name of this phase, as shown to the user
+         */
+        private final String label;
+
+        /**
+         * Constructor
+         * @param label the name of this phase, as shown to the user
+         */
+        Phase(String label) {
+            this.label = label;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * The totals recorded for one phase
+     */
+    public static class Measurement {
+        /**
+         * The measured phase
+         */
+        private final Phase phase;
+        /**
+         * The time spent in the phase, in nanoseconds
+         */
+        private final long nanos;
+        /**
+         * The heap allocated during the phase, in bytes, or -1 if it could not be measured
+         */
+        private final long allocatedBytes;
+        /**
+         * The number of nodes the phase dealt with
+         */
+        private final long nodes;
+        /**
+         * The number of edges the phase dealt with
+         */
+        private final long edges;
+
+        /**
+         * Constructor
+         * @param phase the measured phase
+         * @param nanos the time spent in the phase, in nanoseconds
+         * @param allocatedBytes the heap allocated during the phase, in bytes, or -1 if it could not be measured
+         * @param nodes the number of nodes the phase dealt with
+         * @param edges the number of edges the phase dealt with
+         */
+        private Measurement(Phase phase, long nanos, long allocatedBytes, long nodes, long edges) {
+            this.phase = phase;
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+            this.nodes = nodes;
+            this.edges = edges;
+        }
+
+        /**
+         * Sums this measurement with another of the same phase
+         * @param other the other measurement
+         * @return a new measurement holding the sums
+         */
+        private Measurement plus(Measurement other) {
+            long allocated = allocatedBytes < 0 || other.allocatedBytes < 0 ? -1 : allocatedBytes + other.allocatedBytes;
+            return new Measurement(phase, nanos + other.nanos, allocated, nodes + other.nodes, edges + other.edges);
+        }
+
+        /**
+         * @return the measured phase
+         */
+        public Phase getPhase() {
+            return phase;
+        }
+
+        /**
+         * @return the time spent in the phase, in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * @return the heap allocated during the phase, in bytes, or -1 if it could not be measured
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        /**
+         * @return the number of nodes the phase dealt with
+         */
+        public long getNodes() {
+            return nodes;
+        }
+
+        /**
+         * @return the number of edges the phase dealt with
+         */
+        public long getEdges() {
+            return edges;
+        }
+
+        /**
+         * @return the number of nodes the phase dealt with per second
+         */
+        public double getNodesPerSecond() {
+            return nanos == 0 ? 0 : nodes * 1e9 / nanos;
+        }
+
+        /**
+         * @return the number of edges the phase dealt with per second
+         */
+        public double getEdgesPerSecond() {
+            return nanos == 0 ? 0 : edges * 1e9 / nanos;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return String.format("%-16s %9.1f %9d %11.0f %9d %11.0f %9s", phase, nanos / 1e6, nodes, getNodesPerSecond(),
+                    edges, getEdgesPerSecond(), allocatedBytes < 0 ? "-" : String.format("%.1f", allocatedBytes / 1048576.0));
+        }
+    }
+
+    /**
+     * A phase being measured on the calling thread
+     */
+    class Span {
+        /**
+         * The phase being measured
+         */
+        private final Phase phase;
+        /**
+         * The time the phase started, in nanoseconds
+         */
+        private final long startNanos;
+        /**
+         * The heap the calling thread had allocated when the phase started, in bytes, or -1 if it cannot be measured
+         */
+        private final long startAllocatedBytes;
+
+        /**
+         * Constructor; starts measuring
+         * @param phase the phase being measured
+         */
+        private Span(Phase phase) {
+            this.phase = phase;
+            this.startAllocatedBytes = allocatedBytes();
+            this.startNanos = System.nanoTime();
+        }
+
+        /**
+         * Stops measuring, and records the measurement; must be called on the thread that started the span
+         * @param nodes the number of nodes the phase dealt with
+         * @param edges the number of edges the phase dealt with
+         */
+        void end(long nodes, long edges) {
+            long nanos = System.nanoTime() - startNanos;
+            long allocated = startAllocatedBytes < 0 ? -1 : allocatedBytes() - startAllocatedBytes;
+            record(new Measurement(phase, nanos, allocated, nodes, edges));
+        }
+    }
+
+    /**
+     * Starts measuring a phase on the calling thread
+     * @param phase the phase to measure
+     * @return the {@link Span} to end when the phase is complete
+     */
+    Span start(Phase phase) {
+        return new Span(phase);
+    }
+
+    /**
+     * Adds a measurement to the totals of its phase, and reports the new summary
+     * @param measurement the measurement to add
+     */
+    private void record(Measurement measurement) {
+        String summary;
+        synchronized (this) {
+            measurements.merge(measurement.phase, measurement, Measurement::plus);
+            summary = toString();
+        }
+        GenerationEvent.telemetry(summary);
+    }
+
+    /**
+     * @return the totals recorded so far for every measured phase, in phase order
+     */
+    public synchronized List<Measurement> getMeasurements() {
+        return new ArrayList<>(measurements.values());
+    }
+
+    /**
+     * @param phase a phase of generation
+     * @return the totals recorded so far for the phase, or null if it has not been measured
+     */
+    public synchronized Measurement get(Phase phase) {
+        return measurements.get(phase);
+    }
+
+    /**
+     * @return the time spent in every measured phase, in nanoseconds
+     */
+    public synchronized long getTotalNanos() {
+        long total = 0;
+        for (Measurement measurement : measurements.values()) {
+            total += measurement.nanos;
+        }
+        return total;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized String toString() {
+        StringBuilder builder = new StringBuilder(String.format("%-16s %9s %9s %11s %9s %11s %9s",
+                "phase", "ms", "nodes", "nodes/s", "edges", "edges/s", "alloc MB"));
+        for (Measurement measurement : measurements.values()) {
+            builder.append('\n').append(measurement);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return the heap the calling thread has allocated so far, in bytes, or -1 if it cannot be measured
+     */
+    private static long allocatedBytes() {
+        return Objects.isNull(allocationBean) ? -1 : allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @return the JVM's thread bean, if it can measure the heap allocated by a thread, or null otherwise
+     */
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            return (com.sun.management.ThreadMXBean) bean;
+        }
+        return null;
+    }
+}
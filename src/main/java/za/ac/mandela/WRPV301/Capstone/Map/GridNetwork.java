@@ -0,0 +1,773 @@
+package za.ac.mandela.WRPV301.Capstone.Map;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.graph.AbstractNetwork;
+import com.google.common.graph.ElementOrder;
+import com.google.common.graph.EndpointPair;
+import com.google.common.graph.MutableNetwork;
+import za.ac.mandela.WRPV301.Capstone.Map.Access.Accessway;
+import za.ac.mandela.WRPV301.Capstone.Map.Location.Direction;
+import za.ac.mandela.WRPV301.Capstone.Map.Location.MapLocation;
+
+import java.util.*;
+
+/**
+ * A compact {@link MutableNetwork} for square map grids. Nodes are kept in a flat array indexed by their grid
+ * coordinates, and each node owns the {@link Accessway} slots to its eastern and southern neighbours, so topology
+ * queries are array lookups rather than hash map traversals. The slot of each edge is kept in a flat identity table
+ * of ints, so finding the endpoints of an edge costs one probe and no entry object per edge.
+ */
+@SuppressWarnings("NullableProblems")
+class GridNetwork extends AbstractNetwork<MapLocation, Accessway> implements MutableNetwork<MapLocation, Accessway> {
+    /**
+     * Every {@link Direction}, kept so that {@link Direction#values()} need not copy them for every traversal
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+    /**
+     * The size, in nodes, of any side of the grid
+     */
+    private final int gridSideSize;
+    /**
+     * The grid nodes, indexed by {@code row * gridSideSize + column}
+     */
+    private final MapLocation[] nodes;
+    /**
+     * The {@link Accessway} connecting each node to its eastern neighbour, indexed like {@link #nodes}
+     */
+    private final Accessway[] eastEdges;
+    /**
+     * The {@link Accessway} connecting each node to its southern neighbour, indexed like {@link #nodes}
+     */
+    private final Accessway[] southEdges;
+    /**
+     * The number of nodes currently in the grid
+     */
+    private int nodeCount = 0;
+    /**
+     * The slot of every edge currently in the grid
+     */
+    private final EdgeSlots edgeSlots;
+    /**
+     * The number of edges currently in the grid
+     */
+    private int edgeCount = 0;
+
+    /**
+     * Constructor
+     * @param gridSideSize the size, in nodes, of any side of the grid
+     */
+    GridNetwork(int gridSideSize) {
+        this.gridSideSize = gridSideSize;
+        int cells = gridSideSize * gridSideSize;
+        nodes = new MapLocation[cells];
+        eastEdges = new Accessway[cells];
+        southEdges = new Accessway[cells];
+        edgeSlots = new EdgeSlots(cells);
+    }
+
+    /**
+     * Gets the node at the given grid coordinates
+     * @param row the row coordinate of the node
+     * @param column the column coordinate of the node
+     * @return the node at the given coordinates, or null if the coordinates are out of bounds or vacant
+     */
+    MapLocation node(int row, int column) {
+        if (row < 0 || column < 0 || row >= gridSideSize || column >= gridSideSize) {
+            return null;
+        }
+        return nodes[row * gridSideSize + column];
+    }
+
+    /**
+     * Gets the {@link Accessway} leading from a node in a given {@link Direction} without allocating
+     * @param row the row coordinate of the node
+     * @param column the column coordinate of the node
+     * @param direction the {@link Direction} of the edge relative to the node
+     * @return the {@link Accessway} leading in the given {@link Direction}, or null if there is none
+     */
+    Accessway edge(int row, int column, Direction direction) {
+        switch (direction) {
+            case EAST:
+                return column + 1 < gridSideSize ? eastEdges[row * gridSideSize + column] : null;
+            case SOUTH:
+                return row + 1 < gridSideSize ? southEdges[row * gridSideSize + column] : null;
+            case WEST:
+                return column > 0 ? eastEdges[row * gridSideSize + column - 1] : null;
+            default:
+                return row > 0 ? southEdges[(row - 1) * gridSideSize + column] : null;
+        }
+    }
+
+    /**
+     * Swaps a node for another with the same coordinates, keeping all of its edges in place
+     * @param current the node to replace
+     * @param replacement the replacement node
+     */
+    void replaceNode(MapLocation current, MapLocation replacement) {
+        int index = indexOf(current);
+        checkSameCell(current, replacement);
+        nodes[index] = replacement;
+    }
+
+    /**
+     * Swaps an edge for another, keeping it between the same two nodes
+     * @param current the edge to replace
+     * @param replacement the replacement edge
+     */
+    void replaceEdge(Accessway current, Accessway replacement) {
+        int slot = requireSlot(current);
+        setSlot(slot, replacement);
+        edgeSlots.remove(current);
+        edgeSlots.put(replacement, slot);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<MapLocation> nodes() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<MapLocation> iterator() {
+                return new SlotIterator<>(new MapLocation[][]{nodes});
+            }
+
+            @Override
+            public int size() {
+                return nodeCount;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof MapLocation && containsNode((MapLocation) o);
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Accessway> edges() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Accessway> iterator() {
+                return new SlotIterator<>(new Accessway[][]{eastEdges, southEdges});
+            }
+
+            @Override
+            public int size() {
+                return edgeCount;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Accessway && slotOf((Accessway) o) >= 0;
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isDirected() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean allowsParallelEdges() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean allowsSelfLoops() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ElementOrder<MapLocation> nodeOrder() {
+        return ElementOrder.unordered();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ElementOrder<Accessway> edgeOrder() {
+        return ElementOrder.unordered();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<MapLocation> adjacentNodes(MapLocation node) {
+        checkNode(node);
+        SlotView<MapLocation> adjacent = new SlotView<>();
+        for (Direction direction : DIRECTIONS) {
+            if (Objects.nonNull(edge(node.getRow(), node.getColumn(), direction))) {
+                adjacent.append(node(direction.translateRow(node.getRow()), direction.translateColumn(node.getColumn())));
+            }
+        }
+        return adjacent;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<MapLocation> predecessors(MapLocation node) {
+        return adjacentNodes(node);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<MapLocation> successors(MapLocation node) {
+        return adjacentNodes(node);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Accessway> incidentEdges(MapLocation node) {
+        checkNode(node);
+        SlotView<Accessway> incident = new SlotView<>();
+        for (Direction direction : DIRECTIONS) {
+            Accessway edge = edge(node.getRow(), node.getColumn(), direction);
+            if (Objects.nonNull(edge)) {
+                incident.append(edge);
+            }
+        }
+        return incident;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Accessway> inEdges(MapLocation node) {
+        return incidentEdges(node);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Accessway> outEdges(MapLocation node) {
+        return incidentEdges(node);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int degree(MapLocation node) {
+        checkNode(node);
+        int degree = 0;
+        for (Direction direction : DIRECTIONS) {
+            if (Objects.nonNull(edge(node.getRow(), node.getColumn(), direction))) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int inDegree(MapLocation node) {
+        return degree(node);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int outDegree(MapLocation node) {
+        return degree(node);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EndpointPair<MapLocation> incidentNodes(Accessway edge) {
+        int slot = requireSlot(edge);
+        MapLocation owner = nodes[slot / 2];
+        Direction direction = slot % 2 == 0 ? Direction.EAST : Direction.SOUTH;
+        return EndpointPair.unordered(owner, node(direction.translateRow(owner.getRow()), direction.translateColumn(owner.getColumn())));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<Accessway> edgesConnecting(MapLocation nodeU, MapLocation nodeV) {
+        Accessway edge = edgeConnectingOrNull(nodeU, nodeV);
+        return Objects.isNull(edge) ? ImmutableSet.of() : ImmutableSet.of(edge);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Accessway> edgeConnecting(MapLocation nodeU, MapLocation nodeV) {
+        return Optional.ofNullable(edgeConnectingOrNull(nodeU, nodeV));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Accessway edgeConnectingOrNull(MapLocation nodeU, MapLocation nodeV) {
+        checkNode(nodeU);
+        checkNode(nodeV);
+        Direction direction = Direction.of(nodeV, nodeU);
+        if (Objects.isNull(direction)) {
+            return null;
+        }
+        return edge(nodeU.getRow(), nodeU.getColumn(), direction);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasEdgeConnecting(MapLocation nodeU, MapLocation nodeV) {
+        return containsNode(nodeU) && containsNode(nodeV) && Objects.nonNull(edgeConnectingOrNull(nodeU, nodeV));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addNode(MapLocation node) {
+        int index = indexOf(node);
+        if (nodes[index] == node) {
+            return false;
+        }
+        if (Objects.nonNull(nodes[index])) {
+            throw new IllegalArgumentException(String.format("Grid cell (%d, %d) is already occupied", node.getRow(), node.getColumn()));
+        }
+        nodes[index] = node;
+        nodeCount++;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addEdge(MapLocation nodeU, MapLocation nodeV, Accessway edge) {
+        Direction direction = Direction.of(nodeV, nodeU);
+        if (Objects.isNull(direction)) {
+            throw new IllegalArgumentException("Edges may only connect grid-adjacent nodes");
+        }
+        if (slotOf(edge) >= 0) {
+            EndpointPair<MapLocation> existing = incidentNodes(edge);
+            if (existing.equals(EndpointPair.unordered(nodeU, nodeV))) {
+                return false;
+            }
+            throw new IllegalArgumentException("Edge already connects a different pair of nodes");
+        }
+        addNode(nodeU);
+        addNode(nodeV);
+        if (Objects.nonNull(edge(nodeU.getRow(), nodeU.getColumn(), direction))) {
+            throw new IllegalArgumentException("Parallel edges are not allowed");
+        }
+        MapLocation owner = direction == Direction.EAST || direction == Direction.SOUTH ? nodeU : nodeV;
+        int slot = (owner.getRow() * gridSideSize + owner.getColumn()) * 2
+                + (direction == Direction.EAST || direction == Direction.WEST ? 0 : 1);
+        setSlot(slot, edge);
+        edgeSlots.put(edge, slot);
+        edgeCount++;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addEdge(EndpointPair<MapLocation> endpoints, Accessway edge) {
+        validateEndpoints(endpoints);
+        return addEdge(endpoints.nodeU(), endpoints.nodeV(), edge);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean removeNode(MapLocation node) {
+        if (!containsNode(node)) {
+            return false;
+        }
+        for (Direction direction : DIRECTIONS) {
+            Accessway edge = edge(node.getRow(), node.getColumn(), direction);
+            if (Objects.nonNull(edge)) {
+                removeEdge(edge);
+            }
+        }
+        nodes[indexOf(node)] = null;
+        nodeCount--;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean removeEdge(Accessway edge) {
+        int slot = slotOf(edge);
+        if (slot < 0) {
+            return false;
+        }
+        setSlot(slot, null);
+        edgeSlots.remove(edge);
+        edgeCount--;
+        return true;
+    }
+
+    /**
+     * @param node the node to look up
+     * @return true if the given node is present in this grid
+     */
+    private boolean containsNode(MapLocation node) {
+        return node(node.getRow(), node.getColumn()) == node;
+    }
+
+    /**
+     * Gets the flat array index of a node, validating that it fits the grid
+     * @param node the node to index
+     * @return the flat array index of the node
+     */
+    private int indexOf(MapLocation node) {
+        if (node.getRow() < 0 || node.getColumn() < 0 || node.getRow() >= gridSideSize || node.getColumn() >= gridSideSize) {
+            throw new IllegalArgumentException(String.format("Node (%d, %d) lies outside the grid", node.getRow(), node.getColumn()));
+        }
+        return node.getRow() * gridSideSize + node.getColumn();
+    }
+
+    /**
+     * @param node the node to validate
+     * @throws IllegalArgumentException if the node is not an element of this grid
+     */
+    private void checkNode(MapLocation node) {
+        if (!containsNode(node)) {
+            throw new IllegalArgumentException(String.format("Node %s is not an element of this network.", node));
+        }
+    }
+
+    /**
+     * @param current a node in this grid
+     * @param replacement a node that must have the same coordinates
+     * @throws IllegalArgumentException if the coordinates differ
+     */
+    private void checkSameCell(MapLocation current, MapLocation replacement) {
+        if (current.getRow() != replacement.getRow() || current.getColumn() != replacement.getColumn()) {
+            throw new IllegalArgumentException("A replacement node must have the same grid coordinates");
+        }
+    }
+
+    /**
+     * Gets the slot of an edge: the index of its northern or western endpoint times two, plus one for a southern slot
+     * @param edge the edge to find the slot for
+     * @return the slot of the given edge, or -1 if it is not an element of this grid
+     */
+    private int slotOf(Accessway edge) {
+        return edgeSlots.get(edge);
+    }
+
+    /**
+     * @param edge the edge to find the slot for
+     * @return the slot of the given edge
+     * @throws IllegalArgumentException if the edge is not an element of this grid
+     */
+    private int requireSlot(Accessway edge) {
+        int slot = slotOf(edge);
+        if (slot < 0) {
+            throw new IllegalArgumentException(String.format("Edge %s is not an element of this network.", edge));
+        }
+        return slot;
+    }
+
+    /**
+     * @param slot the slot to fill
+     * @param edge the edge to put in the slot, or null to empty it
+     */
+    private void setSlot(int slot, Accessway edge) {
+        (slot % 2 == 0 ? eastEdges : southEdges)[slot / 2] = edge;
+    }
+
+    /**
+     * An unmodifiable set of the (at most four) neighbours or edges of a node, gathered into an array when it is made
+     * @param <T> the element type
+     */
+    private static class SlotView<T> extends AbstractSet<T> {
+        /**
+         * The elements, one per {@link Direction} at most
+         */
+        private final Object[] elements = new Object[4];
+        /**
+         * The number of elements
+         */
+        private int size = 0;
+
+        /**
+         * Adds an element while the view is being gathered
+         * @param element the element to add
+         */
+        private void append(T element) {
+            elements[size++] = element;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<>() {
+                /**
+                 * The index of the next element
+                 */
+                private int index = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return index < size;
+                }
+
+                @SuppressWarnings("unchecked")
+                @Override
+                public T next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return (T) elements[index++];
+                }
+            };
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean contains(Object o) {
+            for (int i = 0; i < size; i++) {
+                if (elements[i] == o) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * An open-addressing table from edges, by identity, to their slots, held in two parallel arrays so that it needs no
+     * entry object or boxed slot per edge
+     */
+    private static final class EdgeSlots {
+        /**
+         * The edges, at the index their identity hash probes to; null for vacant indices
+         */
+        private Accessway[] edges;
+        /**
+         * The slot of the edge at each index of {@link #edges}
+         */
+        private int[] slots;
+        /**
+         * The number of edges in the table
+         */
+        private int size = 0;
+
+        /**
+         * Constructor
+         * @param expected the number of edges the table is sized for; it grows if more are added
+         */
+        private EdgeSlots(int expected) {
+            int capacity = 16;
+            while (capacity < expected * 2) {
+                capacity <<= 1;
+            }
+            edges = new Accessway[capacity];
+            slots = new int[capacity];
+        }
+
+        /**
+         * @param edge an edge
+         * @return the slot of the edge, or -1 if it is not in the table
+         */
+        private int get(Accessway edge) {
+            int mask = edges.length - 1;
+            for (int i = indexFor(edge, mask); Objects.nonNull(edges[i]); i = (i + 1) & mask) {
+                if (edges[i] == edge) {
+                    return slots[i];
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Records the slot of an edge, replacing any slot it had
+         * @param edge the edge
+         * @param slot the slot of the edge
+         */
+        private void put(Accessway edge, int slot) {
+            if ((size + 1) * 2 > edges.length) {
+                grow();
+            }
+            int mask = edges.length - 1;
+            int i = indexFor(edge, mask);
+            while (Objects.nonNull(edges[i]) && edges[i] != edge) {
+                i = (i + 1) & mask;
+            }
+            if (Objects.isNull(edges[i])) {
+                edges[i] = edge;
+                size++;
+            }
+            slots[i] = slot;
+        }
+
+        /**
+         * Removes an edge from the table, if present, shifting back any edges that probed past it
+         * @param edge the edge to remove
+         */
+        private void remove(Accessway edge) {
+            int mask = edges.length - 1;
+            int i = indexFor(edge, mask);
+            while (edges[i] != edge) {
+                if (Objects.isNull(edges[i])) {
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            edges[i] = null;
+            size--;
+            for (int j = (i + 1) & mask; Objects.nonNull(edges[j]); j = (j + 1) & mask) {
+                if (((j - indexFor(edges[j], mask)) & mask) >= ((j - i) & mask)) {
+                    edges[i] = edges[j];
+                    slots[i] = slots[j];
+                    edges[j] = null;
+                    i = j;
+                }
+            }
+        }
+
+        /**
+         * Doubles the capacity of the table, reinserting every edge
+         */
+        private void grow() {
+            Accessway[] oldEdges = edges;
+            int[] oldSlots = slots;
+            edges = new Accessway[oldEdges.length * 2];
+            slots = new int[oldEdges.length * 2];
+            int mask = edges.length - 1;
+            for (int j = 0; j < oldEdges.length; j++) {
+                if (Objects.nonNull(oldEdges[j])) {
+                    int i = indexFor(oldEdges[j], mask);
+                    while (Objects.nonNull(edges[i])) {
+                        i = (i + 1) & mask;
+                    }
+                    edges[i] = oldEdges[j];
+                    slots[i] = oldSlots[j];
+                }
+            }
+        }
+
+        /**
+         * @param edge an edge
+         * @param mask the capacity of the table, less one
+         * @return the index the edge's identity hash probes from
+         */
+        private static int indexFor(Accessway edge, int mask) {
+            int hash = System.identityHashCode(edge);
+            return (hash ^ (hash >>> 16)) & mask;
+        }
+    }
+
+    /**
+     * Iterates the non-null slots of one or more arrays, interleaving them index by index
+     * @param <T> the slot type
+     */
+    private static final class SlotIterator<T> implements Iterator<T> {
+        /**
+         * The arrays being iterated
+         */
+        private final T[][] slots;
+        /**
+         * The current slot index
+         */
+        private int index = 0;
+        /**
+         * The current array within {@link #slots}
+         */
+        private int array = 0;
+
+        /**
+         * Constructor
+         * @param slots the arrays to iterate, all of the same length
+         */
+        private SlotIterator(T[][] slots) {
+            this.slots = slots;
+            advance();
+        }
+
+        /**
+         * Moves the cursor forward to the next non-null slot, if any
+         */
+        private void advance() {
+            while (index < slots[0].length && Objects.isNull(slots[array][index])) {
+                if (++array == slots.length) {
+                    array = 0;
+                    index++;
+                }
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean hasNext() {
+            return index < slots[0].length;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T next = slots[array][index];
+            if (++array == slots.length) {
+                array = 0;
+                index++;
+            }
+            advance();
+            return next;
+        }
+    }
+}
@@ -75,6 +75,13 @@ public enum Direction implements Serializable {
         return row + rowModifier;
     }
 
+    /**
+     * @return the Direction pointing the opposite way to this one
+     */
+    public Direction opposite() {
+        return values.get((ordinal() + 2) % size);
+    }
+
     /**
      * Translates the positions of two adjacent nodes into a Direction, relative to the second node ('from')
      * @param location the target {@link MapLocation}; i.e., the location the direction of which must be found
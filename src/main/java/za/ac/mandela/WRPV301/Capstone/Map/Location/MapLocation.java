@@ -1,8 +1,6 @@
 package za.ac.mandela.WRPV301.Capstone.Map.Location;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ListMultimap;
-import com.google.common.collect.MultimapBuilder;
 import za.ac.mandela.WRPV301.Capstone.Action.*;
 import za.ac.mandela.WRPV301.Capstone.Game;
 import za.ac.mandela.WRPV301.Capstone.Map.Access.Accessway;
@@ -218,6 +216,7 @@ public abstract class MapLocation extends Describable implements Serializable {
      */
     public void setVisible(boolean visible) {
         isVisible = visible;
+        adjectivesChanged();
         LocationChangeEvent.on(this);
     }
 
@@ -227,6 +226,17 @@ public abstract class MapLocation extends Describable implements Serializable {
      */
     public void setVisibleNoEvent(boolean visible) {
         isVisible = visible;
+        adjectivesChanged();
+    }
+
+    /**
+     * Records that the state of this MapLocation has changed, so that it is included when the game is saved. Has no
+     * effect unless this MapLocation is part of the current {@link za.ac.mandela.WRPV301.Capstone.Map.MapData}
+     */
+    public void markChanged() {
+        if (Objects.nonNull(Game.getMapData())) {
+            Game.getMapData().markChanged(this);
+        }
     }
 
     /**
@@ -240,32 +250,18 @@ public abstract class MapLocation extends Describable implements Serializable {
     }
 
     /**
-     * @return a {@link com.google.common.collect.Multimap} of all {@link Action}s available in the context of this
-     * {@link MapLocation}
-     */
-    public ListMultimap<Actionable, Action> getLocationActions() {
-        ListMultimap<Actionable, Action> actionMap = MultimapBuilder
-                .linkedHashKeys()
-                .arrayListValues()
-                .build();
-        actionMap.putAll(this, getAvailableActions());
-        for (MapLocation connectedLocation : getConnectedLocations()) {
-            actionMap.putAll(connectedLocation, connectedLocation.getAvailableActions());
-        }
-        for (Accessway accessway : getAccessways().values()) {
-            actionMap.putAll(accessway, accessway.getAvailableActions());
-        }
-        return actionMap;
-    }
-
-    /**
-     * @return a {@link HashMap} of all {@link Accessway}s connected to this MapLocation, keyed by their relative
+     * @return an {@link EnumMap} of all {@link Accessway}s connected to this MapLocation, keyed by their relative
      * {@link Direction}
+     * @see za.ac.mandela.WRPV301.Capstone.Map.MapData#getAccessway(MapLocation, Direction) for single-direction
+     * lookups that do not allocate
      */
-    public HashMap<Direction, Accessway> getAccessways() {
-        HashMap<Direction, Accessway> accessways = new HashMap<>();
-        for (MapLocation adjacentNode : Game.getMapData().adjacentNodes(this)) {
-            accessways.put(Direction.of(adjacentNode, this), Game.getMapData().edgeConnectingOrNull(adjacentNode, this));
+    public EnumMap<Direction, Accessway> getAccessways() {
+        EnumMap<Direction, Accessway> accessways = new EnumMap<>(Direction.class);
+        for (Direction direction : Direction.values()) {
+            Accessway accessway = Game.getMapData().getAccessway(this, direction);
+            if (Objects.nonNull(accessway)) {
+                accessways.put(direction, accessway);
+            }
         }
         return accessways;
     }
@@ -290,13 +286,6 @@ public abstract class MapLocation extends Describable implements Serializable {
         return Game.getMapData().hasEdgeConnecting(this, location);
     }
 
-    /**
-     * @return a {@link Set} of immediate neighbour MapLocations that are connected to this MapLocation
-     */
-    private Set<MapLocation> getConnectedLocations() {
-        return Game.getMapData().adjacentNodes(this);
-    }
-
     /**
      * {@inheritDoc}
      */
@@ -309,8 +298,11 @@ public abstract class MapLocation extends Describable implements Serializable {
             builder.append(String.format("A %s, %s lit. The floor is made of %s, and the walls of %s.", getSingleWordDescription(), lighting, floorMaterial, wallMaterial));
         }
         if (this.equals(Game.getPlayer().getCurrentLocation())) {
-            for (Map.Entry<Direction, Accessway> directionAccessway : getAccessways().entrySet()) {
-                builder.append(String.format("\nTo the %s you see %s.", directionAccessway.getKey(), directionAccessway.getValue().getShortDescription()));
+            for (Direction direction : Direction.values()) {
+                Accessway accessway = Game.getMapData().getAccessway(this, direction);
+                if (Objects.nonNull(accessway)) {
+                    builder.append(String.format("\nTo the %s you see %s.", direction, accessway.getShortDescription()));
+                }
             }
         }
         return builder.toString();
@@ -343,4 +335,13 @@ public abstract class MapLocation extends Describable implements Serializable {
         }
         return adjectives;
     }
+
+    /**
+     * {@inheritDoc}
+     * @return the {@link Player}'s current location, since the direction adjective is relative to it
+     */
+    @Override
+    protected Object getAdjectiveContext() {
+        return Game.getPlayer().getCurrentLocation();
+    }
 }
@@ -1,8 +1,6 @@
 package za.ac.mandela.WRPV301.Capstone.Map.Location;
 
-import com.google.common.collect.ListMultimap;
-import za.ac.mandela.WRPV301.Capstone.Action.Action;
-import za.ac.mandela.WRPV301.Capstone.Action.Actionable;
+import za.ac.mandela.WRPV301.Capstone.Action.Describable;
 import za.ac.mandela.WRPV301.Capstone.Combat.*;
 import za.ac.mandela.WRPV301.Capstone.Game;
 import za.ac.mandela.WRPV301.Capstone.Item.Player.PlayerItem;
@@ -11,6 +9,7 @@ import za.ac.mandela.WRPV301.Capstone.Item.Room.HealthChest;
 import za.ac.mandela.WRPV301.Capstone.Item.Room.RoomItem;
 
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Objects;
 
 import static za.ac.mandela.WRPV301.Capstone.Util.Utils.*;
@@ -31,6 +30,11 @@ public class Room extends MapLocation {
      * A {@link HashSet} of the {@link RoomItem} instances in this room
      */
     private final HashSet<RoomItem> roomItems;
+    /**
+     * Everything in this Room, built when first asked for and discarded whenever the contents change; see
+     * {@link #getContents()}
+     */
+    private transient Describable[] contents;
 
     /**
      * Constructor
@@ -42,9 +46,9 @@ public class Room extends MapLocation {
      */
     protected Room(int row, int column, Material floorMaterial, Material wallMaterial, Lighting lighting) {
         super(row, column, floorMaterial, wallMaterial, lighting);
-        playerItems = new HashSet<>();
-        enemies = new HashSet<>();
-        roomItems = new HashSet<>();
+        playerItems = new LinkedHashSet<>();
+        enemies = new LinkedHashSet<>();
+        roomItems = new LinkedHashSet<>();
     }
 
     /**
@@ -56,29 +60,29 @@ public class Room extends MapLocation {
     public static Room random(int row, int column) {
         Room room = randomEmpty(row, column);
         if (p(20)) {
-            room.addEnemy(Insect.InsectType.WORKER.create(room));
+            room.addEnemyNoEvent(Insect.InsectType.WORKER.create(room));
         }
         if (p(20)) {
-            room.addEnemy(Ghost.GhostType.SHADE.create(room));
+            room.addEnemyNoEvent(Ghost.GhostType.SHADE.create(room));
         }
         if (p(20)) {
-            room.addEnemy(Humanoid.minion(room));
+            room.addEnemyNoEvent(Humanoid.minion(room));
         }
         if (p(10)) {
             switch (d(3)) {
                 case 0:
-                    room.addEnemy(Insect.InsectType.SOLDIER.create(room));
+                    room.addEnemyNoEvent(Insect.InsectType.SOLDIER.create(room));
                     break;
                 case 1:
-                    room.addEnemy(Ghost.GhostType.POLTERGEIST.create(room));
+                    room.addEnemyNoEvent(Ghost.GhostType.POLTERGEIST.create(room));
                     break;
                 default:
-                    room.addEnemy(Humanoid.soldier(room));
+                    room.addEnemyNoEvent(Humanoid.soldier(room));
                     break;
             }
         }
         if (p(10)) {
-            room.addRoomItem(new HealthChest(room));
+            room.addRoomItemNoEvent(new HealthChest(room));
         }
         return room;
     }
@@ -93,24 +97,6 @@ public class Room extends MapLocation {
         return new Room(row, column, Material.random(), Material.random(), Lighting.random());
     }
 
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public ListMultimap<Actionable, Action> getLocationActions() {
-        ListMultimap<Actionable, Action> actionMap = super.getLocationActions();
-        for (PlayerItem item : playerItems) {
-            actionMap.putAll(item, item.getAvailableActions());
-        }
-        for (RoomItem item : roomItems) {
-            actionMap.putAll(item, item.getAvailableActions());
-        }
-        for (Enemy enemy : enemies) {
-            actionMap.putAll(enemy, enemy.getAvailableActions());
-        }
-        return actionMap;
-    }
-
     /**
      * {@inheritDoc}
      */
@@ -149,15 +135,27 @@ public class Room extends MapLocation {
      */
     public void addPlayerItem(PlayerItem item) {
         this.playerItems.add(item);
+        markChanged();
         LocationChangeEvent.on(this);
     }
 
+    /**
+     * Adds a {@link PlayerItem} to a Room that is still being generated, without marking it changed or creating a
+     * {@link LocationChangeEvent}
+     * @param item the item to add
+     */
+    public void addPlayerItemNoEvent(PlayerItem item) {
+        playerItems.add(item);
+        contents = null;
+    }
+
     /**
      * Removes a {@link PlayerItem} from the room
      * @param item the item to remove
      */
     public void removePlayerItem(PlayerItem item) {
         this.playerItems.remove(item);
+        markChanged();
         LocationChangeEvent.on(this);
     }
 
@@ -174,6 +172,16 @@ public class Room extends MapLocation {
      */
     public void addEnemy(Enemy enemy) {
         this.enemies.add(enemy);
+        markChanged();
+    }
+
+    /**
+     * Adds an {@link Enemy} to a Room that is still being generated, without marking it changed
+     * @param enemy the {@link Enemy} to add
+     */
+    public void addEnemyNoEvent(Enemy enemy) {
+        enemies.add(enemy);
+        contents = null;
     }
 
     /**
@@ -182,9 +190,19 @@ public class Room extends MapLocation {
      */
     public void removeEnemy(Enemy enemy) {
         this.enemies.remove(enemy);
+        markChanged();
         LocationChangeEvent.on(this);
     }
 
+    /**
+     * Removes every {@link Enemy} from this Room without marking it changed, as when replacing the enemies of a Room
+     * that is still being generated
+     */
+    public void clearEnemiesNoEvent() {
+        enemies.clear();
+        contents = null;
+    }
+
     /**
      * @return a {@link HashSet} of the {@link Enemy} instances in this room
      */
@@ -198,18 +216,39 @@ public class Room extends MapLocation {
      */
     public void addRoomItem(RoomItem roomItem) {
         this.roomItems.add(roomItem);
+        markChanged();
         LocationChangeEvent.on(this);
     }
 
+    /**
+     * Adds a {@link RoomItem} to a Room that is still being generated, without marking it changed or creating a
+     * {@link LocationChangeEvent}
+     * @param roomItem the {@link RoomItem} to add
+     */
+    public void addRoomItemNoEvent(RoomItem roomItem) {
+        roomItems.add(roomItem);
+        contents = null;
+    }
+
     /**
      * Removes a {@link RoomItem} from this room
      * @param roomItem the {@link RoomItem} to remove
      */
     public void removeRoomItem(RoomItem roomItem) {
         roomItems.remove(roomItem);
+        markChanged();
         LocationChangeEvent.on(this);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void markChanged() {
+        contents = null;
+        super.markChanged();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -227,4 +266,27 @@ public class Room extends MapLocation {
     public HashSet<RoomItem> getRoomItems() {
         return roomItems;
     }
+
+    /**
+     * Gets everything in this Room: its {@link PlayerItem}s, then its {@link Enemy} instances, then its
+     * {@link RoomItem}s. The array is kept until the contents next change, so that renderers can read it repeatedly
+     * without iterating, and must not be modified
+     * @return everything in this Room
+     */
+    public Describable[] getContents() {
+        if (Objects.isNull(contents)) {
+            contents = new Describable[playerItems.size() + enemies.size() + roomItems.size()];
+            int index = 0;
+            for (PlayerItem item : playerItems) {
+                contents[index++] = item;
+            }
+            for (Enemy enemy : enemies) {
+                contents[index++] = enemy;
+            }
+            for (RoomItem item : roomItems) {
+                contents[index++] = item;
+            }
+        }
+        return contents;
+    }
 }
@@ -11,11 +11,15 @@ import za.ac.mandela.WRPV301.Capstone.Map.Location.Direction;
 import za.ac.mandela.WRPV301.Capstone.Map.Location.MapLocation;
 import za.ac.mandela.WRPV301.Capstone.Map.Location.Room;
 import za.ac.mandela.WRPV301.Capstone.Event.GenerationEvent;
+import za.ac.mandela.WRPV301.Capstone.Event.MapChangeEvent;
+import za.ac.mandela.WRPV301.Capstone.Game;
 import za.ac.mandela.WRPV301.Capstone.Player;
 
 import java.io.Serializable;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Wrapper class for {@link MutableNetwork} that is grid-addressable and provides convenience methods for common graph
@@ -23,14 +27,28 @@ import java.util.stream.Collectors;
  */
 @SuppressWarnings({"NullableProblems", "ConstantConditions"})
 public class MapData implements MutableNetwork<MapLocation, Accessway> {
+    /**
+     * About the number of grid cells whose locations are created together by one thread when nodes are filled in
+     * parallel; bands are always whole rows
+     */
+    static final int FILL_BAND_CELLS = 4096;
+    /**
+     * The largest grid of a chunked map, in {@link MapLocation} nodes along any side; see {@link #isChunked()}
+     */
+    public static final int MAX_CHUNKED_GRID_SIDE_SIZE = ChunkedWorld.MAX_GRID_SIDE_SIZE;
     /**
      * The backing {@link MutableNetwork}
      */
     private final MutableNetwork<MapLocation, Accessway> mapNetwork;
     /**
-     * A 2D array of the mapNetwork {@link MapLocation} nodes, indexed by their coordinates in a [row][column] fashion
+     * A 2D array of the mapNetwork {@link MapLocation} nodes, indexed by their coordinates in a [row][column] fashion;
+     * null for chunked maps, whose nodes are held by their chunks
      */
     private final MapLocation[][] mapGrid;
+    /**
+     * The chunks of this map, or null unless it is chunked; see {@link #isChunked()}
+     */
+    private final ChunkedWorld world;
     /**
      * The starting {@link MapLocation}s of the underlying maze
      */
@@ -47,6 +65,77 @@ public class MapData implements MutableNetwork<MapLocation, Accessway> {
      * The number of groupings for map grid nodes
      */
     private int numGroups;
+    /**
+     * The seed this MapData instance was generated from, or null if it is not known, e.g. for maps restored from saves
+     * that store the whole map
+     */
+    private final Long seed;
+    /**
+     * The algorithm the maze was carved with; needed, with the seed, to regenerate the map
+     */
+    private final MazeAlgorithm algorithm;
+    /**
+     * True if the map is generated cell by cell by a {@link ProgressiveGenerator}; needed, with the seed, to
+     * regenerate the map
+     */
+    private final boolean progressive;
+    /**
+     * The generator still adding cells to this map, or null once the map is complete
+     */
+    private ProgressiveGenerator generator;
+    /**
+     * Reusable {@link Random} instance, reseeded for every {@link Room} created during generation
+     */
+    private final Random roomRandom = new Random();
+    /**
+     * The grid cells, indexed by {@code row * gridSideSize + column}, whose {@link MapLocation} has changed since
+     * generation
+     */
+    private final BitSet changedLocations = new BitSet();
+    /**
+     * The {@link Accessway} slots, see {@link #getAccesswaySlot(Accessway)}, whose {@link Accessway} has changed since
+     * generation
+     */
+    private final BitSet changedAccessways = new BitSet();
+    /**
+     * The timings of the phases this map was generated in; empty for maps restored from saves that store the whole map
+     */
+    private final GenerationTelemetry telemetry = new GenerationTelemetry();
+
+    /**
+     * Enum with values describing the available implementations of the backing {@link MutableNetwork}
+     */
+    public enum Backing {
+        /**
+         * Guava's general-purpose hash-based network; every node and edge costs several map entries
+         */
+        NETWORK {
+            @Override
+            MutableNetwork<MapLocation, Accessway> create(int gridSideSize) {
+                return NetworkBuilder.undirected()
+                        .allowsParallelEdges(false) //only one connection between any two map nodes
+                        .allowsSelfLoops(false) //map locations can't connect to themselves
+                        .expectedNodeCount(gridSideSize * gridSideSize)
+                        .build();
+            }
+        },
+        /**
+         * A flat, array-backed grid with one slot per node and per direction; see {@link GridNetwork}
+         */
+        GRID {
+            @Override
+            MutableNetwork<MapLocation, Accessway> create(int gridSideSize) {
+                return new GridNetwork(gridSideSize);
+            }
+        };
+
+        /**
+         * Creates an empty backing network of this kind
+         * @param gridSideSize the size, in {@link MapLocation} nodes, of any side of the square map grid
+         * @return an empty backing network of this kind
+         */
+        abstract MutableNetwork<MapLocation, Accessway> create(int gridSideSize);
+    }
 
     /**
      * Internal class to allow serialisation and deserialisation of the enclosing class
@@ -106,11 +195,12 @@ public class MapData implements MutableNetwork<MapLocation, Accessway> {
          */
         @SuppressWarnings("ConstantConditions")
         public MapData toMapData() {
-            MutableNetwork<MapLocation, Accessway> mapNetwork = NetworkBuilder.undirected()
-                    .allowsParallelEdges(false)
-                    .allowsSelfLoops(false)
-                    .expectedNodeCount(mapGrid.length * mapGrid.length)
-                    .build();
+            MutableNetwork<MapLocation, Accessway> mapNetwork = Backing.GRID.create(mapGrid.length);
+            for (MapLocation[] row : mapGrid) {
+                for (MapLocation node : row) {
+                    mapNetwork.addNode(node);
+                }
+            }
             for (Table.Cell<MapLocation, MapLocation, Accessway> edgeCell : edges.cellSet()) {
                 mapNetwork.addNode(edgeCell.getColumnKey());
                 mapNetwork.addNode(edgeCell.getRowKey());
@@ -136,20 +226,45 @@ public class MapData implements MutableNetwork<MapLocation, Accessway> {
         this.endingPoint = endingPoint;
         this.nodeGroups = nodeGroups;
         this.numGroups = numGroups;
+        this.seed = null;
+        this.algorithm = null;
+        this.progressive = false;
+        this.world = null;
     }
 
     /**
      * Private constructor used during new map generation
      * @param gridSideSize the size, in {@link MapLocation} nodes, of any side of the resultant square map grid
+     * @param backing the kind of backing {@link MutableNetwork} to generate into
+     * @param seed the seed the map is generated from
+     * @param algorithm the algorithm the maze is carved with
+     * @param progressive true if the map is generated cell by cell by a {@link ProgressiveGenerator}
      */
-    private MapData(int gridSideSize) {
+    private MapData(int gridSideSize, Backing backing, long seed, MazeAlgorithm algorithm, boolean progressive) {
         GenerationEvent.of("Creating data structures...");
-        this.mapNetwork = NetworkBuilder.undirected()
-                .allowsParallelEdges(false) //only one connection between any two map nodes
-                .allowsSelfLoops(false) //map locations can't connect to themselves
-                .expectedNodeCount(gridSideSize * gridSideSize)
-                .build();
+        this.mapNetwork = backing.create(gridSideSize);
         this.mapGrid = new MapLocation[gridSideSize][gridSideSize];
+        this.seed = seed;
+        this.algorithm = algorithm;
+        this.progressive = progressive;
+        this.world = null;
+    }
+
+    /**
+     * Private constructor used during new chunked map generation; see {@link #isChunked()}
+     * @param gridSideSize the size, in {@link MapLocation} nodes, of any side of the resultant square map grid; a
+     *                     multiple of the chunk size
+     * @param seed the seed the map is generated from
+     */
+    private MapData(int gridSideSize, long seed) {
+        GenerationEvent.of("Creating data structures...");
+        this.mapNetwork = Backing.NETWORK.create(ChunkedWorld.RESIDENT_SIDE_SIZE);
+        this.mapGrid = null;
+        this.numGroups = ChunkedWorld.GROUPS;
+        this.seed = seed;
+        this.algorithm = MazeAlgorithm.TILED;
+        this.progressive = false;
+        this.world = new ChunkedWorld(this, seed, gridSideSize);
     }
 
     /**
@@ -159,32 +274,210 @@ public class MapData implements MutableNetwork<MapLocation, Accessway> {
         return new SerializableMapData(mapNetwork, mapGrid, startingPoint, endingPoint, nodeGroups, numGroups);
     }
 
+    /**
+     * @return true if this MapData instance knows the seed it was generated from, and can therefore be regenerated
+     */
+    public boolean isReproducible() {
+        return Objects.nonNull(seed);
+    }
+
+    /**
+     * @return the seed this MapData instance was generated from; see {@link #isReproducible()}
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return the algorithm the maze was carved with, or null if it is not known; see {@link #isReproducible()}
+     */
+    public MazeAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return the timings of the phases this map was generated in, so far
+     */
+    public GenerationTelemetry getTelemetry() {
+        return telemetry;
+    }
+
+    /**
+     * @return true if this MapData instance was generated cell by cell, so that play could start before it was complete
+     */
+    public boolean isProgressive() {
+        return progressive;
+    }
+
+    /**
+     * @return true if this MapData instance is generated a chunk at a time as the player explores it. Only the chunks
+     * around the player are held in memory and in the backing network, so {@link #get(int, int)} returns null outside
+     * them and the network holds a small part of the map; see {@link #focus(MapLocation)}
+     */
+    public boolean isChunked() {
+        return Objects.nonNull(world);
+    }
+
+    /**
+     * Moves the player's focus on a chunked map to a {@link MapLocation}, loading the chunks around it and evicting
+     * those far from it; the map is redrawn if it is the current one and any chunk was loaded or evicted. Does nothing
+     * for other maps
+     * @param location the player's new location
+     * @throws java.io.UncheckedIOException if a chunk could not be spilled to or read back from disk
+     */
+    public void focus(MapLocation location) {
+        if (Objects.nonNull(world) && world.focus(location.getRow(), location.getColumn()) && Game.getMapData() == this) {
+            MapChangeEvent.post();
+        }
+    }
+
+    /**
+     * @return the chunks of this map, or null unless it is chunked
+     */
+    ChunkedWorld getWorld() {
+        return world;
+    }
+
+    /**
+     * Gets a {@link MapLocation} by its grid coordinates, loading its chunk if this map is chunked and the chunk is not
+     * in memory
+     * @param row the row coordinate of the target {@link MapLocation}; must be within the grid
+     * @param column the column coordinate of the target {@link MapLocation}; must be within the grid
+     * @return the {@link MapLocation} at the given coordinates
+     */
+    MapLocation load(int row, int column) {
+        return Objects.isNull(world) ? mapGrid[row][column] : world.load(row, column);
+    }
+
+    /**
+     * @return false while cells of a progressively generated map are still being added; see
+     * {@link #generateRemainder(Executor)}
+     */
+    public boolean isComplete() {
+        return Objects.isNull(generator);
+    }
+
+    /**
+     * Adds every remaining cell of a progressively generated map immediately, on the calling thread, which must be the
+     * thread that owns this map. Does nothing if the map is already complete
+     */
+    public void complete() {
+        if (Objects.nonNull(generator)) {
+            generator.complete();
+        }
+    }
+
+    /**
+     * Generates the remaining cells of a progressively generated map on the calling thread, which should not be the
+     * thread that owns this map, and hands every finished batch to an {@link Executor} that adds it to the map on the
+     * owning thread. Returns once every batch has been handed over, or at once if the map is already complete
+     * @param owner an {@link Executor} that runs tasks on the thread that owns this map
+     */
+    public void generateRemainder(Executor owner) {
+        ProgressiveGenerator generator = this.generator;
+        if (Objects.nonNull(generator)) {
+            while (generator.produce()) {
+                owner.execute(generator::applyPending);
+            }
+        }
+    }
+
+    /**
+     * Records that the {@link ProgressiveGenerator} of this map has added every cell
+     */
+    void finishGeneration() {
+        generator = null;
+    }
+
+    /**
+     * Sets the starting and ending points; used by a {@link ProgressiveGenerator} once it has added them
+     * @param startingPoint the player's starting location
+     * @param endingPoint the maze's endpoint
+     */
+    void setEndpoints(MapLocation startingPoint, MapLocation endingPoint) {
+        this.startingPoint = startingPoint;
+        this.endingPoint = endingPoint;
+    }
+
+    /**
+     * Sets the node groups; used by a {@link ProgressiveGenerator}, which groups nodes before any are added
+     * @param groups the processed node groups
+     */
+    void setGroups(TraversalGrouping.Result groups) {
+        this.nodeGroups = groups.nodeGroups;
+        this.numGroups = groups.numGroups;
+    }
+
     /**
      * @return the player's starting location
      */
     public MapLocation getStartingPoint() {
-        return startingPoint;
+        return Objects.isNull(world) ? startingPoint : world.getStartingPoint();
     }
 
     /**
-     * @return the maze's endpoint, i.e, the winning location
+     * @return the maze's endpoint, i.e, the winning location; null on a chunked map while its chunk is not in memory
      */
     public MapLocation getEndingPoint() {
-        return endingPoint;
+        return Objects.isNull(world) ? endingPoint : world.getEndingPoint();
     }
 
     /**
      * Gets a {@link MapLocation} by its grid coordinates
      * @param row the row coordinate of the target {@link MapLocation}
      * @param column the column coordinate of the target {@link MapLocation}
-     * @return the {@link MapLocation} at the given coordinates, or null if no such location exists
+     * @return the {@link MapLocation} at the given coordinates, or null if no such location exists or, on a chunked
+     * map, its chunk is not in memory
      */
     public MapLocation get(int row, int column) {
-        try {
-            return mapGrid[row][column];
-        } catch (Exception e) {
+        if (Objects.nonNull(world)) {
+            int length = world.getGridSideSize();
+            return row < 0 || column < 0 || row >= length || column >= length ? null : world.get(row, column);
+        }
+        if (row < 0 || column < 0 || row >= mapGrid.length || column >= mapGrid.length) {
             return null;
         }
+        return mapGrid[row][column];
+    }
+
+    /**
+     * Gets the gridwise neighbour of a {@link MapLocation} in a given {@link Direction}, whether connected or not
+     * @param location the {@link MapLocation} to get the neighbour of
+     * @param direction the {@link Direction} of the neighbour, relative to the given location
+     * @return the neighbouring {@link MapLocation}, or null if the given location is on the edge of the grid
+     */
+    public MapLocation getNeighbour(MapLocation location, Direction direction) {
+        return get(direction.translateRow(location.getRow()), direction.translateColumn(location.getColumn()));
+    }
+
+    /**
+     * Gets the {@link Accessway} leading out of a {@link MapLocation} in a given {@link Direction}. With a
+     * {@link Backing#GRID} backing this is a constant-time array lookup that does not allocate.
+     * @param location the {@link MapLocation} the {@link Accessway} leads out of
+     * @param direction the {@link Direction} of the {@link Accessway}, relative to the given location
+     * @return the {@link Accessway} in the given {@link Direction}, or null if there is none
+     */
+    public Accessway getAccessway(MapLocation location, Direction direction) {
+        if (mapNetwork instanceof GridNetwork) {
+            return ((GridNetwork) mapNetwork).edge(location.getRow(), location.getColumn(), direction);
+        }
+        MapLocation neighbour = getNeighbour(location, direction);
+        return Objects.isNull(neighbour) ? null : mapNetwork.edgeConnectingOrNull(location, neighbour);
+    }
+
+    /**
+     * Gets the {@link Accessway} leading out of a grid cell in a given {@link Direction}, without reading the
+     * {@link MapLocation} at that cell when the backing is a {@link Backing#GRID}
+     * @param row the row coordinate of the grid cell
+     * @param column the column coordinate of the grid cell
+     * @param direction the {@link Direction} of the {@link Accessway}, relative to the given cell
+     * @return the {@link Accessway} in the given {@link Direction}, or null if there is none
+     */
+    private Accessway getAccessway(int row, int column, Direction direction) {
+        if (mapNetwork instanceof GridNetwork) {
+            return ((GridNetwork) mapNetwork).edge(row, column, direction);
+        }
+        return getAccessway(get(row, column), direction);
     }
 
     /**
@@ -194,6 +487,11 @@ public class MapData implements MutableNetwork<MapLocation, Accessway> {
      * @return the replacement {@link MapLocation}
      */
     public MapLocation replaceMapLocation(MapLocation current, MapLocation replacement) {
+        if (mapNetwork instanceof GridNetwork) {
+            ((GridNetwork) mapNetwork).replaceNode(current, replacement);
+            mapGrid[current.getRow()][current.getColumn()] = replacement;
+            return replacement;
+        }
         HashSet<MapLocation> subGraphNodes = new HashSet<>(mapNetwork.adjacentNodes(current));
         subGraphNodes.add(current);
         MutableNetwork<MapLocation, Accessway> oldSubGraph = Graphs.inducedSubgraph(mapNetwork, subGraphNodes);
@@ -202,10 +500,22 @@ public class MapData implements MutableNetwork<MapLocation, Accessway> {
         for (Accessway edge : oldSubGraph.incidentEdges(current)) {
             mapNetwork.addEdge(replacement, oldSubGraph.incidentNodes(edge).adjacentNode(current), edge);
         }
-        mapGrid[current.getRow()][current.getColumn()] = replacement;
+        setCell(replacement);
         return replacement;
     }
 
+    /**
+     * Puts a {@link MapLocation} in its grid cell, in the chunk holding the cell if this map is chunked
+     * @param location the {@link MapLocation} to put in place
+     */
+    private void setCell(MapLocation location) {
+        if (Objects.isNull(world)) {
+            mapGrid[location.getRow()][location.getColumn()] = location;
+        } else {
+            world.set(location);
+        }
+    }
+
     /**
      * Convenience method to replace a {@link Accessway} edge in this MapData instance
      * @param current the {@link Accessway} edge to replace
@@ -213,6 +523,13 @@ public class MapData implements MutableNetwork<MapLocation, Accessway> {
      * @return the replacement {@link Accessway}
      */
     public Accessway replaceAccessway(Accessway current, Accessway replacement) {
+        if (mapNetwork instanceof GridNetwork) {
+            ((GridNetwork) mapNetwork).replaceEdge(current, replacement);
+            return replacement;
+        }
+        if (Objects.nonNull(world)) {
+            world.setAccessway(getAccesswaySlot(current), replacement);
+        }
         EndpointPair<MapLocation> connectingLocations = mapNetwork.incidentNodes(current);
         mapNetwork.removeEdge(current);
         mapNetwork.addEdge(connectingLocations, replacement);
@@ -223,7 +540,7 @@ public class MapData implements MutableNetwork<MapLocation, Accessway> {
      * @return the size, in {@link MapLocation} nodes, of any side of this MapData instance's square map grid
      */
     public int getGridSideSize() {
-        return mapGrid.length;
+        return Objects.isNull(world) ? mapGrid.length : world.getGridSideSize();
     }
 
     /**
@@ -239,6 +556,9 @@ public class MapData implements MutableNetwork<MapLocation, Accessway> {
      * @return the node grouping of the specified node
      */
     public int getNodeGroup(MapLocation node) {
+        if (Objects.nonNull(world)) {
+            return world.groupOf(node.getRow(), node.getColumn());
+        }
         return nodeGroups[node.getRow()][node.getColumn()];
     }
 
@@ -248,169 +568,515 @@ public class MapData implements MutableNetwork<MapLocation, Accessway> {
      * @return a new randomised MapData instance
      */
     public static MapData build(int gridSideSize) {
-        MapData mapData = new MapData(gridSideSize);
-        mapData.fillNodes();
-        mapData.buildMaze();
-        return mapData;
+        return MapDataBuilder.newInstance().setGridSideSize(gridSideSize).build();
     }
 
     /**
-     * Populates this MapData instance with random {@link MapLocation}s
+     * Static generation method to create a randomised MapData instance with a specific kind of backing network
+     * @param gridSideSize the size, in {@link MapLocation} nodes, of any side of the resultant square map grid
+     * @param backing the kind of backing {@link MutableNetwork} to generate into
+     * @return a new randomised MapData instance
      */
-    private void fillNodes() {
-        int length = getGridSideSize();
-        int lengthSquared = length * length;
-        for (int i = 0; i < length; i++) {
-            for (int j = 0; j < length; j++) {
-                addNode(MapLocation.random(i, j));
+    public static MapData build(int gridSideSize, Backing backing) {
+        return MapDataBuilder.newInstance().setGridSideSize(gridSideSize).setBacking(backing).build();
+    }
+
+    /**
+     * Generates a randomised MapData instance; every {@link GenerationPhase} draws from its own stream derived from the
+     * given seed, so the same arguments always produce the same map. Called by {@link MapDataBuilder#build()}
+     * @param gridSideSize the size, in {@link MapLocation} nodes, of any side of the resultant square map grid
+     * @param backing the kind of backing {@link MutableNetwork} to generate into
+     * @param seed the seed from which the map is generated
+     * @param algorithm the algorithm to carve the maze with
+     * @param parallelism the number of threads the maze carver and node filling may use
+     * @return a new randomised MapData instance
+     */
+    static MapData generate(int gridSideSize, Backing backing, long seed, MazeAlgorithm algorithm, int parallelism) {
+        Random previous = setThreadRandom(GenerationPhase.BUILD_MAZE.random(seed));
+        try {
+            MapData mapData = new MapData(gridSideSize, backing, seed, algorithm, false);
+            MazeGrid carved = null;
+            if (Objects.nonNull(algorithm.getCarver())) {
+                carved = mapData.carve(algorithm, parallelism);
             }
-            GenerationEvent.of(String.format("Creating map node %d of %d", i * length, lengthSquared));
+            mapData.buildMaze(carved, parallelism);
+            return mapData;
+        } finally {
+            setThreadRandom(previous);
+        }
+    }
+
+    /**
+     * Generates a randomised MapData instance with a {@link ProgressiveGenerator}, returning as soon as a region around
+     * the starting point has been added; see {@link #generateRemainder(Executor)}. The map depends only on the seed,
+     * size and algorithm, not on the size of the region. Called by {@link MapDataBuilder}
+     * @param gridSideSize the size, in {@link MapLocation} nodes, of any side of the resultant square map grid
+     * @param backing the kind of backing {@link MutableNetwork} to generate into
+     * @param seed the seed from which the map is generated
+     * @param algorithm the algorithm to carve the maze with; must carve the maze ahead of traversal
+     * @param parallelism the number of threads the maze carver may use
+     * @param regionSize the number of cells to add before returning
+     * @return a new randomised MapData instance, complete if the region covers the whole grid
+     * @throws IllegalArgumentException if the algorithm does not carve the maze ahead of traversal
+     */
+    static MapData generateProgressively(int gridSideSize, Backing backing, long seed, MazeAlgorithm algorithm, int parallelism, int regionSize) {
+        if (Objects.isNull(algorithm.getCarver())) {
+            throw new IllegalArgumentException(String.format("%s mazes cannot be generated progressively", algorithm));
+        }
+        MapData mapData = new MapData(gridSideSize, backing, seed, algorithm, true);
+        MazeGrid carved = mapData.carve(algorithm, parallelism);
+        mapData.generator = new ProgressiveGenerator(mapData, carved, seed);
+        mapData.generator.generateRegion(regionSize);
+        return mapData;
+    }
+
+    /**
+     * Generates a randomised chunked MapData instance, see {@link #isChunked()}, returning once the chunks around the
+     * starting point are in memory. Every chunk is a tile of a {@link MazeAlgorithm#TILED} maze, and is generated from
+     * streams derived from the given seed, so the same arguments always produce the same map. Called by
+     * {@link MapDataBuilder#build()}
+     * @param gridSideSize the size, in {@link MapLocation} nodes, of any side of the resultant square map grid; rounded
+     *                     up to a whole number of chunks
+     * @param seed the seed from which the map is generated
+     * @return a new randomised chunked MapData instance
+     * @throws IllegalArgumentException if the grid is too small to hold the starting point and the ending point a few
+     * chunks apart, or larger than {@link #MAX_CHUNKED_GRID_SIDE_SIZE}
+     */
+    static MapData generateChunked(int gridSideSize, long seed) {
+        if (gridSideSize < ChunkedWorld.MIN_GRID_SIDE_SIZE || gridSideSize > MAX_CHUNKED_GRID_SIDE_SIZE) {
+            throw new IllegalArgumentException(String.format("Chunked maps must be between %d and %d nodes wide",
+                    ChunkedWorld.MIN_GRID_SIDE_SIZE, MAX_CHUNKED_GRID_SIDE_SIZE));
         }
+        int chunks = (gridSideSize + ChunkedWorld.CHUNK_SIZE - 1) / ChunkedWorld.CHUNK_SIZE;
+        MapData mapData = new MapData(chunks * ChunkedWorld.CHUNK_SIZE, seed);
+        GenerationEvent.of("Generating chunks...");
+        mapData.focus(mapData.getStartingPoint());
+        return mapData;
+    }
+
+    /**
+     * Carves the maze of this map ahead of traversal
+     * @param algorithm the algorithm to carve the maze with; must have a {@link MazeCarver}
+     * @param parallelism the number of threads the maze carver may use
+     * @return the carved maze
+     */
+    private MazeGrid carve(MazeAlgorithm algorithm, int parallelism) {
+        GenerationTelemetry.Span span = telemetry.start(GenerationTelemetry.Phase.CARVE_MAZE);
+        GenerationEvent.of("Carving maze...");
+        int length = getGridSideSize();
+        MazeGrid carved = new MazeGrid(length);
+        algorithm.getCarver().carve(carved, GenerationPhase.CARVE_MAZE.seed(seed), parallelism);
+        span.end(0, (long) length * length - 1);
+        return carved;
     }
 
     /**
-     * Populates and groups edges by building a maze; some nodes may be replaced.
+     * Builds the map in a single pass over each of its parts, so that no node or edge is ever replaced. The maze is
+     * traversed over grid cells first, creating every {@link Accessway} in traversal order; then the final
+     * {@link MapLocation} of every cell is created, with every dead end a {@link Room}; then the key chain puts its
+     * locks in place of the accessways of the dead ends it guards; and only then are the edges added. Every
+     * {@link GenerationPhase} stream is drawn from in the same order as when every cell was created up front and then
+     * replaced, so the same seed still generates the same map
+     * @param carved a pre-carved maze to follow, or null to carve the maze while traversing the grid
+     * @param parallelism the number of threads node filling may use
      */
-    private void buildMaze() {
+    private void buildMaze(MazeGrid carved, int parallelism) {
         int length = getGridSideSize();
         int lengthSquared = length * length;
+        GenerationTelemetry.Span span = telemetry.start(GenerationTelemetry.Phase.BUILD_MAZE);
         GenerationEvent.of("Generating maze structure...");
-        TraversalGroupManager groupManager = new TraversalGroupManager();
-        TraversalGroup currentGroup = groupManager.newGroup(null);
-        TraversalGroup currentlyTraversing;
-        startingPoint = randomStartingPosition();
-        Stack<MapLocation> locationStack = new Stack<>();
-        locationStack.push(startingPoint);
-        MapLocation current;
-        boolean endpointSentinel = false, backtrackSentinel = false;
-        HashMap<Direction, MapLocation> neighbours;
-        currentGroup.addNode(startingPoint);
-        while (!locationStack.empty()) {
-            current = locationStack.pop();
-            currentlyTraversing = groupManager.groupFor(current);
-            neighbours = getNeighboursOf(current);
-            neighbours.values().removeIf(groupManager::contains);
-            if (neighbours.size() > 0) {
+        MazeGrid maze = Objects.isNull(carved) ? new MazeGrid(length) : carved;
+        Accessway[] accessways = new Accessway[lengthSquared * 2];
+        //each edge as cell * 4 + direction ordinal, so that edges can be added in the order they were traversed
+        int[] edgeOrder = new int[lengthSquared - 1];
+        int edgeCount = 0;
+        Direction[] directions = Direction.values();
+        Direction[] neighbours = new Direction[directions.length];
+        TraversalGrouping grouping = new TraversalGrouping(length);
+        int currentGroup = grouping.newGroup(-1);
+        int startCell = d(length) * length;
+        startCell += d(length);
+        int endCell = -1;
+        int[] stack = new int[lengthSquared];
+        int top = 0;
+        boolean backtrackSentinel = false;
+        grouping.addNode(startCell / length, startCell % length, currentGroup);
+        stack[top++] = startCell;
+        while (top > 0) {
+            int cell = stack[--top];
+            int row = cell / length, column = cell % length;
+            int currentlyTraversing = grouping.groupOf(row, column);
+            int neighbourCount = 0;
+            for (Direction direction : directions) {
+                if (Objects.nonNull(carved) && !carved.isConnected(row, column, direction)) {
+                    continue;
+                }
+                int neighbourRow = direction.translateRow(row), neighbourColumn = direction.translateColumn(column);
+                if (neighbourRow >= 0 && neighbourColumn >= 0 && neighbourRow < length && neighbourColumn < length
+                        && !grouping.isVisited(neighbourRow, neighbourColumn)) {
+                    neighbours[neighbourCount++] = direction;
+                }
+            }
+            if (neighbourCount > 0) {
                 backtrackSentinel = false;
-                locationStack.push(current);
-                Direction[] availableNeighbourKeys = new Direction[neighbours.size()];
-                neighbours.keySet().toArray(availableNeighbourKeys);
-                Direction direction = availableNeighbourKeys[d(availableNeighbourKeys.length)];
-                MapLocation neighbour = neighbours.get(direction);
-                Accessway accessway = Accessway.randomUnlockedOrOpen();
-                addEdge(current, neighbour, accessway);
-                currentGroup.addNode(neighbour);
-                locationStack.push(neighbour);
-            } else  {
-                if (!endpointSentinel) {
-                    endpointSentinel = true;
-                    endingPoint = get(current.getRow(), current.getColumn());
+                stack[top++] = cell;
+                Direction direction = neighbours[Objects.isNull(carved) ? d(neighbourCount) : 0];
+                accessways[maze.slot(row, column, direction)] = Accessway.randomUnlockedOrOpen();
+                edgeOrder[edgeCount++] = cell * directions.length + direction.ordinal();
+                if (Objects.isNull(carved)) {
+                    maze.connect(row, column, direction);
                 }
-                //make sure all leaves are rooms
-                if (degree(current) == 1) {
-                    MapLocation replacement;
-                    if (current.equals(startingPoint) || current.equals(endingPoint)) {
-                        replacement = replaceMapLocation(current, Room.randomEmpty(current.getRow(), current.getColumn()));
-                    } else {
-                        replacement = replaceMapLocation(current, Room.random(current.getRow(), current.getColumn()));
-                    }
-                    currentGroup.replaceNode(current, replacement);
-                    if (current.equals(startingPoint)) {
-                        startingPoint = replacement;
-                    }
-                    if (current.equals(endingPoint)) {
-                        endingPoint = replacement;
-                    }
+                int neighbourRow = direction.translateRow(row), neighbourColumn = direction.translateColumn(column);
+                grouping.addNode(neighbourRow, neighbourColumn, currentGroup);
+                stack[top++] = neighbourRow * length + neighbourColumn;
+            } else {
+                if (endCell < 0) {
+                    endCell = cell;
                 }
                 if (!backtrackSentinel) {
-                    currentGroup = groupManager.newGroup(currentlyTraversing);
-                    GenerationEvent.of(String.format("Generating maze structure...(%d/%d)", groupManager.size(), lengthSquared));
+                    currentGroup = grouping.newGroup(currentlyTraversing);
+                    GenerationEvent.of("Generating maze structure...(%d/%d)", grouping.size(), lengthSquared);
                     backtrackSentinel = true;
                 }
             }
         }
-        nodeGroups = groupManager.processGroups(getGridSideSize());
-        numGroups = groupManager.groupCount();
-        distributeKeys();
+        span.end(lengthSquared, 0);
+        span = telemetry.start(GenerationTelemetry.Phase.GROUP_NODES);
+        TraversalGrouping.Result groups = grouping.process();
+        nodeGroups = groups.nodeGroups;
+        numGroups = groups.numGroups;
+        span.end(lengthSquared, 0);
+        fillNodes(maze, startCell, endCell, parallelism);
+        span = telemetry.start(GenerationTelemetry.Phase.DISTRIBUTE_KEYS);
+        setThreadRandom(GenerationPhase.DISTRIBUTE_KEYS.random(seed));
+        int keys = distributeKeys(maze, accessways, startCell, endCell);
         Room end = (Room) endingPoint;
-        end.addRoomItem(new Crown(end));
-        end.getEnemies().clear();
+        end.addRoomItemNoEvent(new Crown(end));
+        end.clearEnemiesNoEvent();
         endingPoint.setVisibleNoEvent(true);
+        span.end(keys, keys);
+        span = telemetry.start(GenerationTelemetry.Phase.BUILD_MAZE);
+        for (int i = 0; i < edgeCount; i++) {
+            int cell = edgeOrder[i] / directions.length;
+            Direction direction = directions[edgeOrder[i] % directions.length];
+            int row = cell / length, column = cell % length;
+            addEdge(mapGrid[row][column], mapGrid[direction.translateRow(row)][direction.translateColumn(column)],
+                    accessways[maze.slot(row, column, direction)]);
+        }
+        span.end(0, edgeCount);
+    }
+
+    /**
+     * Populates this MapData instance with the final {@link MapLocation} of every cell of a traversed maze: dead ends
+     * and the starting point are {@link Room}s, and dead ends at either end of the maze are empty. Locations are created
+     * in bands of rows on a {@link ForkJoinPool}, every cell from its own stream, see
+     * {@link #randomLocation(int, int, Random)}, so the map does not depend on the number of threads; they are then
+     * added on the calling thread, in row-major order. Progress is reported from the calling thread as each band, in
+     * order, completes
+     * @param maze the traversed maze
+     * @param startCell the cell of the starting point, indexed by {@code row * gridSideSize + column}
+     * @param endCell the cell of the ending point, indexed the same way
+     * @param parallelism the number of threads to create locations with
+     */
+    private void fillNodes(MazeGrid maze, int startCell, int endCell, int parallelism) {
+        GenerationTelemetry.Span span = telemetry.start(GenerationTelemetry.Phase.FILL_NODES);
+        int length = getGridSideSize();
+        int lengthSquared = length * length;
+        MapLocation[] locations = new MapLocation[lengthSquared];
+        int bandRows = Math.max(1, FILL_BAND_CELLS / length);
+        ArrayList<RowBand> bands = new ArrayList<>(length / bandRows + 1);
+        for (int from = 0; from < length; from += bandRows) {
+            bands.add(new RowBand(maze, startCell, endCell, locations, from, Math.min(length, from + bandRows)));
+        }
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            bands.forEach(pool::execute);
+            for (RowBand band : bands) {
+                band.join();
+                GenerationEvent.of("Creating map node %d of %d", band.to * length, lengthSquared);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        for (MapLocation location : locations) {
+            addNode(location);
+        }
+        startingPoint = get(startCell / length, startCell % length);
+        endingPoint = get(endCell / length, endCell % length);
+        span.end(lengthSquared, 0);
+    }
+
+    /**
+     * Creates a random {@link MapLocation} that is not a {@link Room} from a stream of the
+     * {@link GenerationPhase#FILL_NODES} phase that depends only on the map seed and the location's grid cell, reseeding
+     * a given {@link Random} instance so that locations can be created from more than one thread
+     * @param row the row coordinate of the {@link MapLocation}
+     * @param column the column coordinate of the {@link MapLocation}
+     * @param random the {@link Random} instance to reseed
+     * @return a new random {@link MapLocation}
+     */
+    MapLocation randomLocation(int row, int column, Random random) {
+        random.setSeed(mixSeed(GenerationPhase.FILL_NODES.seed(seed), (long) row * getGridSideSize() + column));
+        Random previous = setThreadRandom(random);
+        try {
+            return MapLocation.random(row, column);
+        } finally {
+            setThreadRandom(previous);
+        }
     }
 
     /**
      * Distributes a chain of keys for rooms, each of which is a maze dead end, and holds the key for the next such room.
-     * Rooms are chosen heuristically, namely the second closest by Pythagorean distance
+     * Dead ends are chained in the order a depth-first walk from the starting point reaches them, so that every key
+     * lies a short walk along the maze from the lock it opens, and the whole chain can be walked in at most two passes
+     * over every passage. The dead end the player reaches first is left unlocked, so that the chain can always be
+     * completed. Locks are put in place of the accessways created by the traversal before any edge is added
+     * @param maze the traversed maze
+     * @param accessways the {@link Accessway} of every passage, by slot; see {@link #getAccesswaySlot(Accessway)}
+     * @param startCell the cell of the starting point, indexed by {@code row * gridSideSize + column}
+     * @param endCell the cell of the ending point, indexed the same way
+     * @return the number of rooms on the key chain
      */
-    private void distributeKeys() {
+    private int distributeKeys(MazeGrid maze, Accessway[] accessways, int startCell, int endCell) {
         GenerationEvent.of("Finding tree leaves (no, really)");
-        ArrayList<MapLocation> leaves = nodes().stream().filter(node -> degree(node) < 2).collect(Collectors.toCollection(ArrayList::new));
-        leaves.remove(startingPoint);
-        leaves.remove(endingPoint);
-        Lockable.Lock.Key currentKey = ((Lockable) replaceAccessway(incidentEdges(endingPoint).stream().findAny().orElseThrow(), Lockable.randomLocked())).getLock().getKey();
-        MapLocation leaf = leaves.get(d(leaves.size()));
-        int count = 0;
-        int total = leaves.size();
-        while (Objects.nonNull(leaf)) {
-            GenerationEvent.of(String.format("Distributing locks and keys... (%d/%d)", ++count, total));
-            leaves.remove(leaf);
-            Room room = (Room) leaf;
-            room.getEnemies().clear();
-            switch ((count * 5) / total) {
-                case 0:
-                    room.addEnemy(Enemy.randomMinion(room));
-                    break;
-                case 1:
-                    room.addEnemy(Enemy.randomSoldier(room));
-                    break;
-                case 2:
-                    room.addEnemy(Enemy.randomMiniBoss(room));
-                    break;
-                default:
-                    room.addEnemy(Enemy.randomBoss(room));
+        int[] leaves = maze.deadEndsInWalkOrder(startCell, endCell);
+        int total = leaves.length;
+        if (total == 0) {
+            return 0;
+        }
+        int gridSideSize = getGridSideSize();
+        int progressStep = Math.max(1, total / 100);
+        Lockable.Lock.Key currentKey = lockOnlyPassage(maze, accessways, endCell);
+        for (int count = 1; count <= total; count++) {
+            if (count % progressStep == 0 || count == total) {
+                GenerationEvent.of("Distributing locks and keys... (%d/%d)", count, total);
+            }
+            int cell = leaves[total - count];
+            Room room = (Room) get(cell / gridSideSize, cell % gridSideSize);
+            room.clearEnemiesNoEvent();
+            room.addEnemyNoEvent(randomKeyGuard(room, count, total));
+            room.addPlayerItemNoEvent(currentKey);
+            if (count < total) {
+                currentKey = lockOnlyPassage(maze, accessways, cell);
             }
-            ((Room) leaf).addPlayerItem(currentKey);
-            currentKey = ((Lockable) replaceAccessway(incidentEdges(leaf).stream().findAny().orElseThrow(), Lockable.randomLocked())).getLock().getKey();
-            MapLocation finalLeaf = leaf;
-            leaf = leaves.stream()
-                    .sorted((a, b) -> {
-                        double aPythagorus = Math.sqrt(Math.pow(a.getColumn() - finalLeaf.getColumn(), 2) + Math.pow(a.getRow() - finalLeaf.getRow(), 2));
-                        double bPythagorus = Math.sqrt(Math.pow(b.getColumn() - finalLeaf.getColumn(), 2) + Math.pow(b.getRow() - finalLeaf.getRow(), 2));
-                        return Double.compare(bPythagorus, aPythagorus);
-                    })
-                    .limit(2)
-                    .reduce((a, b) -> b)
-                    .orElse(null);
-        }
-    }
-
-    /**
-     * Gets a {@link HashMap} of the gridwise neighbours of a {@link MapLocation} node, excluding diagonal neighbours.
-     * resultant map entries are keyed by their relative direction from the specified location
-     * @param location the {@link MapLocation} to get the neighbours of
-     * @return a {@link HashMap} of the gridwise neighbours of a {@link MapLocation} node, excluding diagonal
-     * neighbours, keyed by relative direction
-     */
-    private HashMap<Direction, MapLocation> getNeighboursOf(MapLocation location) {
-        HashMap<Direction, MapLocation> neighbours = new HashMap<>();
+        }
+        return total;
+    }
+
+    /**
+     * Creates a random locked {@link Lockable} for the single passage leading out of a dead end, in place of the
+     * {@link Accessway} created for it by the traversal
+     * @param maze the traversed maze
+     * @param accessways the {@link Accessway} of every passage, by slot; see {@link #getAccesswaySlot(Accessway)}
+     * @param cell the cell of the dead end, indexed by {@code row * gridSideSize + column}
+     * @return the key to the new lock
+     */
+    private static Lockable.Lock.Key lockOnlyPassage(MazeGrid maze, Accessway[] accessways, int cell) {
+        int row = cell / maze.getGridSideSize(), column = cell % maze.getGridSideSize();
         for (Direction direction : Direction.values()) {
-            MapLocation node = get(direction.translateRow(location.getRow()), direction.translateColumn(location.getColumn()));
-            if (!Objects.isNull(node)) {
-                neighbours.put(direction, node);
+            if (maze.isConnected(row, column, direction)) {
+                Lockable lock = Lockable.randomLocked();
+                accessways[maze.slot(row, column, direction)] = lock;
+                return lock.getLock().getKey();
             }
         }
-        return neighbours;
+        throw new NoSuchElementException(String.format("No passage leads out of %d, %d", row, column));
+    }
+
+    /**
+     * Creates the {@link Enemy} guarding a room on the key chain; rooms further along the chain get tougher guards
+     * @param room the {@link Room} to guard
+     * @param position the position of the room in the key chain, counted from the ending point, starting at 1
+     * @param total the number of rooms in the key chain
+     * @return a new random {@link Enemy}
+     */
+    static Enemy randomKeyGuard(Room room, int position, int total) {
+        switch ((position * 5) / total) {
+            case 0:
+                return Enemy.randomMinion(room);
+            case 1:
+                return Enemy.randomSoldier(room);
+            case 2:
+                return Enemy.randomMiniBoss(room);
+            default:
+                return Enemy.randomBoss(room);
+        }
+    }
+
+    /**
+     * Creates a random {@link Room} from a stream of the {@link GenerationPhase#POPULATE_ROOMS} phase that depends only
+     * on the map seed and the room's grid cell
+     * @param row the row coordinate of the {@link Room}
+     * @param column the column coordinate of the {@link Room}
+     * @param empty true if the {@link Room} should have no enemies or items
+     * @return a new random {@link Room}
+     */
+    private Room randomRoom(int row, int column, boolean empty) {
+        return randomRoom(row, column, empty, roomRandom);
+    }
+
+    /**
+     * Creates a random {@link Room} as {@link #randomRoom(int, int, boolean)} does, reseeding a given {@link Random}
+     * instance so that rooms can be created from more than one thread
+     * @param row the row coordinate of the {@link Room}
+     * @param column the column coordinate of the {@link Room}
+     * @param empty true if the {@link Room} should have no enemies or items
+     * @param random the {@link Random} instance to reseed
+     * @return a new random {@link Room}
+     */
+    Room randomRoom(int row, int column, boolean empty, Random random) {
+        random.setSeed(mixSeed(GenerationPhase.POPULATE_ROOMS.seed(seed), (long) row * getGridSideSize() + column));
+        Random previous = setThreadRandom(random);
+        try {
+            return empty ? Room.randomEmpty(row, column) : Room.random(row, column);
+        } finally {
+            setThreadRandom(previous);
+        }
+    }
+
+    /**
+     * Records that a {@link MapLocation} in this map has changed since generation, so that it is included when the
+     * game is saved. Locations that are not part of this map are ignored
+     * @param location the {@link MapLocation} that has changed
+     */
+    public void markChanged(MapLocation location) {
+        if (get(location.getRow(), location.getColumn()) != location) {
+            return;
+        }
+        if (Objects.nonNull(world)) {
+            world.markChanged(location.getRow(), location.getColumn());
+        } else {
+            changedLocations.set(location.getRow() * getGridSideSize() + location.getColumn());
+        }
+    }
+
+    /**
+     * Records that an {@link Accessway} in this map has changed since generation, so that it is included when the game
+     * is saved. Accessways that are not part of this map are ignored
+     * @param accessway the {@link Accessway} that has changed
+     */
+    public void markChanged(Accessway accessway) {
+        int slot = getAccesswaySlot(accessway);
+        if (slot >= 0 && Objects.nonNull(world)) {
+            world.markChanged(slot);
+        } else if (slot >= 0) {
+            changedAccessways.set(slot);
+        }
+    }
+
+    /**
+     * Checks whether a {@link MapLocation} has been recorded as changed by {@link #markChanged(MapLocation)}
+     * @param location the {@link MapLocation} to check
+     * @return true if the {@link MapLocation} is part of this map and has changed since generation
+     */
+    boolean isChanged(MapLocation location) {
+        if (Objects.nonNull(world)) {
+            return get(location.getRow(), location.getColumn()) == location
+                    && world.isChanged(location.getRow(), location.getColumn());
+        }
+        return get(location.getRow(), location.getColumn()) == location
+                && changedLocations.get(location.getRow() * getGridSideSize() + location.getColumn());
+    }
+
+    /**
+     * Checks whether an {@link Accessway} has been recorded as changed by {@link #markChanged(Accessway)}
+     * @param accessway the {@link Accessway} to check
+     * @return true if the {@link Accessway} is part of this map and has changed since generation
+     */
+    boolean isChanged(Accessway accessway) {
+        int slot = getAccesswaySlot(accessway);
+        if (Objects.nonNull(world)) {
+            return slot >= 0 && world.isChanged(slot);
+        }
+        return slot >= 0 && changedAccessways.get(slot);
+    }
+
+    /**
+     * @return the grid cells, indexed by {@code row * gridSideSize + column}, whose {@link MapLocation} has changed
+     */
+    BitSet getChangedLocations() {
+        return changedLocations;
+    }
+
+    /**
+     * @return the {@link Accessway} slots whose {@link Accessway} has changed; see {@link #getAccesswaySlot(Accessway)}
+     */
+    BitSet getChangedAccessways() {
+        return changedAccessways;
+    }
+
+    /**
+     * Gets the slot of an {@link Accessway}: a stable number derived from the grid cell of its northern or western
+     * endpoint and whether it leads east or south from there
+     * @param accessway the {@link Accessway} to get the slot of
+     * @return the slot of the {@link Accessway}, or -1 if it is not part of this map
+     */
+    int getAccesswaySlot(Accessway accessway) {
+        if (!mapNetwork.edges().contains(accessway)) {
+            return -1;
+        }
+        EndpointPair<MapLocation> endpoints = mapNetwork.incidentNodes(accessway);
+        MapLocation owner = endpoints.nodeU(), other = endpoints.nodeV();
+        if (other.getRow() < owner.getRow() || other.getColumn() < owner.getColumn()) {
+            owner = endpoints.nodeV();
+            other = endpoints.nodeU();
+        }
+        int cell = owner.getRow() * getGridSideSize() + owner.getColumn();
+        return cell * 2 + (other.getRow() == owner.getRow() ? 0 : 1);
+    }
+
+    /**
+     * Gets the {@link Accessway} in a given slot; see {@link #getAccesswaySlot(Accessway)}
+     * @param slot the slot of the {@link Accessway}
+     * @return the {@link Accessway} in the given slot, or null if there is none. On a chunked map the chunk of the
+     * slot's owning cell is loaded, and the {@link Accessway} may not be in the backing network; see
+     * {@link #restore(int, Accessway)}
+     */
+    Accessway getAccessway(int slot) {
+        if (Objects.nonNull(world)) {
+            return world.getAccessway(slot);
+        }
+        int cell = slot / 2;
+        MapLocation owner = get(cell / getGridSideSize(), cell % getGridSideSize());
+        return Objects.isNull(owner) ? null : getAccessway(owner, slot % 2 == 0 ? Direction.EAST : Direction.SOUTH);
     }
 
     /**
-     * Selects a random {@link MapLocation} in the MapData grid to be used as the starting position when generating a
-     * maze. This position will also be the {@link Player} starting position
-     * @return a random {@link MapLocation} in the MapData grid
+     * Puts a saved {@link MapLocation} in place of the generated one at the same grid cell, and records it as changed
+     * @param location the saved {@link MapLocation}
      */
-    private MapLocation randomStartingPosition() {
-        int randomRow = d(mapGrid.length);
-        int randomColumn = d(mapGrid.length);
-        return replaceMapLocation(get(randomRow, randomColumn), Room.random(randomRow, randomColumn));
+    void restore(MapLocation location) {
+        MapLocation current = get(location.getRow(), location.getColumn());
+        replaceMapLocation(current, location);
+        if (current == startingPoint) {
+            startingPoint = location;
+        }
+        if (current == endingPoint) {
+            endingPoint = location;
+        }
+        markChanged(location);
+    }
+
+    /**
+     * Puts a saved {@link Accessway} in place of the generated one in the same slot, and records it as changed. On a
+     * chunked map, an {@link Accessway} leading into a chunk that is not in memory is only put in its slot, to be added
+     * to the backing network with that chunk
+     * @param slot the slot of the saved {@link Accessway}; see {@link #getAccesswaySlot(Accessway)}
+     * @param accessway the saved {@link Accessway}
+     */
+    void restore(int slot, Accessway accessway) {
+        Accessway current = getAccessway(slot);
+        if (Objects.nonNull(world)) {
+            if (mapNetwork.edges().contains(current)) {
+                replaceAccessway(current, accessway);
+            } else {
+                world.setAccessway(slot, accessway);
+            }
+            world.markChanged(slot);
+            return;
+        }
+        replaceAccessway(current, accessway);
+        markChanged(accessway);
     }
 
     /**
@@ -418,7 +1084,7 @@ public class MapData implements MutableNetwork<MapLocation, Accessway> {
      */
     @Override
     public boolean addNode(MapLocation node) {
-        mapGrid[node.getRow()][node.getColumn()] = node;
+        setCell(node);
         return mapNetwork.addNode(node);
     }
 
@@ -443,8 +1109,11 @@ public class MapData implements MutableNetwork<MapLocation, Accessway> {
      */
     @Override
     public boolean removeNode(MapLocation node) {
-        if (Objects.nonNull(mapGrid[node.getRow()][node.getColumn()]) && mapGrid[node.getRow()][node.getColumn()].equals(node)) {
-            mapGrid[node.getRow()][node.getColumn()] = null;
+        MapLocation current = get(node.getRow(), node.getColumn());
+        if (Objects.nonNull(current) && current.equals(node)) {
+            if (Objects.isNull(world)) {
+                mapGrid[node.getRow()][node.getColumn()] = null;
+            }
             return mapNetwork.removeNode(node);
         }
         return false;
@@ -675,203 +1344,69 @@ public class MapData implements MutableNetwork<MapLocation, Accessway> {
     }
 
     /**
-     * Inner class to represent a group of nodes being traversed by the maze generation algorithm
+     * Fork-join task that creates the {@link MapLocation} of every cell in a band of rows of about
+     * {@link #FILL_BAND_CELLS} cells
      */
-    private static class TraversalGroup {
+    private class RowBand extends RecursiveAction {
         /**
-         * The nodes within this group
+         * The traversed maze
          */
-        private final HashSet<MapLocation> nodes;
+        private final MazeGrid maze;
         /**
-         * The TraversalGroup this group has branched from
+         * The cell of the starting point, indexed by {@code row * gridSideSize + column}
          */
-        private final TraversalGroup parentGroup;
+        private final int startCell;
         /**
-         * The number of ancestors this TraversalGroup has
+         * The cell of the ending point, indexed the same way
          */
-        private final int depth;
-
+        private final int endCell;
         /**
-         * Constructor
-         * @param parentGroup the TraversalGroup this group has branched from
+         * The created locations, indexed the same way
          */
-        private TraversalGroup(TraversalGroup parentGroup) {
-            this.parentGroup = parentGroup;
-            if (Objects.nonNull(parentGroup)) {
-                depth = parentGroup.depth + 1;
-            } else {
-                depth = 0;
-            }
-            nodes = new HashSet<>();
-        }
-
+        private final MapLocation[] locations;
         /**
-         * Adds a {@link MapLocation} node to this group
-         * @param node the {@link MapLocation} node to add
+         * The first row in the band, inclusive
          */
-        void addNode(MapLocation node) {
-            nodes.add(node);
-        }
-
+        private final int from;
         /**
-         * @return the number of {@link MapLocation} nodes in this group
+         * The last row in the band, exclusive
          */
-        int size() {
-            return nodes.size();
-        }
-
-        /**
-         * Places all nodes in the current group into {@link #parentGroup}
-         */
-        void collapseToParent() {
-            parentGroup.nodes.addAll(this.nodes);
-            this.nodes.clear();
-        }
-
-        /**
-         * @return the nodes in this group
-         */
-        public HashSet<MapLocation> getNodes() {
-            return nodes;
-        }
-
-        /**
-         * Replaces a node in this group with another
-         * @param current the current node to be replaced
-         * @param replacement the replacement node
-         */
-        public void replaceNode(MapLocation current, MapLocation replacement) {
-            if (nodes.contains(current)) {
-                nodes.remove(current);
-                nodes.add(replacement);
-            }
-        }
+        private final int to;
 
         /**
-         * @return the number of ancestors this TraversalGroup has
-         */
-        public int getDepth() {
-            return depth;
-        }
-    }
-
-    /**
-     * Manages and provides utilities for a collection of {@link TraversalGroup}s
-     */
-    private static class TraversalGroupManager {
-        /**
-         * The managed {@link TraversalGroup}s
-         */
-        private final ArrayList<TraversalGroup> groups = new ArrayList<>();
-        /**
-         * Mapping of each node contained by each group being managed, to its containing group
-         */
-        private final HashMap<MapLocation, TraversalGroup> groupMappings = new HashMap<>();
-        /**
-         * The last {@link TraversalGroup} returned by {@link #newGroup(TraversalGroup)}
-         */
-        private TraversalGroup lastCreated;
-
-        /**
-         * Commits {@link #lastCreated} to be mapped, and returns a new {@link TraversalGroup} with the specified
-         * {@link TraversalGroup} as the parent
-         * @param currentlyTraversing the parent {@link TraversalGroup} of the new group to be returned
-         * @return a new {@link TraversalGroup} with the specified {@link TraversalGroup} as the parent
-         */
-        TraversalGroup newGroup(TraversalGroup currentlyTraversing) {
-            TraversalGroup traversalGroup = new TraversalGroup(currentlyTraversing);
-            groups.add(traversalGroup);
-            addGroup(lastCreated);
-            lastCreated = traversalGroup;
-            return traversalGroup;
-        }
-
-        /**
-         * Maps the given group's nodes
-         * @param group the group to add
-         */
-        private void addGroup(TraversalGroup group) {
-            if (Objects.nonNull(group)) {
-                for (MapLocation node : group.nodes) {
-                    groupMappings.put(node, group);
-                }
-            }
-        }
-
-        /**
-         * Checks if the given node is contained in any {@link TraversalGroup} currently under management
-         * @param node the node to check if contained in any {@link TraversalGroup} currently under management
-         * @return true if the node is present in any {@link TraversalGroup} currently under management
-         */
-        boolean contains(MapLocation node) {
-            if (groupMappings.containsKey(node)) {
-                return true;
-            }
-            for (TraversalGroup group : groups) {
-                if (group.getNodes().contains(node)) {
-                    return true;
-                }
-            }
-            return false;
-        }
-
-        /**
-         * Gets the containing {@link TraversalGroup} for a given node
-         * @param node the node for which to find the containing {@link TraversalGroup}
-         * @return the containing {@link TraversalGroup} for a given node
-         */
-        TraversalGroup groupFor(MapLocation node) {
-            if (groupMappings.containsKey(node)){
-                return groupMappings.get(node);
-            } else {
-                if (lastCreated.getNodes().contains(node)) {
-                    return lastCreated;
-                }
-            }
-            return null;
-        }
-
-        /**
-         * @return the sum of the nodes in all managed {@link TraversalGroup}s
-         */
-        int size() {
-            return groups.stream().mapToInt(TraversalGroup::size).sum();
-        }
-
-        /**
-         * @return the number of {@link TraversalGroup}s under management
+         * Constructor
+         * @param maze the traversed maze
+         * @param startCell the cell of the starting point, indexed by {@code row * gridSideSize + column}
+         * @param endCell the cell of the ending point, indexed the same way
+         * @param locations the array to store the created locations in, indexed the same way
+         * @param from the first row in the band, inclusive
+         * @param to the last row in the band, exclusive
          */
-        int groupCount() {
-            return groups.size();
+        private RowBand(MazeGrid maze, int startCell, int endCell, MapLocation[] locations, int from, int to) {
+            this.maze = maze;
+            this.startCell = startCell;
+            this.endCell = endCell;
+            this.locations = locations;
+            this.from = from;
+            this.to = to;
         }
 
         /**
-         * Processes the {@link TraversalGroup}s into an integer group mapping table, by row and column
-         * @param gridSideSize see {@link MapData#getGridSideSize()}
-         * @return an integer group mapping table, by row and column
+         * {@inheritDoc}
          */
-        int[][] processGroups(int gridSideSize) {
-            int[][] nodeGroups = new int[gridSideSize][gridSideSize];
-            int lengthSquared = gridSideSize * gridSideSize;
-            groups.sort(Comparator.comparingInt(TraversalGroup::getDepth));
-            for (Iterator<TraversalGroup> iterator = groups.iterator(); iterator.hasNext(); ) {
-                TraversalGroup group = iterator.next();
-                if (group.size() < 10) {
-                    group.collapseToParent();
-                    iterator.remove();
-                }
-            }
-            int k = 0;
-            int count = 0;
-            for (TraversalGroup group : groups) {
-                for (MapLocation element : group.getNodes()) {
-                    nodeGroups[element.getRow()][element.getColumn()] = k;
-                    count++;
+        @Override
+        protected void compute() {
+            int length = maze.getGridSideSize();
+            Random random = new Random();
+            for (int i = from; i < to; i++) {
+                for (int j = 0; j < length; j++) {
+                    int cell = i * length + j;
+                    boolean deadEnd = maze.degree(i, j) == 1;
+                    locations[cell] = deadEnd || cell == startCell
+                            ? randomRoom(i, j, deadEnd && (cell == startCell || cell == endCell), random)
+                            : randomLocation(i, j, random);
                 }
-                GenerationEvent.of(String.format("Grouping nodes... (%d/%d)", count, lengthSquared));
-                k++;
             }
-            return nodeGroups;
         }
     }
 }
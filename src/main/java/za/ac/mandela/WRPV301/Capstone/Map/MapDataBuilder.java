@@ -0,0 +1,160 @@
+package za.ac.mandela.WRPV301.Capstone.Map;
+
+import java.util.Random;
+
+/**
+ * {@link MapData} Builder class, for generating maps with options beyond a grid size
+ */
+public class MapDataBuilder {
+    /**
+     * The size, in {@link za.ac.mandela.WRPV301.Capstone.Map.Location.MapLocation} nodes, of any side of the square map
+     * grid
+     */
+    private int gridSideSize;
+    /**
+     * The kind of backing network to generate into
+     */
+    private MapData.Backing backing;
+    /**
+     * The seed from which the map is generated
+     */
+    private long seed;
+    /**
+     * The algorithm used to carve the maze
+     */
+    private MazeAlgorithm algorithm;
+    /**
+     * The number of threads the maze carver may use
+     */
+    private int parallelism;
+    /**
+     * Whether the map is generated cell by cell by a {@link ProgressiveGenerator}
+     */
+    private boolean progressive;
+    /**
+     * Whether the map is generated a chunk at a time as the player explores it; see {@link MapData#isChunked()}
+     */
+    private boolean chunked;
+
+    /**
+     * Private constructor
+     */
+    private MapDataBuilder() {
+        this.gridSideSize = 30;
+        this.backing = MapData.Backing.GRID;
+        this.seed = new Random().nextLong();
+        this.algorithm = MazeAlgorithm.DEPTH_FIRST;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        this.progressive = false;
+        this.chunked = false;
+    }
+
+    /**
+     * Static constructor method
+     * @return a new MapDataBuilder instance
+     */
+    public static MapDataBuilder newInstance() {
+        return new MapDataBuilder();
+    }
+
+    /**
+     * @param gridSideSize the size, in nodes, of any side of the square map grid
+     * @return this MapDataBuilder instance
+     */
+    public MapDataBuilder setGridSideSize(int gridSideSize) {
+        this.gridSideSize = gridSideSize;
+        return this;
+    }
+
+    /**
+     * @param backing the kind of backing network to generate into
+     * @return this MapDataBuilder instance
+     */
+    public MapDataBuilder setBacking(MapData.Backing backing) {
+        this.backing = backing;
+        return this;
+    }
+
+    /**
+     * @param seed the seed from which the map is generated; a random seed is used if this is never set
+     * @return this MapDataBuilder instance
+     */
+    public MapDataBuilder setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * @param algorithm the algorithm used to carve the maze
+     * @return this MapDataBuilder instance
+     */
+    public MapDataBuilder setAlgorithm(MazeAlgorithm algorithm) {
+        this.algorithm = algorithm;
+        return this;
+    }
+
+    /**
+     * @param parallelism the number of threads the maze carver and node filling may use; the map does not depend on this
+     *                    value
+     * @return this MapDataBuilder instance
+     */
+    public MapDataBuilder setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * @param progressive true if the map should be generated cell by cell, as {@link #buildProgressively()} does; the
+     *                    same seed generates a different map with and without this option
+     * @return this MapDataBuilder instance
+     */
+    public MapDataBuilder setProgressive(boolean progressive) {
+        this.progressive = progressive;
+        return this;
+    }
+
+    /**
+     * @param chunked true if the map should be generated a chunk at a time as the player explores it, see
+     *                {@link MapData#isChunked()}; the backing, algorithm, parallelism and progressive options are then
+     *                ignored
+     * @return this MapDataBuilder instance
+     */
+    public MapDataBuilder setChunked(boolean chunked) {
+        this.chunked = chunked;
+        return this;
+    }
+
+    /**
+     * Generates a new {@link MapData} instance with the specified options
+     * @return a new randomised {@link MapData} instance
+     * @throws IllegalArgumentException if progressive generation is requested with an algorithm that does not carve
+     * the maze ahead of traversal, i.e. {@link MazeAlgorithm#DEPTH_FIRST}, or a chunked map is requested with a grid
+     * size out of range
+     */
+    public MapData build() {
+        if (chunked) {
+            return MapData.generateChunked(gridSideSize, seed);
+        }
+        if (progressive) {
+            return MapData.generateProgressively(gridSideSize, backing, seed, algorithm, parallelism, Integer.MAX_VALUE);
+        }
+        return MapData.generate(gridSideSize, backing, seed, algorithm, parallelism);
+    }
+
+    /**
+     * Generates a new progressive {@link MapData} instance with the specified options, returning as soon as a playable
+     * region around the starting point is ready; the rest is added by {@link MapData#generateRemainder(java.util.concurrent.Executor)}
+     * or {@link MapData#complete()}. A chunked map is built as {@link #build()} builds it, since it is already
+     * playable as soon as the chunks around the starting point are
+     * @return a new randomised {@link MapData} instance, which may not yet be complete
+     * @throws IllegalArgumentException if the algorithm does not carve the maze ahead of traversal, i.e.
+     * {@link MazeAlgorithm#DEPTH_FIRST}, or a chunked map is requested with a grid size out of range
+     */
+    public MapData buildProgressively() {
+        if (chunked) {
+            return build();
+        }
+        progressive = true;
+        return MapData.generateProgressively(gridSideSize, backing, seed, algorithm, parallelism, ProgressiveGenerator.PLAYABLE_REGION_SIZE);
+    }
+}
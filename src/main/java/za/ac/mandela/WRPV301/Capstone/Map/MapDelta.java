@@ -0,0 +1,316 @@
+package za.ac.mandela.WRPV301.Capstone.Map;
+
+import za.ac.mandela.WRPV301.Capstone.Map.Access.Accessway;
+import za.ac.mandela.WRPV301.Capstone.Map.Access.Lockable;
+import za.ac.mandela.WRPV301.Capstone.Map.Location.MapLocation;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * The changes made to a reproducible {@link MapData} instance since it was generated: which locations are visible, plus
+ * every {@link MapLocation} and {@link Accessway} recorded as changed. Together with the map's seed, grid size and
+ * generation options, this is all that is needed to restore the map, by regenerating it and applying the delta.
+ * <p>
+ * A delta covers a square region of the grid, which is the whole grid unless the map is chunked, see
+ * {@link MapData#isChunked()}. The delta of a chunked map holds one delta per changed chunk instead: chunks in memory
+ * are captured as they are, and chunks spilled to disk as the bytes they were spilled as.
+ * <p>
+ * Deltas must be written with a {@link Writer} and read with a {@link Reader}, which replace references to unchanged
+ * map objects with their grid coordinates, so that unchanged parts of the map are never written out.
+ */
+public class MapDelta implements Serializable {
+    /**
+     * The row coordinate of the top of the region this delta covers
+     */
+    private final int firstRow;
+    /**
+     * The column coordinate of the left of the region this delta covers
+     */
+    private final int firstColumn;
+    /**
+     * The size, in cells, of any side of the square region this delta covers
+     */
+    private final int sideSize;
+    /**
+     * The cells of the region, indexed by {@code (row - firstRow) * sideSize + column - firstColumn}, whose
+     * {@link MapLocation} is visible
+     */
+    private final BitSet visible;
+    /**
+     * Every {@link MapLocation} in the region that has changed since generation
+     */
+    private final ArrayList<MapLocation> locations;
+    /**
+     * The slots, see {@link MapData#getAccesswaySlot(Accessway)}, of every {@link Accessway} in {@link #accessways}
+     */
+    private final int[] accesswaySlots;
+    /**
+     * Every {@link Accessway} in the region that has changed since generation
+     */
+    private final ArrayList<Accessway> accessways;
+    /**
+     * The delta of every changed chunk in memory, if this is the delta of a chunked map; null otherwise
+     */
+    private final ArrayList<MapDelta> chunks;
+    /**
+     * The bytes of every changed chunk spilled to disk, by chunk index, if this is the delta of a chunked map; null
+     * otherwise
+     */
+    private final TreeMap<Integer, byte[]> spilledChunks;
+
+    /**
+     * Constructor for the delta of a region
+     * @param firstRow the row coordinate of the top of the region
+     * @param firstColumn the column coordinate of the left of the region
+     * @param sideSize the size, in cells, of any side of the square region
+     * @param visible the cells of the region whose {@link MapLocation} is visible, indexed by
+     *                {@code (row - firstRow) * sideSize + column - firstColumn}
+     * @param locations every {@link MapLocation} in the region that has changed since generation
+     * @param accesswaySlots the slots of every {@link Accessway} in {@code accessways}
+     * @param accessways every {@link Accessway} in the region that has changed since generation
+     */
+    MapDelta(int firstRow, int firstColumn, int sideSize, BitSet visible, ArrayList<MapLocation> locations, int[] accesswaySlots, ArrayList<Accessway> accessways) {
+        this.firstRow = firstRow;
+        this.firstColumn = firstColumn;
+        this.sideSize = sideSize;
+        this.visible = visible;
+        this.locations = locations;
+        this.accesswaySlots = accesswaySlots;
+        this.accessways = accessways;
+        this.chunks = null;
+        this.spilledChunks = null;
+    }
+
+    /**
+     * Constructor for the delta of a chunked map
+     * @param chunks the delta of every changed chunk in memory
+     * @param spilledChunks the bytes of every changed chunk spilled to disk, by chunk index
+     */
+    MapDelta(ArrayList<MapDelta> chunks, TreeMap<Integer, byte[]> spilledChunks) {
+        this.firstRow = 0;
+        this.firstColumn = 0;
+        this.sideSize = 0;
+        this.visible = new BitSet();
+        this.locations = new ArrayList<>();
+        this.accesswaySlots = new int[0];
+        this.accessways = new ArrayList<>();
+        this.chunks = chunks;
+        this.spilledChunks = spilledChunks;
+    }
+
+    /**
+     * Captures the changes made to a {@link MapData} instance since it was generated
+     * @param mapData the {@link MapData} instance to capture the changes of; must be complete, see
+     *                {@link MapData#complete()}
+     * @return a new MapDelta instance
+     */
+    public static MapDelta of(MapData mapData) {
+        if (mapData.isChunked()) {
+            return mapData.getWorld().capture();
+        }
+        int gridSideSize = mapData.getGridSideSize();
+        BitSet visible = new BitSet(gridSideSize * gridSideSize);
+        for (int row = 0; row < gridSideSize; row++) {
+            for (int column = 0; column < gridSideSize; column++) {
+                if (mapData.get(row, column).isVisible()) {
+                    visible.set(row * gridSideSize + column);
+                }
+            }
+        }
+        BitSet changedLocations = mapData.getChangedLocations();
+        ArrayList<MapLocation> locations = new ArrayList<>(changedLocations.cardinality());
+        for (int cell = changedLocations.nextSetBit(0); cell >= 0; cell = changedLocations.nextSetBit(cell + 1)) {
+            locations.add(mapData.get(cell / gridSideSize, cell % gridSideSize));
+        }
+        BitSet changedAccessways = mapData.getChangedAccessways();
+        int[] accesswaySlots = changedAccessways.stream().toArray();
+        ArrayList<Accessway> accessways = new ArrayList<>(accesswaySlots.length);
+        for (int slot : accesswaySlots) {
+            accessways.add(mapData.getAccessway(slot));
+        }
+        return new MapDelta(0, 0, gridSideSize, visible, locations, accesswaySlots, accessways);
+    }
+
+    /**
+     * Applies this delta to a freshly regenerated {@link MapData} instance, putting every saved object in place of its
+     * generated counterpart and restoring visibility. For a chunked map, the chunks this delta covers are loaded first
+     * @param mapData the regenerated {@link MapData} instance; must have the same seed, size and options as the map
+     *                this delta was captured from
+     */
+    public void applyTo(MapData mapData) {
+        if (Objects.nonNull(chunks)) {
+            mapData.getWorld().restore(chunks, spilledChunks);
+            return;
+        }
+        mapData.load(firstRow, firstColumn);
+        for (MapLocation location : locations) {
+            mapData.restore(location);
+        }
+        for (int i = 0; i < accesswaySlots.length; i++) {
+            mapData.restore(accesswaySlots[i], accessways.get(i));
+        }
+        for (int row = 0; row < sideSize; row++) {
+            for (int column = 0; column < sideSize; column++) {
+                mapData.get(firstRow + row, firstColumn + column).setVisibleNoEvent(visible.get(row * sideSize + column));
+            }
+        }
+    }
+
+    /**
+     * {@link ObjectOutputStream} that writes references to unchanged {@link MapLocation}s and {@link Accessway}s of a
+     * {@link MapData} instance, and to any {@link Lockable.Lock.Key}, as small placeholders instead of whole objects
+     */
+    public static class Writer extends ObjectOutputStream {
+        /**
+         * The map whose objects are replaced
+         */
+        private final MapData mapData;
+        /**
+         * The slot of the {@link Accessway} holding the lock of every key in the map
+         */
+        private final IdentityHashMap<Lockable.Lock.Key, Integer> keySlots = new IdentityHashMap<>();
+
+        /**
+         * Constructor
+         * @param out the stream to write to
+         * @param mapData the map whose objects are replaced
+         * @throws IOException if an error occurs while writing the stream header
+         */
+        public Writer(OutputStream out, MapData mapData) throws IOException {
+            super(out);
+            this.mapData = mapData;
+            for (Accessway accessway : mapData.edges()) {
+                if (accessway instanceof Lockable && Objects.nonNull(((Lockable) accessway).getLock().getKey())) {
+                    keySlots.put(((Lockable) accessway).getLock().getKey(), mapData.getAccesswaySlot(accessway));
+                }
+            }
+            enableReplaceObject(true);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected Object replaceObject(Object object) {
+            if (object instanceof MapLocation) {
+                MapLocation location = (MapLocation) object;
+                if (mapData.get(location.getRow(), location.getColumn()) == location && !mapData.isChanged(location)) {
+                    return new LocationReference(location.getRow(), location.getColumn());
+                }
+            } else if (object instanceof Accessway) {
+                Accessway accessway = (Accessway) object;
+                int slot = mapData.getAccesswaySlot(accessway);
+                if (slot >= 0 && !mapData.isChanged(accessway)) {
+                    return new AccesswayReference(slot);
+                }
+            } else if (object instanceof Lockable.Lock.Key && keySlots.containsKey(object)) {
+                return new KeyReference(keySlots.get(object));
+            }
+            return object;
+        }
+    }
+
+    /**
+     * {@link ObjectInputStream} that resolves the placeholders written by a {@link Writer} against a regenerated
+     * {@link MapData} instance, loading the chunks they lie in if the map is chunked
+     */
+    public static class Reader extends ObjectInputStream {
+        /**
+         * The regenerated map to resolve placeholders against
+         */
+        private final MapData mapData;
+
+        /**
+         * Constructor
+         * @param in the stream to read from
+         * @param mapData the regenerated map to resolve placeholders against
+         * @throws IOException if an error occurs while reading the stream header
+         */
+        public Reader(InputStream in, MapData mapData) throws IOException {
+            super(in);
+            this.mapData = mapData;
+            enableResolveObject(true);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected Object resolveObject(Object object) throws IOException {
+            if (object instanceof LocationReference) {
+                LocationReference reference = (LocationReference) object;
+                return mapData.load(reference.row, reference.column);
+            } else if (object instanceof AccesswayReference) {
+                return mapData.getAccessway(((AccesswayReference) object).slot);
+            } else if (object instanceof KeyReference) {
+                Accessway accessway = mapData.getAccessway(((KeyReference) object).slot);
+                if (!(accessway instanceof Lockable)) {
+                    throw new InvalidObjectException("Saved key does not belong to a lock in the regenerated map");
+                }
+                return ((Lockable) accessway).getLock().getKey();
+            }
+            return object;
+        }
+    }
+
+    /**
+     * Placeholder for an unchanged {@link MapLocation}
+     */
+    private static class LocationReference implements Serializable {
+        /**
+         * The grid coordinates of the {@link MapLocation}
+         */
+        private final int row, column;
+
+        /**
+         * Constructor
+         * @param row the row coordinate of the {@link MapLocation}
+         * @param column the column coordinate of the {@link MapLocation}
+         */
+        private LocationReference(int row, int column) {
+            this.row = row;
+            this.column = column;
+        }
+    }
+
+    /**
+     * Placeholder for an unchanged {@link Accessway}
+     */
+    private static class AccesswayReference implements Serializable {
+        /**
+         * The slot of the {@link Accessway}; see {@link MapData#getAccesswaySlot(Accessway)}
+         */
+        private final int slot;
+
+        /**
+         * Constructor
+         * @param slot the slot of the {@link Accessway}
+         */
+        private AccesswayReference(int slot) {
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * Placeholder for a {@link Lockable.Lock.Key}, identified by the {@link Accessway} holding its lock
+     */
+    private static class KeyReference implements Serializable {
+        /**
+         * The slot of the {@link Accessway} holding the key's lock; see {@link MapData#getAccesswaySlot(Accessway)}
+         */
+        private final int slot;
+
+        /**
+         * Constructor
+         * @param slot the slot of the {@link Accessway} holding the key's lock
+         */
+        private KeyReference(int slot) {
+            this.slot = slot;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package za.ac.mandela.WRPV301.Capstone.Map;
+
+import za.ac.mandela.WRPV301.Capstone.Event.GenerationEvent;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+
+/**
+ * A small pool of {@link MapData} instances built ahead of time for one grid size, so that starting a new game of that
+ * size can take a finished map instead of generating one. Maps are built one at a time on a single low-priority daemon
+ * thread, without publishing generation progress, and only as many are kept as fit within a memory budget. Changing
+ * the grid size discards every pooled map; a map still being built for the old size is discarded once it finishes.
+ */
+public class MapPool {
+    /**
+     * The most maps kept in the pool, however much of the memory budget is left
+     */
+    static final int MAX_POOLED_MAPS = 2;
+    /**
+     * A generous estimate of the heap used by a finished map, per grid cell; measured at about 2.4KB for both small
+     * depth-first maps and large tiled maps
+     */
+    static final long BYTES_PER_CELL = 2560;
+
+    /**
+     * Creates the configured {@link MapDataBuilder} for a grid size
+     */
+    private final IntFunction<MapDataBuilder> builders;
+    /**
+     * The most heap, in bytes, that pooled maps and the map being built may use between them
+     */
+    private final long memoryBudget;
+    /**
+     * The single thread maps are built on
+     */
+    private final ExecutorService executor;
+    /**
+     * The finished maps, oldest first
+     */
+    private final ArrayDeque<MapData> pooled = new ArrayDeque<>();
+    /**
+     * The grid size maps are being built for, or -1 if none has been requested yet
+     */
+    private int gridSideSize = -1;
+    /**
+     * Counts changes of {@link #gridSideSize}, so that maps started before a change can be recognised and discarded
+     */
+    private int sizeChanges = 0;
+    /**
+     * True while a map is being built
+     */
+    private boolean building = false;
+
+    /**
+     * Constructor, with a memory budget of a quarter of the maximum heap size
+     * @param builders creates the configured {@link MapDataBuilder} for a grid size; the same function should be used
+     *                 to build maps when the pool is empty, so that pooled maps are no different
+     */
+    public MapPool(IntFunction<MapDataBuilder> builders) {
+        this(builders, Runtime.getRuntime().maxMemory() / 4);
+    }
+
+    /**
+     * Constructor
+     * @param builders creates the configured {@link MapDataBuilder} for a grid size
+     * @param memoryBudget the most heap, in bytes, that pooled maps and the map being built may use between them
+     */
+    public MapPool(IntFunction<MapDataBuilder> builders, long memoryBudget) {
+        this.builders = builders;
+        this.memoryBudget = memoryBudget;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(() -> {
+                GenerationEvent.muteCurrentThread();
+                runnable.run();
+            }, "map-pool");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts filling the pool with maps of a grid size, discarding any pooled maps of another size
+     * @param gridSideSize the grid size of the maps to build
+     */
+    public synchronized void prepare(int gridSideSize) {
+        if (gridSideSize != this.gridSideSize) {
+            this.gridSideSize = gridSideSize;
+            sizeChanges++;
+            pooled.clear();
+        }
+        fill();
+    }
+
+    /**
+     * Takes a finished map from the pool, and starts building its replacement
+     * @param gridSideSize the grid size of the map wanted
+     * @return a finished map of the given size, or null if none is ready
+     */
+    public synchronized MapData take(int gridSideSize) {
+        if (gridSideSize != this.gridSideSize) {
+            return null;
+        }
+        MapData mapData = pooled.poll();
+        fill();
+        return mapData;
+    }
+
+    /**
+     * @return the grid size maps are being built for, or -1 if none has been requested yet
+     */
+    public synchronized int getGridSideSize() {
+        return gridSideSize;
+    }
+
+    /**
+     * @return the number of finished maps in the pool
+     */
+    public synchronized int size() {
+        return pooled.size();
+    }
+
+    /**
+     * Starts building another map if none is being built and the pool has room for one
+     */
+    private void fill() {
+        if (!building && gridSideSize > 0 && pooled.size() < capacity()) {
+            building = true;
+            int size = gridSideSize, sizeChange = sizeChanges;
+            executor.execute(() -> build(size, sizeChange));
+        }
+    }
+
+    /**
+     * @return the number of maps of the current size that fit within the memory budget, counting the one being built
+     */
+    private int capacity() {
+        long bytesPerMap = (long) gridSideSize * gridSideSize * BYTES_PER_CELL;
+        return (int) Math.min(MAX_POOLED_MAPS, memoryBudget / bytesPerMap);
+    }
+
+    /**
+     * Builds a map on the pool thread and adds it to the pool, unless the grid size has changed in the meantime. A
+     * failed build is not retried until the pool is next asked for a map
+     * @param gridSideSize the grid size of the map to build
+     * @param sizeChange the value of {@link #sizeChanges} when the build was started
+     */
+    private void build(int gridSideSize, int sizeChange) {
+        MapData mapData = null;
+        try {
+            mapData = builders.apply(gridSideSize).setParallelism(1).build();
+        } finally {
+            synchronized (this) {
+                building = false;
+                if (Objects.nonNull(mapData)) {
+                    if (sizeChange == sizeChanges) {
+                        pooled.add(mapData);
+                    }
+                    fill();
+                }
+            }
+        }
+    }
+}
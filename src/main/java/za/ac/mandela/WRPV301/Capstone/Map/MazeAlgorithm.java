@@ -0,0 +1,41 @@
+package za.ac.mandela.WRPV301.Capstone.Map;
+
+/**
+ * Enum with values describing the algorithms available for carving the maze of a {@link MapData} instance
+ */
+public enum MazeAlgorithm {
+    /**
+     * A single randomised depth-first traversal of the whole grid, carving passages as it goes
+     */
+    DEPTH_FIRST(null),
+    /**
+     * Square tiles carved in parallel and stitched together; see {@link TiledMazeCarver}
+     */
+    TILED((maze, seed, parallelism) -> new TiledMazeCarver(maze, seed).carve(parallelism)),
+    /**
+     * Eller's algorithm, carving one row at a time with working memory proportional to the grid width; see
+     * {@link EllerMazeGenerator}
+     */
+    ELLER((maze, seed, parallelism) -> EllerMazeGenerator.generate(maze.getGridSideSize(), maze.getGridSideSize(), seed, maze::setRow));
+
+    /**
+     * The carver used to carve the maze ahead of {@link MapData}'s traversal, or null if the traversal carves it
+     */
+    private final MazeCarver carver;
+
+    /**
+     * Constructor
+     * @param carver the carver used to carve the maze ahead of {@link MapData}'s traversal, or null if the traversal
+     *               carves it
+     */
+    MazeAlgorithm(MazeCarver carver) {
+        this.carver = carver;
+    }
+
+    /**
+     * @return the carver used to carve the maze ahead of {@link MapData}'s traversal, or null if the traversal carves it
+     */
+    MazeCarver getCarver() {
+        return carver;
+    }
+}
@@ -0,0 +1,18 @@
+package za.ac.mandela.WRPV301.Capstone.Map;
+
+/**
+ * Strategy for carving a perfect maze, i.e. a spanning tree of the grid, into a {@link MazeGrid} before
+ * {@link MapData} turns it into {@link za.ac.mandela.WRPV301.Capstone.Map.Location.MapLocation}s and
+ * {@link za.ac.mandela.WRPV301.Capstone.Map.Access.Accessway}s. Implementations must produce the same maze for the same
+ * seed, regardless of parallelism.
+ */
+@FunctionalInterface
+interface MazeCarver {
+    /**
+     * Carves a perfect maze into an empty {@link MazeGrid}
+     * @param maze the empty grid to carve
+     * @param seed the seed from which all randomness is derived
+     * @param parallelism the number of threads the carver may use
+     */
+    void carve(MazeGrid maze, long seed, int parallelism);
+}
@@ -0,0 +1,157 @@
+package za.ac.mandela.WRPV301.Capstone.Map;
+
+import za.ac.mandela.WRPV301.Capstone.Map.Location.Direction;
+
+import java.util.Arrays;
+
+/**
+ * Primitive maze topology for a square grid, holding one byte per cell with a bit set for every {@link Direction} in
+ * which the cell has an open passage. Used to carve a maze before any
+ * {@link za.ac.mandela.WRPV301.Capstone.Map.Location.MapLocation}s or
+ * {@link za.ac.mandela.WRPV301.Capstone.Map.Access.Accessway}s are created.
+ * <p>
+ * Distinct cells may be written concurrently by different threads, as long as no two threads write the same cell.
+ */
+class MazeGrid {
+    /**
+     * The size, in cells, of any side of the square grid
+     */
+    private final int gridSideSize;
+    /**
+     * The passage bits of every cell, indexed by {@code row * gridSideSize + column}
+     */
+    private final byte[] passages;
+
+    /**
+     * Constructor
+     * @param gridSideSize the size, in cells, of any side of the square grid
+     */
+    MazeGrid(int gridSideSize) {
+        this.gridSideSize = gridSideSize;
+        this.passages = new byte[gridSideSize * gridSideSize];
+    }
+
+    /**
+     * @return the size, in cells, of any side of the square grid
+     */
+    int getGridSideSize() {
+        return gridSideSize;
+    }
+
+    /**
+     * Gets the passage bit for a {@link Direction}
+     * @param direction the {@link Direction} to get the bit for
+     * @return the passage bit for the given {@link Direction}
+     */
+    static int bit(Direction direction) {
+        return 1 << direction.ordinal();
+    }
+
+    /**
+     * Opens a passage between a cell and its neighbour in the given {@link Direction}, marking both cells
+     * @param row the row coordinate of the cell
+     * @param column the column coordinate of the cell
+     * @param direction the {@link Direction} of the neighbour to connect to
+     */
+    void connect(int row, int column, Direction direction) {
+        passages[row * gridSideSize + column] |= bit(direction);
+        passages[direction.translateRow(row) * gridSideSize + direction.translateColumn(column)] |= bit(direction.opposite());
+    }
+
+    /**
+     * Opens a passage out of a cell in the given {@link Direction}, marking only that cell; used for passages that
+     * lead out of the grid, into a neighbouring grid
+     * @param row the row coordinate of the cell
+     * @param column the column coordinate of the cell
+     * @param direction the {@link Direction} of the passage
+     */
+    void open(int row, int column, Direction direction) {
+        passages[row * gridSideSize + column] |= bit(direction);
+    }
+
+    /**
+     * Sets the passages of every cell in a row at once
+     * @param row the row coordinate of the cells
+     * @param rowPassages the passage bits of every cell in the row, by column; see {@link #bit(Direction)}
+     */
+    void setRow(int row, byte[] rowPassages) {
+        System.arraycopy(rowPassages, 0, passages, row * gridSideSize, gridSideSize);
+    }
+
+    /**
+     * Checks whether a cell has an open passage in the given {@link Direction}
+     * @param row the row coordinate of the cell
+     * @param column the column coordinate of the cell
+     * @param direction the {@link Direction} to check
+     * @return true if there is an open passage in the given {@link Direction}
+     */
+    boolean isConnected(int row, int column, Direction direction) {
+        return (passages[row * gridSideSize + column] & bit(direction)) != 0;
+    }
+
+    /**
+     * Gets the slot of the passage leading out of a cell in a given {@link Direction}
+     * @param row the row coordinate of the cell
+     * @param column the column coordinate of the cell
+     * @param direction the {@link Direction} of the passage
+     * @return the slot of the passage, numbered as {@link MapData} numbers the slots of its accessways
+     */
+    int slot(int row, int column, Direction direction) {
+        switch (direction) {
+            case EAST:
+                return (row * gridSideSize + column) * 2;
+            case SOUTH:
+                return (row * gridSideSize + column) * 2 + 1;
+            case WEST:
+                return (row * gridSideSize + column - 1) * 2;
+            default:
+                return ((row - 1) * gridSideSize + column) * 2 + 1;
+        }
+    }
+
+    /**
+     * Gets the number of open passages of a cell
+     * @param row the row coordinate of the cell
+     * @param column the column coordinate of the cell
+     * @return the number of open passages of the cell
+     */
+    int degree(int row, int column) {
+        return Integer.bitCount(passages[row * gridSideSize + column]);
+    }
+
+    /**
+     * Walks the maze depth-first from a starting cell, visiting neighbours in {@link Direction} order, and collects
+     * every dead end other than the given starting and ending cells in the order they are reached
+     * @param startCell the cell to start walking from, indexed by {@code row * gridSideSize + column}
+     * @param endCell a further cell to leave out of the result, indexed the same way
+     * @return the cells of the dead ends in walk order
+     */
+    int[] deadEndsInWalkOrder(int startCell, int endCell) {
+        int cells = gridSideSize * gridSideSize;
+        Direction[] directions = Direction.values();
+        boolean[] visited = new boolean[cells];
+        int[] stack = new int[cells];
+        int[] deadEnds = new int[cells];
+        int top = 0, deadEndCount = 0;
+        visited[startCell] = true;
+        stack[top++] = startCell;
+        while (top > 0) {
+            int cell = stack[--top];
+            int row = cell / gridSideSize, column = cell % gridSideSize;
+            //push in reverse so that neighbours are popped, and therefore reached, in Direction order
+            for (int i = directions.length - 1; i >= 0; i--) {
+                if (isConnected(row, column, directions[i])) {
+                    int neighbourCell = directions[i].translateRow(row) * gridSideSize + directions[i].translateColumn(column);
+                    if (!visited[neighbourCell]) {
+                        visited[neighbourCell] = true;
+                        stack[top++] = neighbourCell;
+                    }
+                }
+            }
+            if (degree(row, column) == 1 && cell != startCell && cell != endCell) {
+                deadEnds[deadEndCount++] = cell;
+            }
+        }
+        return Arrays.copyOf(deadEnds, deadEndCount);
+    }
+}
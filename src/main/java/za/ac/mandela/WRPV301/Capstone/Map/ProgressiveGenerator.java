@@ -0,0 +1,521 @@
+package za.ac.mandela.WRPV301.Capstone.Map;
+
+import za.ac.mandela.WRPV301.Capstone.Event.AccesswayChangeEvent;
+import za.ac.mandela.WRPV301.Capstone.Event.GenerationEvent;
+import za.ac.mandela.WRPV301.Capstone.Event.LocationChangeEvent;
+import za.ac.mandela.WRPV301.Capstone.Game;
+import za.ac.mandela.WRPV301.Capstone.Item.Room.Crown;
+import za.ac.mandela.WRPV301.Capstone.Map.Access.Accessway;
+import za.ac.mandela.WRPV301.Capstone.Map.Access.Lockable;
+import za.ac.mandela.WRPV301.Capstone.Map.Location.Direction;
+import za.ac.mandela.WRPV301.Capstone.Map.Location.MapLocation;
+import za.ac.mandela.WRPV301.Capstone.Map.Location.Room;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Random;
+
+import static za.ac.mandela.WRPV301.Capstone.Util.Utils.*;
+
+/**
+ * Generates a {@link MapData} instance a region at a time, so that play can start before the whole map exists.
+ * <p>
+ * Everything that spans the whole map is planned up front from a carved {@link MazeGrid} using primitive arrays only:
+ * the starting and ending points, node groups, the chain of dead ends holding keys, and the order in which cells are added,
+ * which is breadth-first from the starting point. Every {@link MapLocation} and {@link Accessway} is then created from
+ * a stream that depends only on the map seed and its own grid cell or slot, so the finished map is the same whatever
+ * order cells are created in, and whichever thread creates them.
+ * <p>
+ * Cells are created in batches by {@link #produce()}, which may be called from any thread, and added to the map by
+ * {@link #applyPending()}, which must only be called from the thread that owns the map. An {@link Accessway} is added
+ * once both of its endpoints are, so the player can never walk into a cell that does not exist yet, and every room on
+ * the key chain is created with its key and guard already in place.
+ */
+class ProgressiveGenerator {
+    /**
+     * The number of cells around the starting point created before the map is handed over for play
+     */
+    static final int PLAYABLE_REGION_SIZE = 1024;
+    /**
+     * The number of cells created per batch
+     */
+    private static final int BATCH_SIZE = 1024;
+    /**
+     * The map being generated
+     */
+    private final MapData mapData;
+    /**
+     * The carved maze the map follows
+     */
+    private final MazeGrid maze;
+    /**
+     * The seed the map is generated from
+     */
+    private final long seed;
+    /**
+     * The size, in cells, of any side of the square map grid
+     */
+    private final int gridSideSize;
+    /**
+     * The cell, indexed by {@code row * gridSideSize + column}, of the starting point
+     */
+    private final int startCell;
+    /**
+     * The cell of the ending point
+     */
+    private final int endCell;
+    /**
+     * The position of every cell's room in the key chain, counted from the ending point, or 0 if it is not on the chain
+     */
+    private final int[] chainPositions;
+    /**
+     * The cells of the key chain, by chain position; the first is the ending point
+     */
+    private final int[] chainCells;
+    /**
+     * The locks of the key chain, by chain position, created when first needed; guarded by this instance
+     */
+    private final Lockable[] locks;
+    /**
+     * Reusable {@link Random} instance, reseeded for every lock; guarded by this instance
+     */
+    private final Random lockRandom = new Random();
+    /**
+     * Every cell in the order it is created: the ending point first, then breadth-first from the starting point
+     */
+    private final int[] order;
+    /**
+     * Created {@link Accessway}s waiting for their second endpoint to be added, by slot; see
+     * {@link MapData#getAccesswaySlot(Accessway)}
+     */
+    private final Accessway[] unplaced;
+    /**
+     * Batches created but not yet added to the map
+     */
+    private final ArrayDeque<Batch> pending = new ArrayDeque<>();
+    /**
+     * The position in {@link #order} of the next cell to create
+     */
+    private int cursor = 0;
+    /**
+     * The number of batches being created outside the lock
+     */
+    private int inFlight = 0;
+
+    /**
+     * Constructor; plans the whole map
+     * @param mapData the empty map to generate into
+     * @param maze the carved maze the map follows
+     * @param seed the seed the map is generated from
+     */
+    ProgressiveGenerator(MapData mapData, MazeGrid maze, long seed) {
+        this.mapData = mapData;
+        this.maze = maze;
+        this.seed = seed;
+        this.gridSideSize = maze.getGridSideSize();
+        int cells = gridSideSize * gridSideSize;
+        GenerationTelemetry telemetry = mapData.getTelemetry();
+        GenerationTelemetry.Span span = telemetry.start(GenerationTelemetry.Phase.GROUP_NODES);
+        GenerationEvent.of("Planning maze structure...");
+        Random previous = setThreadRandom(GenerationPhase.BUILD_MAZE.random(seed));
+        try {
+            startCell = d(gridSideSize) * gridSideSize + d(gridSideSize);
+        } finally {
+            setThreadRandom(previous);
+        }
+        endCell = groupNodes();
+        span.end(cells, 0);
+        span = telemetry.start(GenerationTelemetry.Phase.PLAN_MAZE);
+        GenerationEvent.of("Planning locks and keys...");
+        int[] deadEnds = maze.deadEndsInWalkOrder(startCell, endCell);
+        chainPositions = new int[cells];
+        chainCells = new int[deadEnds.length];
+        if (deadEnds.length > 0) {
+            chainCells[0] = endCell;
+        }
+        for (int i = 0; i < deadEnds.length; i++) {
+            chainPositions[deadEnds[i]] = deadEnds.length - i;
+            if (i > 0) {
+                chainCells[deadEnds.length - i] = deadEnds[i];
+            }
+        }
+        locks = new Lockable[deadEnds.length];
+        order = breadthFirstOrder();
+        unplaced = new Accessway[cells * 2];
+        span.end(cells, 0);
+    }
+
+    /**
+     * Traverses the maze exactly as {@link MapData}'s maze builder does, recording node groups in the map
+     * @return the cell of the ending point: the first dead end the traversal reaches
+     */
+    private int groupNodes() {
+        Direction[] directions = Direction.values();
+        TraversalGrouping grouping = new TraversalGrouping(gridSideSize);
+        int[] stack = new int[gridSideSize * gridSideSize];
+        int top = 0, end = -1;
+        int currentGroup = grouping.newGroup(-1);
+        boolean backtrackSentinel = false;
+        grouping.addNode(startCell / gridSideSize, startCell % gridSideSize, currentGroup);
+        stack[top++] = startCell;
+        while (top > 0) {
+            int cell = stack[--top];
+            int row = cell / gridSideSize, column = cell % gridSideSize;
+            int next = -1;
+            for (Direction direction : directions) {
+                if (maze.isConnected(row, column, direction)
+                        && !grouping.isVisited(direction.translateRow(row), direction.translateColumn(column))) {
+                    next = direction.translateRow(row) * gridSideSize + direction.translateColumn(column);
+                    break;
+                }
+            }
+            if (next >= 0) {
+                backtrackSentinel = false;
+                stack[top++] = cell;
+                grouping.addNode(next / gridSideSize, next % gridSideSize, currentGroup);
+                stack[top++] = next;
+            } else {
+                if (end < 0) {
+                    end = cell;
+                }
+                if (!backtrackSentinel) {
+                    currentGroup = grouping.newGroup(grouping.groupOf(row, column));
+                    backtrackSentinel = true;
+                }
+            }
+        }
+        mapData.setGroups(grouping.process());
+        return end;
+    }
+
+    /**
+     * @return every cell in creation order: the ending point first, so that it can be shown from the start, then
+     * breadth-first from the starting point
+     */
+    private int[] breadthFirstOrder() {
+        int cells = gridSideSize * gridSideSize;
+        boolean[] queued = new boolean[cells];
+        int[] queue = new int[cells];
+        int head = 0, size = 0;
+        queue[size++] = endCell;
+        queued[endCell] = true;
+        if (!queued[startCell]) {
+            queue[size++] = startCell;
+            queued[startCell] = true;
+        }
+        while (head < size) {
+            int cell = queue[head++];
+            int row = cell / gridSideSize, column = cell % gridSideSize;
+            for (Direction direction : Direction.values()) {
+                if (maze.isConnected(row, column, direction)) {
+                    int neighbour = direction.translateRow(row) * gridSideSize + direction.translateColumn(column);
+                    if (!queued[neighbour]) {
+                        queued[neighbour] = true;
+                        queue[size++] = neighbour;
+                    }
+                }
+            }
+        }
+        return queue;
+    }
+
+    /**
+     * Creates and adds cells on the calling thread until at least the given number of cells have been added, then
+     * records the starting and ending points in the map
+     * @param cellCount the number of cells to add
+     */
+    void generateRegion(int cellCount) {
+        GenerationEvent.of("Generating starting region...");
+        while (cursor < Math.min(cellCount, order.length) && produce()) {
+            applyPending();
+        }
+        mapData.setEndpoints(mapData.get(startCell / gridSideSize, startCell % gridSideSize),
+                mapData.get(endCell / gridSideSize, endCell % gridSideSize));
+    }
+
+    /**
+     * Creates the next batch of cells and queues it to be added by {@link #applyPending()}; may be called from any
+     * thread
+     * @return false if every cell has already been created
+     */
+    boolean produce() {
+        int from, to;
+        synchronized (this) {
+            if (cursor == order.length) {
+                return false;
+            }
+            from = cursor;
+            to = Math.min(order.length, cursor + BATCH_SIZE);
+            cursor = to;
+            inFlight++;
+        }
+        GenerationTelemetry.Span span = mapData.getTelemetry().start(GenerationTelemetry.Phase.CREATE_CELLS);
+        Batch batch = createBatch(from, to);
+        span.end(batch.locations.length, batch.accesswayCount());
+        synchronized (this) {
+            pending.add(batch);
+            inFlight--;
+            notifyAll();
+        }
+        return true;
+    }
+
+    /**
+     * Adds every queued batch to the map, connecting each new cell to those of its neighbours that already exist;
+     * must only be called from the thread that owns the map. Change events are published if the map is the current one
+     */
+    void applyPending() {
+        boolean done;
+        Batch[] batches;
+        synchronized (this) {
+            batches = pending.toArray(new Batch[0]);
+            pending.clear();
+            done = cursor == order.length && inFlight == 0;
+        }
+        if (batches.length > 0) {
+            GenerationTelemetry.Span span = mapData.getTelemetry().start(GenerationTelemetry.Phase.ADD_CELLS);
+            boolean current = Game.getMapData() == mapData;
+            int nodes = 0, edges = 0;
+            for (Batch batch : batches) {
+                nodes += batch.locations.length;
+                edges += apply(batch, current);
+            }
+            span.end(nodes, edges);
+        }
+        if (done) {
+            mapData.finishGeneration();
+        }
+    }
+
+    /**
+     * Creates and adds every remaining cell on the calling thread, which must own the map, waiting for any batch being
+     * created on another thread
+     */
+    void complete() {
+        while (produce()) {
+            applyPending();
+        }
+        synchronized (this) {
+            while (inFlight > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        applyPending();
+    }
+
+    /**
+     * Creates the {@link MapLocation}s of a range of cells in {@link #order}, and the {@link Accessway}s they own
+     * @param from the first position in {@link #order}, inclusive
+     * @param to the last position in {@link #order}, exclusive
+     * @return the created batch
+     */
+    private Batch createBatch(int from, int to) {
+        Random random = new Random();
+        Batch batch = new Batch(to - from);
+        for (int i = from; i < to; i++) {
+            int cell = order[i];
+            int row = cell / gridSideSize, column = cell % gridSideSize;
+            batch.locations[i - from] = createLocation(cell, random);
+            if (maze.isConnected(row, column, Direction.EAST)) {
+                batch.east[i - from] = createAccessway(cell * 2, random);
+            }
+            if (maze.isConnected(row, column, Direction.SOUTH)) {
+                batch.south[i - from] = createAccessway(cell * 2 + 1, random);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Creates the {@link MapLocation} of a cell: dead ends are {@link Room}s, and those on the key chain hold their key
+     * and guard. May run on the generator thread, so the new location is only populated through mutators that neither
+     * mark it changed nor create events, which would read the live map
+     * @param cell the cell, indexed by {@code row * gridSideSize + column}
+     * @param random a {@link Random} instance to reseed for the cell's streams
+     * @return the new {@link MapLocation}
+     */
+    private MapLocation createLocation(int cell, Random random) {
+        int row = cell / gridSideSize, column = cell % gridSideSize;
+        boolean deadEnd = maze.degree(row, column) == 1;
+        if (cell == endCell) {
+            Room end = mapData.randomRoom(row, column, true, random);
+            end.addRoomItemNoEvent(new Crown(end));
+            end.setVisibleNoEvent(true);
+            return end;
+        }
+        if (cell == startCell) {
+            return mapData.randomRoom(row, column, deadEnd, random);
+        }
+        if (!deadEnd) {
+            return mapData.randomLocation(row, column, random);
+        }
+        Room room = mapData.randomRoom(row, column, false, random);
+        int position = chainPositions[cell];
+        if (position > 0) {
+            room.clearEnemiesNoEvent();
+            random.setSeed(mixSeed(GenerationPhase.DISTRIBUTE_KEYS.seed(seed), cell));
+            Random previous = setThreadRandom(random);
+            try {
+                room.addEnemyNoEvent(MapData.randomKeyGuard(room, position, locks.length));
+            } finally {
+                setThreadRandom(previous);
+            }
+            room.addPlayerItemNoEvent(lock(position - 1).getLock().getKey());
+        }
+        return room;
+    }
+
+    /**
+     * Creates the {@link Accessway} in a slot; the only passage out of a locked dead end gets that dead end's lock
+     * @param slot the slot of the {@link Accessway}; see {@link MapData#getAccesswaySlot(Accessway)}
+     * @param random a {@link Random} instance to reseed for the slot's stream
+     * @return the new {@link Accessway}
+     */
+    private Accessway createAccessway(int slot, Random random) {
+        int owner = slot / 2;
+        int other = slot % 2 == 0 ? owner + 1 : owner + gridSideSize;
+        int lock = lockOf(owner);
+        if (lock < 0) {
+            lock = lockOf(other);
+        }
+        if (lock >= 0) {
+            return lock(lock);
+        }
+        random.setSeed(mixSeed(GenerationPhase.BUILD_MAZE.seed(seed), slot));
+        Random previous = setThreadRandom(random);
+        try {
+            return Accessway.randomUnlockedOrOpen();
+        } finally {
+            setThreadRandom(previous);
+        }
+    }
+
+    /**
+     * Gets the lock at a position in the key chain, creating it from the stream of the slot it guards if it does not
+     * exist yet; both the locked passage and the room holding the key need the same instance, and either may be
+     * created first, on either thread
+     * @param position the position in the key chain of the dead end the lock guards
+     * @return the lock at the given position
+     */
+    private synchronized Lockable lock(int position) {
+        if (Objects.isNull(locks[position])) {
+            int cell = chainCells[position];
+            int row = cell / gridSideSize, column = cell % gridSideSize;
+            int slot = -1;
+            for (Direction direction : Direction.values()) {
+                if (maze.isConnected(row, column, direction)) {
+                    slot = maze.slot(row, column, direction);
+                    break;
+                }
+            }
+            lockRandom.setSeed(mixSeed(GenerationPhase.BUILD_MAZE.seed(seed), slot));
+            Random previous = setThreadRandom(lockRandom);
+            try {
+                locks[position] = Lockable.randomLocked();
+            } finally {
+                setThreadRandom(previous);
+            }
+        }
+        return locks[position];
+    }
+
+    /**
+     * Gets the lock guarding a cell, if the cell is a locked dead end
+     * @param cell the cell, indexed by {@code row * gridSideSize + column}
+     * @return the position in the key chain of the lock on the cell's only passage, or -1 if it has none
+     */
+    private int lockOf(int cell) {
+        if (cell == endCell) {
+            return locks.length > 0 ? 0 : -1;
+        }
+        int position = chainPositions[cell];
+        return position > 0 && position < locks.length ? position : -1;
+    }
+
+    /**
+     * Adds a batch to the map
+     * @param batch the batch to add
+     * @param notify true if change events should be published for the added cells and passages
+     * @return the number of passages added, which may include passages created by earlier batches
+     */
+    private int apply(Batch batch, boolean notify) {
+        int edges = 0;
+        for (int i = 0; i < batch.locations.length; i++) {
+            MapLocation location = batch.locations[i];
+            mapData.addNode(location);
+            int cell = location.getRow() * gridSideSize + location.getColumn();
+            unplaced[cell * 2] = batch.east[i];
+            unplaced[cell * 2 + 1] = batch.south[i];
+        }
+        for (MapLocation location : batch.locations) {
+            int row = location.getRow(), column = location.getColumn();
+            for (Direction direction : Direction.values()) {
+                if (!maze.isConnected(row, column, direction)) {
+                    continue;
+                }
+                MapLocation neighbour = mapData.getNeighbour(location, direction);
+                if (Objects.isNull(neighbour)) {
+                    continue;
+                }
+                int slot = maze.slot(row, column, direction);
+                Accessway accessway = unplaced[slot];
+                if (Objects.nonNull(accessway)) {
+                    unplaced[slot] = null;
+                    mapData.addEdge(location, neighbour, accessway);
+                    edges++;
+                    if (notify) {
+                        AccesswayChangeEvent.on(accessway);
+                    }
+                }
+            }
+            if (notify) {
+                LocationChangeEvent.on(location);
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * A range of created cells waiting to be added to the map
+     */
+    private static class Batch {
+        /**
+         * The {@link MapLocation} of every cell in the batch
+         */
+        private final MapLocation[] locations;
+        /**
+         * The {@link Accessway} leading east out of every cell in the batch, or null where there is none
+         */
+        private final Accessway[] east;
+        /**
+         * The {@link Accessway} leading south out of every cell in the batch, or null where there is none
+         */
+        private final Accessway[] south;
+
+        /**
+         * Constructor
+         * @param size the number of cells in the batch
+         */
+        private Batch(int size) {
+            locations = new MapLocation[size];
+            east = new Accessway[size];
+            south = new Accessway[size];
+        }
+
+        /**
+         * @return the number of {@link Accessway}s created with the batch
+         */
+        private int accesswayCount() {
+            int count = 0;
+            for (int i = 0; i < locations.length; i++) {
+                count += (Objects.nonNull(east[i]) ? 1 : 0) + (Objects.nonNull(south[i]) ? 1 : 0);
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package za.ac.mandela.WRPV301.Capstone.Map;
+
+import za.ac.mandela.WRPV301.Capstone.Event.GenerationEvent;
+import za.ac.mandela.WRPV301.Capstone.Map.Location.Direction;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static za.ac.mandela.WRPV301.Capstone.Util.Utils.mixSeed;
+
+/**
+ * Carves a {@link MazeGrid} as a single spanning tree by splitting the grid into square tiles, carving each tile
+ * independently on a {@link ForkJoinPool}, then stitching the tiles together along a spanning tree of the tile grid.
+ * <p>
+ * Every tile draws from its own {@link Random}, seeded from the base seed and the tile's index, and only ever writes
+ * cells inside its own bounds; stitching happens on the calling thread once all tiles are done. The carved maze is
+ * therefore identical for a given seed regardless of the number of threads used.
+ */
+class TiledMazeCarver {
+    /**
+     * The size, in cells, of any side of a tile; tiles on the far edges of the grid may be smaller
+     */
+    static final int TILE_SIZE = 32;
+    /**
+     * The grid being carved
+     */
+    private final MazeGrid maze;
+    /**
+     * The base seed from which every tile's and the stitching step's seeds are derived
+     */
+    private final long seed;
+    /**
+     * The number of tiles along any side of the grid
+     */
+    private final int tilesPerSide;
+    /**
+     * The total number of tiles
+     */
+    private final int tileCount;
+    /**
+     * The number of tiles carved so far, for progress reporting
+     */
+    private final AtomicInteger carvedCount = new AtomicInteger();
+
+    /**
+     * Constructor
+     * @param maze the empty grid to carve
+     * @param seed the base seed from which all randomness is derived
+     */
+    TiledMazeCarver(MazeGrid maze, long seed) {
+        this.maze = maze;
+        this.seed = seed;
+        this.tilesPerSide = (maze.getGridSideSize() + TILE_SIZE - 1) / TILE_SIZE;
+        this.tileCount = tilesPerSide * tilesPerSide;
+    }
+
+    /**
+     * Carves every tile using the given number of threads, then stitches them into a single spanning tree
+     * @param parallelism the number of threads to carve tiles with
+     */
+    void carve(int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            pool.invoke(new TileRange(0, tileCount));
+        } finally {
+            pool.shutdown();
+        }
+        stitch();
+    }
+
+    /**
+     * Carves a randomised depth-first spanning tree within the bounds of a single tile
+     * @param tile the index of the tile to carve, in row-major order
+     */
+    private void carveTile(int tile) {
+        int gridSideSize = maze.getGridSideSize();
+        int firstRow = (tile / tilesPerSide) * TILE_SIZE;
+        int firstColumn = (tile % tilesPerSide) * TILE_SIZE;
+        int height = Math.min(TILE_SIZE, gridSideSize - firstRow);
+        int width = Math.min(TILE_SIZE, gridSideSize - firstColumn);
+        carveRegion(maze, firstRow, firstColumn, height, width, new Random(mixSeed(seed, tile)));
+        GenerationEvent.of("Carving maze tiles... (%d/%d)", carvedCount.incrementAndGet(), tileCount);
+    }
+
+    /**
+     * Carves a randomised depth-first spanning tree within a rectangular region of a {@link MazeGrid}, never opening a
+     * passage that leaves the region
+     * @param maze the grid to carve
+     * @param firstRow the row coordinate of the top of the region
+     * @param firstColumn the column coordinate of the left of the region
+     * @param height the number of rows in the region
+     * @param width the number of columns in the region
+     * @param random the source of randomness for the traversal
+     */
+    static void carveRegion(MazeGrid maze, int firstRow, int firstColumn, int height, int width, Random random) {
+        Direction[] directions = Direction.values();
+        boolean[] visited = new boolean[height * width];
+        int[] stack = new int[height * width];
+        Direction[] candidates = new Direction[directions.length];
+        int top = 0;
+        int start = random.nextInt(height * width);
+        visited[start] = true;
+        stack[top++] = start;
+        while (top > 0) {
+            int current = stack[top - 1];
+            int row = current / width, column = current % width;
+            int candidateCount = 0;
+            for (Direction direction : directions) {
+                int neighbourRow = direction.translateRow(row), neighbourColumn = direction.translateColumn(column);
+                if (neighbourRow >= 0 && neighbourColumn >= 0 && neighbourRow < height && neighbourColumn < width
+                        && !visited[neighbourRow * width + neighbourColumn]) {
+                    candidates[candidateCount++] = direction;
+                }
+            }
+            if (candidateCount == 0) {
+                top--;
+                continue;
+            }
+            Direction direction = candidates[random.nextInt(candidateCount)];
+            maze.connect(firstRow + row, firstColumn + column, direction);
+            int neighbour = direction.translateRow(row) * width + direction.translateColumn(column);
+            visited[neighbour] = true;
+            stack[top++] = neighbour;
+        }
+    }
+
+    /**
+     * Joins the carved tiles by building a randomised depth-first spanning tree over the grid of tiles, and opening one
+     * passage at a random position along the shared border of every pair of tiles joined by that tree
+     */
+    private void stitch() {
+        GenerationEvent.of("Stitching maze tiles...");
+        int gridSideSize = maze.getGridSideSize();
+        Random random = new Random(mixSeed(seed, tileCount));
+        Direction[] directions = Direction.values();
+        boolean[] visited = new boolean[tileCount];
+        int[] stack = new int[tileCount];
+        Direction[] candidates = new Direction[directions.length];
+        int top = 0;
+        int start = random.nextInt(tileCount);
+        visited[start] = true;
+        stack[top++] = start;
+        while (top > 0) {
+            int current = stack[top - 1];
+            int tileRow = current / tilesPerSide, tileColumn = current % tilesPerSide;
+            int candidateCount = 0;
+            for (Direction direction : directions) {
+                int neighbourRow = direction.translateRow(tileRow), neighbourColumn = direction.translateColumn(tileColumn);
+                if (neighbourRow >= 0 && neighbourColumn >= 0 && neighbourRow < tilesPerSide && neighbourColumn < tilesPerSide
+                        && !visited[neighbourRow * tilesPerSide + neighbourColumn]) {
+                    candidates[candidateCount++] = direction;
+                }
+            }
+            if (candidateCount == 0) {
+                top--;
+                continue;
+            }
+            Direction direction = candidates[random.nextInt(candidateCount)];
+            int firstRow = tileRow * TILE_SIZE, firstColumn = tileColumn * TILE_SIZE;
+            int lastRow = Math.min(gridSideSize, firstRow + TILE_SIZE) - 1;
+            int lastColumn = Math.min(gridSideSize, firstColumn + TILE_SIZE) - 1;
+            switch (direction) {
+                case NORTH:
+                    maze.connect(firstRow, firstColumn + random.nextInt(lastColumn - firstColumn + 1), direction);
+                    break;
+                case SOUTH:
+                    maze.connect(lastRow, firstColumn + random.nextInt(lastColumn - firstColumn + 1), direction);
+                    break;
+                case WEST:
+                    maze.connect(firstRow + random.nextInt(lastRow - firstRow + 1), firstColumn, direction);
+                    break;
+                default:
+                    maze.connect(firstRow + random.nextInt(lastRow - firstRow + 1), lastColumn, direction);
+            }
+            int neighbour = direction.translateRow(tileRow) * tilesPerSide + direction.translateColumn(tileColumn);
+            visited[neighbour] = true;
+            stack[top++] = neighbour;
+        }
+    }
+
+    /**
+     * Fork-join task that carves a contiguous range of tiles, splitting itself in half until single tiles remain
+     */
+    private class TileRange extends RecursiveAction {
+        /**
+         * The first tile in the range, inclusive
+         */
+        private final int from;
+        /**
+         * The last tile in the range, exclusive
+         */
+        private final int to;
+
+        /**
+         * Constructor
+         * @param from the first tile in the range, inclusive
+         * @param to the last tile in the range, exclusive
+         */
+        private TileRange(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) {
+                    carveTile(from);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new TileRange(from, middle), new TileRange(middle, to));
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package za.ac.mandela.WRPV301.Capstone.Map;
+
+import za.ac.mandela.WRPV301.Capstone.Event.GenerationEvent;
+
+import java.util.Arrays;
+
+/**
+ * Tracks the groups of map grid nodes traversed by the maze generation algorithm, using flat integer arrays instead of
+ * per-group collections. Every grid cell records the group that first visited it, and groups record their parent, depth
+ * and size, so that visitation checks, group lookups and the running node count are all constant-time.
+ * <p>
+ * When groups are processed, any group of fewer than {@link #MINIMUM_GROUP_SIZE} nodes is merged with its parent using
+ * a union-find structure, so that its nodes end up in the nearest ancestor group that is large enough to be kept.
+ */
+class TraversalGrouping {
+    /**
+     * Groups with fewer nodes than this are collapsed into their parent group when processed
+     */
+    static final int MINIMUM_GROUP_SIZE = 10;
+    /**
+     * Marker value for unvisited grid cells and for the parent of the root group
+     */
+    private static final int NONE = -1;
+    /**
+     * The size, in nodes, of any side of the square grid being traversed
+     */
+    private final int gridSideSize;
+    /**
+     * The group of every grid cell, indexed by {@code row * gridSideSize + column}, or {@link #NONE} if unvisited
+     */
+    private final int[] cellGroups;
+    /**
+     * The parent group of every group, or {@link #NONE} for the root group
+     */
+    private int[] parents;
+    /**
+     * The number of ancestors of every group
+     */
+    private int[] depths;
+    /**
+     * The number of nodes in every group
+     */
+    private int[] sizes;
+    /**
+     * The number of groups created so far
+     */
+    private int groupCount;
+    /**
+     * The total number of visited nodes across all groups
+     */
+    private int visitedCount;
+
+    /**
+     * Constructor
+     * @param gridSideSize the size, in nodes, of any side of the square grid being traversed
+     */
+    TraversalGrouping(int gridSideSize) {
+        this.gridSideSize = gridSideSize;
+        this.cellGroups = new int[gridSideSize * gridSideSize];
+        Arrays.fill(cellGroups, NONE);
+        int initialCapacity = Math.max(16, gridSideSize);
+        this.parents = new int[initialCapacity];
+        this.depths = new int[initialCapacity];
+        this.sizes = new int[initialCapacity];
+    }
+
+    /**
+     * Creates a new, empty group
+     * @param parent the group the new group branches from, or a negative value if the new group is the root group
+     * @return the new group
+     */
+    int newGroup(int parent) {
+        if (groupCount == parents.length) {
+            int capacity = groupCount * 2;
+            parents = Arrays.copyOf(parents, capacity);
+            depths = Arrays.copyOf(depths, capacity);
+            sizes = Arrays.copyOf(sizes, capacity);
+        }
+        int group = groupCount++;
+        parents[group] = parent < 0 ? NONE : parent;
+        depths[group] = parent < 0 ? 0 : depths[parent] + 1;
+        sizes[group] = 0;
+        return group;
+    }
+
+    /**
+     * Places the node at the given coordinates into a group, marking it as visited
+     * @param row the row coordinate of the node
+     * @param column the column coordinate of the node
+     * @param group the group to place the node into
+     */
+    void addNode(int row, int column, int group) {
+        int index = row * gridSideSize + column;
+        if (cellGroups[index] == NONE) {
+            visitedCount++;
+        } else {
+            sizes[cellGroups[index]]--;
+        }
+        cellGroups[index] = group;
+        sizes[group]++;
+    }
+
+    /**
+     * Checks whether the node at the given coordinates has been placed in any group
+     * @param row the row coordinate of the node
+     * @param column the column coordinate of the node
+     * @return true if the node has been visited
+     */
+    boolean isVisited(int row, int column) {
+        return cellGroups[row * gridSideSize + column] != NONE;
+    }
+
+    /**
+     * Gets the group containing the node at the given coordinates
+     * @param row the row coordinate of the node
+     * @param column the column coordinate of the node
+     * @return the group containing the node, or a negative value if the node has not been visited
+     */
+    int groupOf(int row, int column) {
+        return cellGroups[row * gridSideSize + column];
+    }
+
+    /**
+     * @return the total number of visited nodes across all groups
+     */
+    int size() {
+        return visitedCount;
+    }
+
+    /**
+     * @return the number of groups created so far, including groups that would be collapsed when processed
+     */
+    int groupCount() {
+        return groupCount;
+    }
+
+    /**
+     * Collapses undersized groups into their nearest kept ancestor and numbers the kept groups in order of depth, with
+     * ties broken by creation order
+     * @return the result of processing
+     */
+    Result process() {
+        int[] representatives = new int[groupCount];
+        for (int group = 0; group < groupCount; group++) {
+            boolean keep = parents[group] == NONE || sizes[group] >= MINIMUM_GROUP_SIZE;
+            representatives[group] = keep ? group : parents[group];
+        }
+        //stable counting sort of kept groups by depth, so that numbering follows depth, then creation order
+        int maxDepth = 0;
+        for (int group = 0; group < groupCount; group++) {
+            maxDepth = Math.max(maxDepth, depths[group]);
+        }
+        int[] depthOffsets = new int[maxDepth + 2];
+        for (int group = 0; group < groupCount; group++) {
+            if (representatives[group] == group) {
+                depthOffsets[depths[group] + 1]++;
+            }
+        }
+        for (int depth = 1; depth < depthOffsets.length; depth++) {
+            depthOffsets[depth] += depthOffsets[depth - 1];
+        }
+        int[] labels = new int[groupCount];
+        for (int group = 0; group < groupCount; group++) {
+            if (representatives[group] == group) {
+                labels[group] = depthOffsets[depths[group]]++;
+            }
+        }
+        int lengthSquared = gridSideSize * gridSideSize;
+        int[][] nodeGroups = new int[gridSideSize][gridSideSize];
+        for (int row = 0; row < gridSideSize; row++) {
+            for (int column = 0; column < gridSideSize; column++) {
+                int group = cellGroups[row * gridSideSize + column];
+                nodeGroups[row][column] = group == NONE ? 0 : labels[find(representatives, group)];
+            }
+            GenerationEvent.of("Grouping nodes... (%d/%d)", (row + 1) * gridSideSize, lengthSquared);
+        }
+        return new Result(nodeGroups, depthOffsets[depthOffsets.length - 1]);
+    }
+
+    /**
+     * Finds the kept group that a group has been merged into, compressing the path along the way
+     * @param representatives the union-find links; a group that links to itself is kept
+     * @param group the group to resolve
+     * @return the kept group containing the given group's nodes
+     */
+    private static int find(int[] representatives, int group) {
+        int root = group;
+        while (representatives[root] != root) {
+            root = representatives[root];
+        }
+        while (representatives[group] != root) {
+            int next = representatives[group];
+            representatives[group] = root;
+            group = next;
+        }
+        return root;
+    }
+
+    /**
+     * The outcome of {@link #process()}
+     */
+    static class Result {
+        /**
+         * An array table of groupings for every node in the grid, by row and column
+         */
+        final int[][] nodeGroups;
+        /**
+         * The number of kept groups
+         */
+        final int numGroups;
+
+        /**
+         * Constructor
+         * @param nodeGroups an array table of groupings for every node in the grid, by row and column
+         * @param numGroups the number of kept groups
+         */
+        private Result(int[][] nodeGroups, int numGroups) {
+            this.nodeGroups = nodeGroups;
+            this.numGroups = numGroups;
+        }
+    }
+}
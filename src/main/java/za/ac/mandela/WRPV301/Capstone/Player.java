@@ -1,8 +1,5 @@
 package za.ac.mandela.WRPV301.Capstone;
 
-import com.google.common.collect.ListMultimap;
-import za.ac.mandela.WRPV301.Capstone.Action.Action;
-import za.ac.mandela.WRPV301.Capstone.Action.Actionable;
 import za.ac.mandela.WRPV301.Capstone.Combat.Combatant;
 import za.ac.mandela.WRPV301.Capstone.Combat.Fight;
 import za.ac.mandela.WRPV301.Capstone.Event.ConsoleEvent;
@@ -54,6 +51,10 @@ public class Player implements Serializable, Combatant {
      * Health potion instance specific to the player
      */
     private final HealthPotion healthPotion = HealthPotion.playerInstance();
+    /**
+     * The number of times the inventory has changed, so that the inventory can be cheaply checked for changes
+     */
+    private transient int inventoryChanges = 0;
 
     /**
      * @return the {@link PlayerItem}s this Player is carrying
@@ -62,6 +63,32 @@ public class Player implements Serializable, Combatant {
         return inventory;
     }
 
+    /**
+     * Adds a {@link PlayerItem} to the inventory
+     * @param playerItem the item to add
+     */
+    public void addItem(PlayerItem playerItem) {
+        inventory.add(playerItem);
+        inventoryChanges++;
+    }
+
+    /**
+     * Removes a {@link PlayerItem} from the inventory
+     * @param playerItem the item to remove
+     */
+    public void removeItem(PlayerItem playerItem) {
+        inventory.remove(playerItem);
+        inventoryChanges++;
+    }
+
+    /**
+     * @return the number of times the inventory has changed through {@link #addItem(PlayerItem)} and
+     * {@link #removeItem(PlayerItem)}; the inventory is unchanged for as long as this is
+     */
+    public int getInventoryChanges() {
+        return inventoryChanges;
+    }
+
     /**
      * Checks if the player has a specific {@link PlayerItem}
      * @param playerItem the item to check for
@@ -83,6 +110,7 @@ public class Player implements Serializable, Combatant {
      * @param currentLocation the new {@link MapLocation} of the player
      */
     public void setCurrentLocation(MapLocation currentLocation) {
+        Game.getMapData().focus(currentLocation);
         this.currentLocation = currentLocation;
         currentLocation.setVisible(true);
         PlayerChangeEvent.post();
@@ -91,23 +119,6 @@ public class Player implements Serializable, Combatant {
         }
     }
 
-    /**
-     * @return a {@link ListMultimap} of {@link Action}s available to th player, keyed by their subjects
-     */
-    public ListMultimap<Actionable, Action> getAvailablePlayerActions() {
-        ListMultimap<Actionable, Action> actionMap;
-        if (Objects.isNull(currentFight)) {
-            actionMap = currentLocation.getLocationActions();
-            for (PlayerItem item : inventory) {
-                actionMap.putAll(item, item.getAvailableActions());
-            }
-        } else {
-            actionMap = currentFight.getFightActions();
-        }
-        actionMap.putAll(healthPotion, healthPotion.getAvailableActions());
-        return actionMap;
-    }
-
     /**
      * {@inheritDoc}
      */
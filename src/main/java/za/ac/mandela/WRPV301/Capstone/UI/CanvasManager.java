@@ -1,76 +1,90 @@
 package za.ac.mandela.WRPV301.Capstone.UI;
 
 import com.google.common.eventbus.Subscribe;
-import com.google.common.graph.EndpointPair;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
 import javafx.geometry.Bounds;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.control.Tooltip;
 import javafx.scene.image.Image;
-import javafx.scene.paint.Color;
+import javafx.scene.layout.Pane;
 import javafx.util.Duration;
-import za.ac.mandela.WRPV301.Capstone.Action.Describable;
 import za.ac.mandela.WRPV301.Capstone.Event.MapChangeEvent;
 import za.ac.mandela.WRPV301.Capstone.Event.PlayerChangeEvent;
 import za.ac.mandela.WRPV301.Capstone.Game;
-import za.ac.mandela.WRPV301.Capstone.Main;
-import za.ac.mandela.WRPV301.Capstone.Map.Access.Accessway;
-import za.ac.mandela.WRPV301.Capstone.Map.Access.Lockable;
-import za.ac.mandela.WRPV301.Capstone.Map.Location.Direction;
+import za.ac.mandela.WRPV301.Capstone.Map.MapData;
 import za.ac.mandela.WRPV301.Capstone.Map.Location.MapLocation;
-import za.ac.mandela.WRPV301.Capstone.Map.Location.Room;
-import za.ac.mandela.WRPV301.Capstone.Event.LocationChangeEvent;
-import za.ac.mandela.WRPV301.Capstone.Event.AccesswayChangeEvent;
+import za.ac.mandela.WRPV301.Capstone.Util.ResourceMapping;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static za.ac.mandela.WRPV301.Capstone.Util.Utils.*;
 
 /**
- * A class to manage map rendering to a {@link Canvas}
+ * A class to manage map rendering to a {@link Canvas}. Only the part of the map within the viewport of the containing
+ * {@link ScrollPane} is rendered: the scroll pane holds an empty {@link Pane} the size of the whole map, and a
+ * {@link Canvas} the size of the viewport is moved within it to wherever the viewport is scrolled to, and redrawn with
+ * the cells it then covers. The cost of a redraw therefore depends on the size of the viewport, not of the map. The map
+ * can be zoomed out, see {@link Zoom}; at overview levels every cell is a block of a few pixels, written straight into
+ * an image rather than drawn. The drawing itself is done by a {@link MapRenderer} onto a {@link FxMapSurface}
  */
 public class CanvasManager {
     /**
-     * The {@link GraphicsContext} of the generated {@link Canvas}
+     * The generated {@link Canvas}, the size of the viewport of {@link #scrollPane}
      */
-    private final GraphicsContext graphicsContext;
+    private final Canvas canvas;
     /**
-     * The generated {@link Canvas}
+     * The content of {@link #scrollPane}; an empty {@link Pane} the size of the whole rendered map, containing
+     * {@link #canvas}
      */
-    private final Canvas canvas;
+    private final Pane content;
     /**
-     * The pixel width of {@link Accessway}s and {@link za.ac.mandela.WRPV301.Capstone.Map.Location.Passage}s in the
-     * rendered map
+     * The {@link ScrollPane} whose viewport is rendered
      */
-    private final static double EDGE_SIZE = 25;
+    private final ScrollPane scrollPane;
     /**
-     * The number of times to multiply {@link #EDGE_SIZE} by to get the pixel width of a rendered {@link MapLocation}
-     * this must <b>ALWAYS</b> be an odd number
+     * The map the content of {@link #scrollPane} was last sized for
      */
-    private final static double MULTIPLIER = 7;
+    private MapData boundMap;
     /**
-     * The pixel width of a rendered {@link MapLocation}, including {@link Accessway}s and gutters
+     * The pixel width and height of the whole rendered map, at the current zoom level
      */
-    private final static double NODE_SIZE = MULTIPLIER * EDGE_SIZE;
+    private double mapSize;
     /**
-     * The {@link Color} for {@link Accessway}s and {@link za.ac.mandela.WRPV301.Capstone.Map.Location.Passage}s
+     * Every sprite drawn on the map, pre-scaled for each tiled zoom level; built by the first CanvasManager and shared by
+     * the rest
      */
-    private final static Color EDGE_COLOR = Color.GRAY;
+    private static SpriteAtlas sprites;
     /**
-     * A generated array of {@link Color}s for groups of {@link MapLocation}s
+     * Renders tiles on {@link #rasterThread}; built by the first CanvasManager, along with {@link #sprites}
      */
-    private final Color[] colours;
+    private static TileRasterizer rasterizer;
     /**
-     * {@link Image} resource for locked {@link Lockable}s
+     * The single worker thread tiles are rendered on, away from the JavaFX Application Thread
      */
-    private final Image locked = new Image(Main.class.getResourceAsStream("padlock.png"));
+    private final static ExecutorService rasterThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tile-raster");
+        thread.setDaemon(true);
+        return thread;
+    });
     /**
-     * {@link Image} resource for unlocked {@link Lockable}s
+     * Draws the map onto {@link #canvas}
      */
-    private final Image unlocked = new Image(Main.class.getResourceAsStream("padlock-open.png"));
+    private final MapRenderer<Image> renderer;
+    /**
+     * Flushes {@link #renderer} on every frame after it is started, until the renderer needs no more frames
+     */
+    private final AnimationTimer renderPulse = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            if (!renderer.flush()) {
+                stop();
+            }
+        }
+    };
     /**
      * Tooltip used to show room information
      */
@@ -78,274 +92,138 @@ public class CanvasManager {
 
     /**
      * Constructor
-     * <b>KNOWN ISSUE</b>: a bug in the OpenJDK does not allow for a large {@link Canvas} (<a href="https://bugs.openjdk.java.net/browse/JDK-8090178">https://bugs.openjdk.java.net/browse/JDK-8090178</a>)
-     * This is caused by a texture factory returning an unchecked null value due to a failed resource pool allocation,
-     * causing an NPE to bubble through the entire stack and crashing the application. It is unknown if this can be reproduced
-     * with the Oracle JDK. Fixing this issue is outside the scope of this project.
-     * {@see J2DResourceFactory#createRTTexture(int, int, com.sun.prism.Texture.WrapMode)}
-     *
      * @param scrollPane the {@link ScrollPane} the generated {@link Canvas} must be contained by
      */
     public CanvasManager(ScrollPane scrollPane) {
-        double canvasSize = Game.getMapData().getGridSideSize() * NODE_SIZE;
-        canvas = new Canvas(canvasSize, canvasSize);
-        Tooltip.install(canvas, tooltip);
+        this.scrollPane = scrollPane;
+        if (Objects.isNull(sprites)) {
+            sprites = new SpriteAtlas(MapRenderer.EDGE_SIZE);
+            int[][] spritePixels = new int[ResourceMapping.values().length][];
+            for (ResourceMapping resourceMapping : ResourceMapping.values()) {
+                spritePixels[resourceMapping.ordinal()] = sprites.getPixels(resourceMapping, Zoom.FULL);
+            }
+            rasterizer = new TileRasterizer((int) MapRenderer.NODE_SIZE, (int) MapRenderer.EDGE_SIZE,
+                    MapRenderer.EDGE_PIXEL, spritePixels);
+        }
+        canvas = new Canvas();
+        content = new Pane(canvas);
+        renderer = new MapRenderer<>(new FxMapSurface(canvas.getGraphicsContext2D(), sprites), rasterizer, rasterThread,
+                Platform::runLater, renderPulse::start);
+        Tooltip.install(content, tooltip);
         tooltip.setShowDelay(Duration.millis(300));
-        canvas.setOnMouseMoved(e -> {
+        content.setOnMouseMoved(e -> {
             MapLocation node = getNode(XY.of(e.getX(), e.getY()));
-            if (node.isVisible()) {
+            if (Objects.nonNull(node) && node.isVisible()) {
                 tooltip.setText(node.getDescription());
             } else {
                 tooltip.setText("You have not explored this location yet.");
             }
         });
-        graphicsContext = canvas.getGraphicsContext2D();
-        scrollPane.setContent(canvas);
-        colours = new Color[Game.getMapData().getNumGroups()];
-        Color curr = Color.RED;
-        for (int i = 0; i < colours.length; i++) {
-            colours[i] = curr;
-            curr = Color.hsb(curr.getHue() + 147.00  % 360.00, curr.getSaturation(), curr.getBrightness());
-        }
+        scrollPane.setContent(content);
+        scrollPane.viewportBoundsProperty().addListener((observable, oldValue, newValue) -> moveViewport());
+        scrollPane.hvalueProperty().addListener((observable, oldValue, newValue) -> moveViewport());
+        scrollPane.vvalueProperty().addListener((observable, oldValue, newValue) -> moveViewport());
+        bindToMap();
+        eventBus.register(renderer);
         eventBus.register(this);
     }
 
     /**
-     * Draws the game map
-     * @param event the {@link MapChangeEvent} consumed
+     * Sizes the content of the scroll pane to the current map, unless that has already been done for it
      */
-    @Subscribe
-    public void draw(MapChangeEvent event) {
-        graphicsContext.setFill(Color.BLACK);
-        graphicsContext.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
-        for (int i = 0; i < Game.getMapData().getGridSideSize(); i++) {
-            for (int j = 0; j < Game.getMapData().getGridSideSize(); j++) {
-                drawNode(Game.getMapData().get(i, j));
-            }
-        }
-        for (Accessway accessway : Game.getMapData().edges()) {
-            if (accessway instanceof Lockable) {
-                drawLockable((Lockable) accessway);
-            }
+    private void bindToMap() {
+        if (Game.getMapData() == boundMap) {
+            return;
         }
-        PlayerChangeEvent.post();
+        boundMap = Game.getMapData();
+        resizeContent();
     }
 
     /**
-     * Renders a {@link Lockable} and any icons associated with it
-     * @param lockable the {@link Lockable} to render
+     * Sizes the content of the scroll pane to the current map at the current zoom level
      */
-    private void drawLockable(Lockable lockable) {
-        EndpointPair<MapLocation> nodes = Game.getMapData().incidentNodes(lockable);
-        if ((nodes.nodeU().isVisible() || nodes.nodeV().isVisible() || Game.cheatsOn()) && lockable.keyExists()) {
-            MapLocation node = nodes.nodeU();
-            Direction facingDirection = lockable.getFacingDirection(node);
-            XY drawXY;
-            switch (facingDirection) {
-                case NORTH:
-                    drawXY = XY.of((NODE_SIZE / 2.0) - (EDGE_SIZE / 2.0), -(EDGE_SIZE / 2.0)).translate(getNodeXY(node));
-                    break;
-                case SOUTH:
-                    drawXY = XY.of((NODE_SIZE / 2.0) - (EDGE_SIZE / 2.0), NODE_SIZE - (EDGE_SIZE / 2.0)).translate(getNodeXY(node));
-                    break;
-                case WEST:
-                    drawXY = XY.of(-(EDGE_SIZE / 2.0), (NODE_SIZE / 2.0) - (EDGE_SIZE / 2.0)).translate(getNodeXY(node));
-                    break;
-                default:
-                    drawXY = XY.of(NODE_SIZE - (EDGE_SIZE / 2.0), (NODE_SIZE / 2.0) - (EDGE_SIZE / 2.0)).translate(getNodeXY(node));
-                    break;
-            }
-            graphicsContext.drawImage(lockable.isUnlocked() ? unlocked : locked, drawXY.X, drawXY.Y, EDGE_SIZE, EDGE_SIZE);
-        }
+    private void resizeContent() {
+        mapSize = Game.getMapData().getGridSideSize() * renderer.getZoom().getCellSize();
+        content.setMinSize(mapSize, mapSize);
+        content.setPrefSize(mapSize, mapSize);
+        content.setMaxSize(mapSize, mapSize);
     }
 
     /**
-     * Consumes {@link AccesswayChangeEvent}s from the subscribed {@link com.google.common.eventbus.EventBus} and calls
-     * {@link #refreshAccessway(Accessway)} for the changed {@link Accessway}
-     * @param event the received {@link AccesswayChangeEvent}
+     * @return the current zoom level
      */
-    @Subscribe
-    public void refreshAccessway(AccesswayChangeEvent event){
-        refreshAccessway(event.getAccessway());
+    public Zoom getZoom() {
+        return renderer.getZoom();
     }
 
     /**
-     * Redraws the {@link MapLocation}s and icons associated with a given {@link Accessway}
-     * @param edge the {@link Accessway} to refresh
+     * Changes the zoom level, and marks the viewport for redrawing on the next frame; the scroll position is kept as a
+     * proportion of the map, so callers will usually want to center the view again
+     * @param zoom the new zoom level
      */
-    private void refreshAccessway(Accessway edge) {
-        for (MapLocation node : Game.getMapData().incidentNodes(edge)) {
-            refreshNode(node);
-        }
-        if (edge instanceof Lockable) {
-            drawLockable((Lockable) edge);
+    public void setZoom(Zoom zoom) {
+        if (zoom != renderer.getZoom()) {
+            renderer.setZoom(zoom);
+            resizeContent();
+            moveViewport();
         }
     }
 
     /**
-     * Consumes {@link LocationChangeEvent}s from the subscribed {@link com.google.common.eventbus.EventBus} and calls
-     * {@link #refreshNode(MapLocation)} for the changed {@link MapLocation}
-     * @param event the received {@link LocationChangeEvent}
+     * Resizes the {@link Canvas} to the viewport of the scroll pane and moves it to wherever the viewport is scrolled
+     * to, then marks it for redrawing on the next frame
      */
-    @Subscribe
-    public void refreshNode(LocationChangeEvent event) {
-        refreshNode(event.getLocation());
-    }
-
-    /**
-     * Re-draws a specified {@link MapLocation}
-     * @param node the {@link MapLocation} to redraw
-     */
-    private void refreshNode(MapLocation node) {
-        XYWH.of(getNodeXY(node), NODE_SIZE, NODE_SIZE).rect(graphicsContext, Color.BLACK);
-        drawNode(node);
+    private void moveViewport() {
+        Bounds viewportBounds = scrollPane.getViewportBounds();
+        double width = Math.min(viewportBounds.getWidth(), mapSize);
+        double height = Math.min(viewportBounds.getHeight(), mapSize);
+        double viewportX = scrollOffset(scrollPane.getHvalue(), scrollPane.getHmin(), scrollPane.getHmax(), mapSize - width);
+        double viewportY = scrollOffset(scrollPane.getVvalue(), scrollPane.getVmin(), scrollPane.getVmax(), mapSize - height);
+        canvas.setWidth(width);
+        canvas.setHeight(height);
+        canvas.relocate(viewportX, viewportY);
+        renderer.setViewport(viewportX, viewportY, width, height);
     }
 
     /**
-     * Gets the generated {@link Color} associated with a given {@link MapLocation}
-     * @param node the {@link MapLocation} to get the associated {@link Color} for
-     * @return the {@link Color} associated with the given {@link MapLocation}
+     * Transforms a scroll bar value into the offset, in map pixels, of the edge of the viewport
+     * @param value the scroll bar value
+     * @param min the minimum scroll bar value
+     * @param max the maximum scroll bar value
+     * @param range the largest possible offset, in map pixels
+     * @return the offset, in map pixels, of the edge of the viewport
      */
-    private Color getNodeSegmentColor(MapLocation node) {
-        return colours[Game.getMapData().getNodeGroup(node)];
+    private static double scrollOffset(double value, double min, double max, double range) {
+        if (max <= min || range <= 0) {
+            return 0;
+        }
+        return Math.floor((value - min) / (max - min) * range);
     }
 
     /**
-     * Transforms a {@link MapLocation}'s grid coordinates into {@link Canvas} coordinates
-     * @param node the {@link MapLocation} to get {@link Canvas} coordinates for
-     * @return the {@link Canvas} coordinates for the given {@link MapLocation}
+     * Sizes the content of the scroll pane to the new map and moves the viewport within it; the {@link MapRenderer}
+     * consumes the same event to redraw the viewport
+     * @param event the {@link MapChangeEvent} consumed
      */
-    private XY getNodeXY(MapLocation node) {
-        return XY.of(node.getColumn() * NODE_SIZE, node.getRow() * NODE_SIZE);
+    @Subscribe
+    public void draw(MapChangeEvent event) {
+        bindToMap();
+        moveViewport();
+        PlayerChangeEvent.post();
     }
 
     /**
-     * Gets the {@link MapLocation} at the given screenspace XY coordinates
-     * @param nodeXY the screenspace XY coordinates of the node
-     * @return the {@link MapLocation} at the given screenspace XY coordinates
+     * Gets the {@link MapLocation} at the given map pixel coordinates at the current zoom level, as reported by mouse
+     * events on the content of the scroll pane
+     * @param nodeXY the map pixel coordinates of the node
+     * @return the {@link MapLocation} at the given map pixel coordinates, or null if there is none yet
      */
     public MapLocation getNode(XY nodeXY) {
-        int column = Double.valueOf(Math.floor(nodeXY.X / NODE_SIZE)).intValue();
-        int row = Double.valueOf(Math.floor(nodeXY.Y / NODE_SIZE)).intValue();
+        int column = Double.valueOf(Math.floor(nodeXY.X / renderer.getZoom().getCellSize())).intValue();
+        int row = Double.valueOf(Math.floor(nodeXY.Y / renderer.getZoom().getCellSize())).intValue();
         return Game.getMapData().get(row, column);
     }
 
-    /**
-     * Renders a given {@link MapLocation} and its connected {@link Accessway}s
-     * @param node the {@link MapLocation} to draw
-     */
-    private void drawNode(MapLocation node) {
-        if (node.isVisible() || Game.cheatsOn()) {
-            if (node instanceof Room) {
-                drawRoom(node);
-            } else {
-                drawPassage(node);
-            }
-            drawNodeAccessways(node);
-        }
-    }
-
-    /**
-     * Draws a given {@link za.ac.mandela.WRPV301.Capstone.Map.Location.Passage}
-     * @param node the {@link za.ac.mandela.WRPV301.Capstone.Map.Location.Passage} to draw
-     */
-    private void drawPassage(MapLocation node) {
-        XYWH xywh = XYWH.of(getNodeXY(node), EDGE_SIZE, EDGE_SIZE)
-                .translate((NODE_SIZE / 2.0) - (EDGE_SIZE / 2.0), (NODE_SIZE / 2.0) - (EDGE_SIZE / 2.0));
-        xywh.rect(graphicsContext, EDGE_COLOR);
-        for (Direction direction : node.getAccessways().keySet()) {
-            XYWH transformed = xywh;
-            for (int i = 0; i < MULTIPLIER - 3; i++) {
-                transformed = transformed.translate(direction);
-                transformed.rect(graphicsContext, EDGE_COLOR);
-            }
-        }
-        if (node.equals(Game.getPlayer().getCurrentLocation())) {
-            XYWH.of(getNodeXY(node), EDGE_SIZE, EDGE_SIZE)
-                    .translate((NODE_SIZE / 2.0) - (EDGE_SIZE/ 2.0), (NODE_SIZE / 2.0) - (EDGE_SIZE/ 2.0))
-                    .img(graphicsContext, Game.getPlayer());
-        }
-    }
-
-    /**
-     * Draws a given {@link Room}
-     * @param node the {@link Room} to draw
-     */
-    private void drawRoom(MapLocation node) {
-        XYWH.of(getNodeXY(node), NODE_SIZE - (2.0 * EDGE_SIZE), NODE_SIZE - (2.0 * EDGE_SIZE))
-                .translate(EDGE_SIZE, EDGE_SIZE)
-                .rect(graphicsContext, getNodeSegmentColor(node));
-        HashSet<Describable> items = new HashSet<>(((Room) node).getPlayerItems());
-        items.addAll(((Room) node).getEnemies());
-        items.addAll(((Room) node).getRoomItems());
-        ArrayList<XY> transformations = createGridTransformations(items.size());
-        int i = 0;
-        Iterator<Describable> iterator = items.iterator();
-        while (i < items.size()) {
-            XYWH.of(transformations.get(i), EDGE_SIZE, EDGE_SIZE)
-                    .translate(getNodeXY(node))
-                    .img(graphicsContext, iterator.next());
-            i++;
-        }
-        if (node.equals(Game.getPlayer().getCurrentLocation())) {
-            XYWH.of(getNodeXY(node), EDGE_SIZE, EDGE_SIZE)
-                    .translate(EDGE_SIZE, EDGE_SIZE)
-                    .img(graphicsContext, Game.getPlayer());
-        }
-    }
-
-    /**
-     * Draws the {@link Accessway}s connected to a {@link MapLocation}
-     * @param node the {@link MapLocation} for which to draw the connected {@link Accessway}s
-     */
-    private void drawNodeAccessways(MapLocation node) {
-        for (Direction direction : node.getAccessways().keySet()) {
-            XYWH xywh;
-            switch (direction) {
-                case NORTH:
-                    xywh = XYWH.of((NODE_SIZE / 2.0) - (EDGE_SIZE/ 2.0), 0, EDGE_SIZE, EDGE_SIZE);
-                    break;
-                case SOUTH:
-                    xywh = XYWH.of((NODE_SIZE / 2.0) - (EDGE_SIZE/ 2.0), NODE_SIZE - EDGE_SIZE, EDGE_SIZE, EDGE_SIZE);
-                    break;
-                case WEST:
-                    xywh = XYWH.of(0, (NODE_SIZE / 2.0) - (EDGE_SIZE/ 2.0), EDGE_SIZE, EDGE_SIZE);
-                    break;
-                default:
-                    xywh = XYWH.of(NODE_SIZE - EDGE_SIZE, (NODE_SIZE / 2.0) - (EDGE_SIZE/ 2.0), EDGE_SIZE, EDGE_SIZE);
-                    break;
-            }
-            xywh.translate(getNodeXY(node)).rect(graphicsContext, EDGE_COLOR);
-        }
-    }
-
-    /**
-     * Creates a series of transformations needed to center a grid containing the specified number of items within a node
-     * @param numItems the number of items the grid will contain
-     * @return a series of transformations needed to center a grid containing the specified number of items within a node
-     */
-    private ArrayList<XY> createGridTransformations(int numItems) {
-        ArrayList<XY> transforms = new ArrayList<>();
-        int rows = 0, columns = 0;
-        boolean selector = true;
-        while (rows * columns < numItems) {
-            if (selector) {
-                columns++;
-            } else {
-                rows++;
-            }
-            selector = !selector;
-        }
-        XY start = XY.of(NODE_SIZE / 2.0, NODE_SIZE / 2.0)
-                .translate((EDGE_SIZE / -2.0 * columns), (EDGE_SIZE / -2.0) * rows);
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                transforms.add(start.translate(j * EDGE_SIZE, i * EDGE_SIZE));
-            }
-        }
-        return transforms;
-    }
-
     /**
      * Transforms the current player position into scroll ratios required to center the player's position within the
      * main scroll pane
@@ -353,13 +231,13 @@ public class CanvasManager {
      * @return scroll ratios required to center the player's position within the main scrollpane
      */
     public XY getPlayerScrollCoordinates(Bounds viewPortBounds) {
-        XY xy = getNodeXY(Game.getPlayer().getCurrentLocation())
-                .translate(NODE_SIZE / 2.0, NODE_SIZE / 2.0)
+        MapLocation location = Game.getPlayer().getCurrentLocation();
+        XY xy = XY.of((location.getColumn() + 0.5) * renderer.getZoom().getCellSize(), (location.getRow() + 0.5) * renderer.getZoom().getCellSize())
                 .translate(
                         viewPortBounds.getWidth() / (-2.0),
                         viewPortBounds.getHeight() / (-2.0)
                 );
-        return XY.of(xy.X / (canvas.getWidth() - viewPortBounds.getWidth()), xy.Y / (canvas.getHeight() - viewPortBounds.getHeight()));
+        return XY.of(xy.X / (mapSize - viewPortBounds.getWidth()), xy.Y / (mapSize - viewPortBounds.getHeight()));
     }
 
     /**
@@ -368,4 +246,82 @@ public class CanvasManager {
     public Tooltip getTooltip() {
         return tooltip;
     }
+
+    /**
+     * Enum with values describing the zoom levels of the map view: tiled levels draw every cell in detail, scaled down
+     * from full size, while overview levels draw every cell as a block of a few pixels in the colour of its group
+     */
+    public enum Zoom {
+        /**
+         * Every cell drawn at full size
+         */
+        FULL(MapRenderer.NODE_SIZE, true),
+        /**
+         * Every cell drawn at half size
+         */
+        HALF(MapRenderer.NODE_SIZE / 2.0, true),
+        /**
+         * Every cell drawn at a quarter of full size
+         */
+        QUARTER(MapRenderer.NODE_SIZE / 4.0, true),
+        /**
+         * Every cell an 8 pixel block
+         */
+        OVERVIEW(8, false),
+        /**
+         * Every cell a 3 pixel block
+         */
+        WIDE_OVERVIEW(3, false),
+        /**
+         * Every cell a single pixel
+         */
+        FULL_OVERVIEW(1, false);
+
+        /**
+         * The pixel width of a cell at this zoom level
+         */
+        private final double cellSize;
+        /**
+         * True if cells are drawn in detail at this zoom level, false if they are blocks of pixels
+         */
+        private final boolean tiled;
+
+        /**
+         * Constructor
+         * @param cellSize the pixel width of a cell at this zoom level; a whole number for overview levels
+         * @param tiled true if cells are drawn in detail at this zoom level, false if they are blocks of pixels
+         */
+        Zoom(double cellSize, boolean tiled) {
+            this.cellSize = cellSize;
+            this.tiled = tiled;
+        }
+
+        /**
+         * @return the pixel width of a cell at this zoom level
+         */
+        public double getCellSize() {
+            return cellSize;
+        }
+
+        /**
+         * @return true if cells are drawn in detail at this zoom level, false if they are blocks of pixels
+         */
+        public boolean isTiled() {
+            return tiled;
+        }
+
+        /**
+         * @return the next closer zoom level, or this one if there is none
+         */
+        public Zoom in() {
+            return values()[Math.max(0, ordinal() - 1)];
+        }
+
+        /**
+         * @return the next further zoom level, or this one if there is none
+         */
+        public Zoom out() {
+            return values()[Math.min(values().length - 1, ordinal() + 1)];
+        }
+    }
 }
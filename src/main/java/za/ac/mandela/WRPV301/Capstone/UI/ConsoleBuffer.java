@@ -0,0 +1,131 @@
+package za.ac.mandela.WRPV301.Capstone.UI;
+
+import javafx.collections.ObservableListBase;
+import javafx.scene.paint.Color;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The lines of the game console, held in a ring buffer of fixed capacity: once it is full, every appended line drops
+ * the oldest one. As an {@link javafx.collections.ObservableList} it can back a {@link javafx.scene.control.ListView}
+ * directly, which only makes cells for the lines in view, so the cost of the console does not grow with the length of
+ * the session. Must only be used on the JavaFX Application Thread
+ */
+class ConsoleBuffer extends ObservableListBase<ConsoleBuffer.Line> {
+    /**
+     * The lines, oldest first from {@link #head}, wrapping around the end of the array
+     */
+    private final Line[] lines;
+    /**
+     * The index in {@link #lines} of the oldest line
+     */
+    private int head = 0;
+    /**
+     * The number of lines held
+     */
+    private int size = 0;
+
+    /**
+     * Constructor
+     * @param capacity the most lines to hold
+     */
+    ConsoleBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Console capacity must be at least 1");
+        }
+        lines = new Line[capacity];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Line get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return lines[(head + index) % lines.length];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Appends a batch of lines, dropping as many of the oldest lines as needed to stay within capacity, and reports
+     * the whole batch to listeners as a single change
+     * @param batch the lines to append, oldest first
+     */
+    void append(List<Line> batch) {
+        int skipped = Math.max(0, batch.size() - lines.length);
+        int added = batch.size() - skipped;
+        if (added == 0) {
+            return;
+        }
+        int dropped = Math.max(0, size + added - lines.length);
+        List<Line> removed = new ArrayList<>(dropped);
+        for (int i = 0; i < dropped; i++) {
+            removed.add(lines[head]);
+            lines[head] = null;
+            head = (head + 1) % lines.length;
+        }
+        size -= dropped;
+        for (int i = skipped; i < batch.size(); i++) {
+            lines[(head + size) % lines.length] = batch.get(i);
+            size++;
+        }
+        beginChange();
+        if (dropped > 0) {
+            nextRemove(0, removed);
+        }
+        nextAdd(size - added, size);
+        endChange();
+    }
+
+    /**
+     * A single line of console text
+     */
+    static class Line {
+        /**
+         * The text of the line, without a line break
+         */
+        private final String text;
+        /**
+         * The {@link Color} of the text
+         */
+        private final Color color;
+
+        /**
+         * Constructor
+         * @param text the text of the line, without a line break
+         * @param color the {@link Color} of the text
+         */
+        Line(String text, Color color) {
+            this.text = text;
+            this.color = color;
+        }
+
+        /**
+         * Gets text.
+         *
+         * @return Value of text.
+         */
+        String getText() {
+            return text;
+        }
+
+        /**
+         * Gets color.
+         *
+         * @return Value of color.
+         */
+        Color getColor() {
+            return color;
+        }
+    }
+}
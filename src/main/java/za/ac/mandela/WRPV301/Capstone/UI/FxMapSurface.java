@@ -0,0 +1,124 @@
+package za.ac.mandela.WRPV301.Capstone.UI;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.nio.IntBuffer;
+import java.util.Objects;
+
+/**
+ * A {@link MapSurface} that draws onto the {@link GraphicsContext} of a JavaFX {@link javafx.scene.canvas.Canvas};
+ * must only be used on the JavaFX Application Thread
+ */
+class FxMapSurface implements MapSurface<Image> {
+    /**
+     * The {@link GraphicsContext} drawn with
+     */
+    private final GraphicsContext graphicsContext;
+    /**
+     * The sprites padlocks are drawn from
+     */
+    private final SpriteAtlas sprites;
+    /**
+     * The ARGB pixel of the current fill, so that a {@link Color} is only made when the fill changes
+     */
+    private int fillPixel = 0;
+    /**
+     * The image blocks of pixels are written into before they are drawn; null until first needed, and replaced whenever
+     * a block of another size is drawn
+     */
+    private WritableImage pixelImage;
+
+    /**
+     * Constructor
+     * @param graphicsContext the {@link GraphicsContext} to draw with
+     * @param sprites the sprites padlocks are drawn from
+     */
+    FxMapSurface(GraphicsContext graphicsContext, SpriteAtlas sprites) {
+        this.graphicsContext = graphicsContext;
+        this.sprites = sprites;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setTransform(double scale, double translateX, double translateY) {
+        graphicsContext.setTransform(scale, 0, 0, scale, translateX, translateY);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The black fill is set directly rather than through {@link #setFill(int)}, since {@link GraphicsContext#restore()}
+     * puts back the fill {@link #fillPixel} describes
+     */
+    @Override
+    public void clear(double width, double height) {
+        graphicsContext.save();
+        graphicsContext.setTransform(1, 0, 0, 1, 0, 0);
+        graphicsContext.setFill(Color.BLACK);
+        graphicsContext.fillRect(0, 0, width, height);
+        graphicsContext.restore();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void fillRect(int argb, double x, double y, double width, double height) {
+        setFill(argb);
+        graphicsContext.fillRect(x, y, width, height);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawTile(Image tile, double x, double y, double size) {
+        graphicsContext.drawImage(tile, x, y, size, size);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawLock(boolean unlocked, CanvasManager.Zoom zoom, double x, double y, double size) {
+        sprites.drawLock(graphicsContext, unlocked, zoom, x, y, size);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawPixels(int[] pixels, int width, int height, double x, double y) {
+        if (Objects.isNull(pixelImage) || pixelImage.getWidth() != width || pixelImage.getHeight() != height) {
+            pixelImage = new WritableImage(width, height);
+        }
+        pixelImage.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        graphicsContext.drawImage(pixelImage, x, y);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Image uploadTile(IntBuffer pixels, int size) {
+        WritableImage tile = new WritableImage(size, size);
+        tile.getPixelWriter().setPixels(0, 0, size, size, PixelFormat.getIntArgbPreInstance(), pixels, size);
+        return tile;
+    }
+
+    /**
+     * Sets the fill of the {@link GraphicsContext}, unless it is already that colour
+     * @param argb the opaque ARGB pixel to fill with
+     */
+    private void setFill(int argb) {
+        if (argb != fillPixel) {
+            fillPixel = argb;
+            graphicsContext.setFill(Color.rgb(argb >> 16 & 0xFF, argb >> 8 & 0xFF, argb & 0xFF));
+        }
+    }
+}
@@ -11,8 +11,6 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.control.*;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.text.Font;
-import javafx.scene.text.Text;
-import javafx.scene.text.TextFlow;
 import javafx.stage.FileChooser;
 import javafx.stage.WindowEvent;
 import org.apache.commons.lang3.StringUtils;
@@ -29,7 +27,6 @@ import java.io.IOException;
 import java.util.*;
 
 import static za.ac.mandela.WRPV301.Capstone.Util.Utils.eventBus;
-import static za.ac.mandela.WRPV301.Capstone.Util.Utils.monoSpaceFonts;
 
 
 /**
@@ -47,8 +44,14 @@ public class GameController {
     public MenuItem closeButton;
     public CheckMenuItem cheatModeCheckBox;
     public Button centerButton;
-    public TextFlow consoleOutputTextFlow;
-    public ScrollPane consoleScrollPane;
+    public Button zoomInButton;
+    public Button zoomOutButton;
+    public ListView<ConsoleBuffer.Line> consoleListView;
+
+    /**
+     * The most lines the console keeps; older lines are dropped as new ones arrive
+     */
+    private static final int CONSOLE_LINE_CAP = 2000;
 
     /**
      * {@link CanvasManager} instance to govern map rendering and associated operations
@@ -65,6 +68,20 @@ public class GameController {
      * The current console input history cursor value
      */
     private int consoleInputHistoryCursor = -1;
+    /**
+     * The lines shown in the console
+     */
+    private final ConsoleBuffer consoleBuffer = new ConsoleBuffer(CONSOLE_LINE_CAP);
+    /**
+     * Lines output since the console was last updated, appended together on the next pulse so that all the output of
+     * one command is laid out once
+     */
+    private final ArrayList<ConsoleBuffer.Line> pendingConsoleLines = new ArrayList<>();
+    /**
+     * The font of console lines, looked up once rather than for every line; null to use the default font, as until
+     * the monospace fonts have been discovered
+     */
+    private Font consoleFont;
 
     /**
      * FXML initialisation method; called after controls have been injected
@@ -105,7 +122,34 @@ public class GameController {
                 }
             }
         });
-        consoleOutputTextFlow.heightProperty().addListener((observable, oldValue, newValue) -> consoleScrollPane.setVvalue(consoleScrollPane.getVmax()));
+        MonoFonts.whenDiscovered(families -> {
+            if (!families.isEmpty()) {
+                consoleFont = Font.font(families.get(0));
+                consoleListView.refresh();
+            }
+        });
+        consoleListView.setItems(consoleBuffer);
+        consoleListView.setCellFactory(param -> new ListCell<>() {
+            {
+                //a zero preferred width lets the list size the cell, so that long lines wrap instead of scrolling
+                setPrefWidth(0);
+                setWrapText(true);
+            }
+
+            @Override
+            protected void updateItem(ConsoleBuffer.Line item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || Objects.isNull(item)) {
+                    setText(null);
+                } else {
+                    if (Objects.nonNull(consoleFont) && getFont() != consoleFont) {
+                        setFont(consoleFont);
+                    }
+                    setTextFill(item.getColor());
+                    setText(item.getText());
+                }
+            }
+        });
         MapChangeEvent.post();
         eventBus.register(this);
     }
@@ -220,6 +264,36 @@ public class GameController {
         event.consume();
     }
 
+    /**
+     * Zooms the map in by one level
+     * @param event the {@link Button} click event passed to this handler
+     */
+    public void zoomIn(ActionEvent event) {
+        zoom(canvasManager.getZoom().in());
+        event.consume();
+    }
+
+    /**
+     * Zooms the map out by one level
+     * @param event the {@link Button} click event passed to this handler
+     */
+    public void zoomOut(ActionEvent event) {
+        zoom(canvasManager.getZoom().out());
+        event.consume();
+    }
+
+    /**
+     * Changes the zoom level of the map, centers it on the current player position, and disables the zoom buttons that
+     * would not change the zoom level any further
+     * @param zoom the new zoom level
+     */
+    private void zoom(CanvasManager.Zoom zoom) {
+        canvasManager.setZoom(zoom);
+        zoomInButton.setDisable(zoom.in() == zoom);
+        zoomOutButton.setDisable(zoom.out() == zoom);
+        centerCanvas((PlayerChangeEvent) null);
+    }
+
     /**
      * Centers the main {@link ScrollPane} on the current player position; this method is subscribed to {@link PlayerChangeEvent}s
      * on the application's shared {@link com.google.common.eventbus.EventBus} instance
@@ -267,20 +341,26 @@ public class GameController {
     }
 
     /**
-     * Consumes {@link ConsoleEvent}s and prints their contained messages to the UI console
+     * Consumes {@link ConsoleEvent}s and queues their contained messages, one line per line break, for the UI console
      * @param event the {@link ConsoleEvent} consumed
      */
     @Subscribe
     public void outputToConsole(ConsoleEvent event) {
-        Text text = new Text(event.getMessage());
-        Text newLine = new Text("\n");
-        if (!monoSpaceFonts.isEmpty()) {
-            Font font = Font.font(monoSpaceFonts.get(0));
-            text.setFont(font);
-            newLine.setFont(font);
+        if (pendingConsoleLines.isEmpty()) {
+            Platform.runLater(this::flushConsole);
         }
-        text.setFill(event.getTextColor());
-        consoleOutputTextFlow.getChildren().addAll(text, newLine);
+        for (String line : event.getMessage().split("\\R", -1)) {
+            pendingConsoleLines.add(new ConsoleBuffer.Line(line, event.getTextColor()));
+        }
+    }
+
+    /**
+     * Appends the queued console lines in a single batch and scrolls to the newest line
+     */
+    private void flushConsole() {
+        consoleBuffer.append(pendingConsoleLines);
+        pendingConsoleLines.clear();
+        consoleListView.scrollTo(consoleBuffer.size() - 1);
     }
 
     /**
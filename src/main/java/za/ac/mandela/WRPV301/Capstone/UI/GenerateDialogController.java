@@ -7,6 +7,8 @@ import javafx.scene.control.Label;
 import javafx.stage.WindowEvent;
 import za.ac.mandela.WRPV301.Capstone.Event.GenerationEvent;
 
+import java.util.Objects;
+
 import static za.ac.mandela.WRPV301.Capstone.Util.Utils.eventBus;
 
 /**
@@ -15,6 +17,8 @@ import static za.ac.mandela.WRPV301.Capstone.Util.Utils.eventBus;
 public class GenerateDialogController {
     @SuppressWarnings("JavaDoc")
     public Label outputLabel;
+    @SuppressWarnings("JavaDoc")
+    public Label telemetryLabel;
 
     /**
      * FXML initialisation method
@@ -26,13 +30,22 @@ public class GenerateDialogController {
     }
 
     /**
-     * Consumes {@link GenerationEvent}s from the shared {@link com.google.common.eventbus.EventBus} and outputs them
-     * to the text of {@link #outputLabel}
+     * Consumes {@link GenerationEvent}s from the shared {@link com.google.common.eventbus.EventBus} and outputs their
+     * message to the text of {@link #outputLabel}, and their telemetry summary, if any, to {@link #telemetryLabel}.
+     * Events arrive at most once per {@link GenerationEvent#REFRESH_INTERVAL_MILLIS}, so each can be handed to the
+     * JavaFX Application thread as it comes
      * @param event the consumed {@link GenerationEvent}
      */
     @Subscribe
     public void output(GenerationEvent event) {
-        Platform.runLater(() -> outputLabel.setText(event.getMessage()));
+        Platform.runLater(() -> {
+            if (Objects.nonNull(event.getMessage())) {
+                outputLabel.setText(event.getMessage());
+            }
+            if (Objects.nonNull(event.getTelemetry())) {
+                telemetryLabel.setText(event.getTelemetry());
+            }
+        });
     }
 
     /**
@@ -0,0 +1,624 @@
+package za.ac.mandela.WRPV301.Capstone.UI;
+
+import com.google.common.eventbus.Subscribe;
+import javafx.scene.paint.Color;
+import za.ac.mandela.WRPV301.Capstone.Event.AccesswayChangeEvent;
+import za.ac.mandela.WRPV301.Capstone.Event.LocationChangeEvent;
+import za.ac.mandela.WRPV301.Capstone.Event.MapChangeEvent;
+import za.ac.mandela.WRPV301.Capstone.Game;
+import za.ac.mandela.WRPV301.Capstone.Map.Access.Accessway;
+import za.ac.mandela.WRPV301.Capstone.Map.Access.Lockable;
+import za.ac.mandela.WRPV301.Capstone.Map.Location.Direction;
+import za.ac.mandela.WRPV301.Capstone.Map.Location.MapLocation;
+import za.ac.mandela.WRPV301.Capstone.Map.MapData;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Draws the part of the current map within a viewport onto a {@link MapSurface}, redrawing only what change events
+ * have marked as changed, once per frame. Knows nothing of the scene graph: {@link CanvasManager} sizes and positions
+ * the viewport and calls {@link #flush()} on every frame the renderer asks for, and the same can be done headlessly.
+ * Must be registered with the {@link com.google.common.eventbus.EventBus} by its owner, and only used on one thread,
+ * apart from the rendering of tiles
+ * @param <T> the type of uploaded tile images
+ */
+class MapRenderer<T> {
+    /**
+     * The pixel width of {@link Accessway}s and {@link za.ac.mandela.WRPV301.Capstone.Map.Location.Passage}s in the
+     * rendered map
+     */
+    final static double EDGE_SIZE = 25;
+    /**
+     * The number of times to multiply {@link #EDGE_SIZE} by to get the pixel width of a rendered {@link MapLocation}
+     * this must <b>ALWAYS</b> be an odd number
+     */
+    final static double MULTIPLIER = 7;
+    /**
+     * The pixel width of a rendered {@link MapLocation}, including {@link Accessway}s and gutters
+     */
+    final static double NODE_SIZE = MULTIPLIER * EDGE_SIZE;
+    /**
+     * The ARGB pixel of {@link Accessway}s and {@link za.ac.mandela.WRPV301.Capstone.Map.Location.Passage}s
+     */
+    final static int EDGE_PIXEL = 0xFF808080;
+    /**
+     * The ARGB pixel drawn wherever nothing else is
+     */
+    private final static int BACKGROUND_PIXEL = 0xFF000000;
+    /**
+     * The ARGB pixel of cells that are not shown at overview zoom levels
+     */
+    private final static int UNEXPLORED_PIXEL = 0xFF000000;
+    /**
+     * The ARGB pixel of the player's cell at overview zoom levels
+     */
+    private final static int PLAYER_PIXEL = 0xFFFFFFFF;
+    /**
+     * Every {@link Direction}, kept so that {@link Direction#values()} need not copy them for every cell redrawn
+     */
+    private final static Direction[] DIRECTIONS = Direction.values();
+    /**
+     * The most memory, in bytes, that the pixels of cached cell tiles may take up; several hundred tiles, many times the
+     * number of cells in a full-screen viewport
+     */
+    private final static long TILE_CACHE_BYTES = 64L * 1024 * 1024;
+    /**
+     * The most finished tiles uploaded on any one frame, so that a repaint needing many new tiles is spread over several
+     * frames rather than holding up input
+     */
+    private final static int UPLOADS_PER_FRAME = 32;
+
+    /**
+     * The surface drawn onto
+     */
+    private final MapSurface<T> surface;
+    /**
+     * Renders tiles on {@link #rasterExecutor}
+     */
+    private final TileRasterizer rasterizer;
+    /**
+     * Runs {@link #rasterizer}, away from the thread the renderer is used on
+     */
+    private final Executor rasterExecutor;
+    /**
+     * Runs tasks on the thread the renderer is used on, so that rendered tiles can ask for a frame
+     */
+    private final Executor frameExecutor;
+    /**
+     * Asks for {@link #flush()} to be called on the next frame
+     */
+    private final Runnable requestFrame;
+    /**
+     * The map {@link #colourPixels} were last generated for
+     */
+    private MapData boundMap;
+    /**
+     * The current zoom level
+     */
+    private CanvasManager.Zoom zoom = CanvasManager.Zoom.FULL;
+    /**
+     * The opaque ARGB pixel of each group of {@link MapLocation}s
+     */
+    private int[] colourPixels;
+    /**
+     * The ARGB pixels of the viewport at overview zoom levels, row by row; null until first needed
+     */
+    private int[] overviewPixels;
+    /**
+     * The overview ARGB pixel of every cell, indexed by {@code row * gridSideSize + column}, ignoring the player; kept up
+     * to date by change events so that overview levels need not read every {@link MapLocation} on every redraw. Null
+     * until first needed, and whenever it must be rebuilt; always null for chunked maps, which are read from their
+     * chunks in memory instead; see {@link MapData#isChunked()}
+     */
+    private int[] overviewCells;
+    /**
+     * The X coordinate of the left edge of the viewport, in map pixels at the current zoom level
+     */
+    private double viewportX;
+    /**
+     * The Y coordinate of the top edge of the viewport, in map pixels at the current zoom level
+     */
+    private double viewportY;
+    /**
+     * The pixel width of the viewport
+     */
+    private double viewportWidth;
+    /**
+     * The pixel height of the viewport
+     */
+    private double viewportHeight;
+    /**
+     * Cache of uploaded cell tiles, keyed by how the cells look
+     */
+    private final TileCache<TileKey, T> tileCache = new TileCache<>(TILE_CACHE_BYTES, (long) (NODE_SIZE * NODE_SIZE) * 4);
+    /**
+     * Reused to describe every cell drawn, so that cached tiles are found without allocating a key; see {@link TileKey}
+     */
+    private final TileKey tileProbe = new TileKey();
+    /**
+     * The keys of the tiles waiting to be rendered or uploaded, so that each is only rendered once
+     */
+    private final HashSet<TileKey> pendingTiles = new HashSet<>();
+    /**
+     * The tiles rendered on {@link #rasterExecutor} and waiting to be uploaded
+     */
+    private final ConcurrentLinkedQueue<TileRasterizer.Raster> finishedTiles = new ConcurrentLinkedQueue<>();
+    /**
+     * The keys of the tiles uploaded on the current frame; reused from frame to frame
+     */
+    private final HashSet<TileKey> uploadedTiles = new HashSet<>();
+    /**
+     * True if a frame has been asked for to upload finished tiles, so that it is asked for once however many tiles
+     * finish before then
+     */
+    private final AtomicBoolean uploadScheduled = new AtomicBoolean();
+    /**
+     * The cells to redraw on the next frame, indexed relative to the viewport by {@link #dirtyIndex(int, int)}, so that
+     * the set stays small however large the map is
+     */
+    private final BitSet dirtyCells = new BitSet();
+    /**
+     * The row coordinate of the cell that {@link #dirtyCells} are indexed from: one row above the viewport, since the
+     * icons of the cells just outside it show within it
+     */
+    private int dirtyOriginRow;
+    /**
+     * The column coordinate of the cell that {@link #dirtyCells} are indexed from: one column left of the viewport
+     */
+    private int dirtyOriginColumn;
+    /**
+     * The number of columns of cells {@link #dirtyCells} are indexed over: those of the viewport and one on either side
+     */
+    private int dirtyColumns = 1;
+    /**
+     * True if the whole viewport is to be redrawn on the next frame
+     */
+    private boolean viewportDirty = false;
+
+    /**
+     * Constructor
+     * @param surface the surface to draw onto
+     * @param rasterizer renders tiles; only used on the raster executor
+     * @param rasterExecutor runs the rasterizer, away from the thread the renderer is used on
+     * @param frameExecutor runs tasks on the thread the renderer is used on
+     * @param requestFrame asks for {@link #flush()} to be called on the next frame; only run on the thread the renderer
+     *                     is used on
+     */
+    MapRenderer(MapSurface<T> surface, TileRasterizer rasterizer, Executor rasterExecutor, Executor frameExecutor,
+                Runnable requestFrame) {
+        this.surface = surface;
+        this.rasterizer = rasterizer;
+        this.rasterExecutor = rasterExecutor;
+        this.frameExecutor = frameExecutor;
+        this.requestFrame = requestFrame;
+    }
+
+    /**
+     * @return the current zoom level
+     */
+    CanvasManager.Zoom getZoom() {
+        return zoom;
+    }
+
+    /**
+     * Changes the zoom level; takes effect once the viewport is next set
+     * @param zoom the new zoom level
+     */
+    void setZoom(CanvasManager.Zoom zoom) {
+        this.zoom = zoom;
+    }
+
+    /**
+     * Moves and resizes the viewport, and marks it for redrawing on the next frame
+     * @param x the X coordinate of the left edge of the viewport, in map pixels at the current zoom level
+     * @param y the Y coordinate of the top edge of the viewport, in map pixels at the current zoom level
+     * @param width the pixel width of the viewport
+     * @param height the pixel height of the viewport
+     */
+    void setViewport(double x, double y, double width, double height) {
+        viewportX = x;
+        viewportY = y;
+        viewportWidth = width;
+        viewportHeight = height;
+        //tiles are drawn in full-detail coordinates and scaled down; overview pixels are drawn unscaled
+        double scale = zoom.isTiled() ? zoom.getCellSize() / NODE_SIZE : 1;
+        surface.setTransform(scale, -viewportX, -viewportY);
+        double cellSize = zoom.getCellSize();
+        dirtyOriginRow = (int) Math.floor(viewportY / cellSize) - 1;
+        dirtyOriginColumn = (int) Math.floor(viewportX / cellSize) - 1;
+        dirtyColumns = (int) Math.floor((viewportX + viewportWidth) / cellSize) + 2 - dirtyOriginColumn;
+        dirtyCells.clear();
+        viewportDirty = true;
+        requestFrame.run();
+    }
+
+    /**
+     * Generates a colour for each group of the current map, unless that has already been done for it
+     */
+    private void bindToMap() {
+        if (Game.getMapData() == boundMap) {
+            return;
+        }
+        boundMap = Game.getMapData();
+        colourPixels = new int[Game.getMapData().getNumGroups()];
+        Color curr = Color.RED;
+        for (int i = 0; i < colourPixels.length; i++) {
+            colourPixels[i] = argb(curr);
+            curr = Color.hsb(curr.getHue() + 147.00  % 360.00, curr.getSaturation(), curr.getBrightness());
+        }
+    }
+
+    /**
+     * @param colour a {@link Color}
+     * @return the given {@link Color} as an opaque ARGB pixel
+     */
+    private static int argb(Color colour) {
+        return 0xFF000000 | (int) Math.round(colour.getRed() * 255) << 16 | (int) Math.round(colour.getGreen() * 255) << 8
+                | (int) Math.round(colour.getBlue() * 255);
+    }
+
+    /**
+     * Marks the whole viewport for redrawing on the next frame; any number of these events before then cause a single
+     * redraw
+     * @param event the {@link MapChangeEvent} consumed
+     */
+    @Subscribe
+    public void draw(MapChangeEvent event) {
+        bindToMap();
+        overviewCells = null;
+        viewportDirty = true;
+        requestFrame.run();
+    }
+
+    /**
+     * Consumes {@link AccesswayChangeEvent}s from the subscribed {@link com.google.common.eventbus.EventBus} and marks
+     * the {@link MapLocation}s connected by the changed {@link Accessway}, and the icons between them, for redrawing on
+     * the next frame
+     * @param event the received {@link AccesswayChangeEvent}
+     */
+    @Subscribe
+    public void refreshAccessway(AccesswayChangeEvent event){
+        for (MapLocation node : Game.getMapData().incidentNodes(event.getAccessway())) {
+            markDirty(node);
+        }
+    }
+
+    /**
+     * Consumes {@link LocationChangeEvent}s from the subscribed {@link com.google.common.eventbus.EventBus} and marks the
+     * changed {@link MapLocation} for redrawing on the next frame
+     * @param event the received {@link LocationChangeEvent}
+     */
+    @Subscribe
+    public void refreshNode(LocationChangeEvent event) {
+        markDirty(event.getLocation());
+    }
+
+    /**
+     * Marks a {@link MapLocation}, and the icons straddling its borders, for redrawing on the next frame, unless it is
+     * outside the viewport; a location marked more than once before then is redrawn once
+     * @param node the {@link MapLocation} to redraw
+     */
+    private void markDirty(MapLocation node) {
+        if (Objects.nonNull(overviewCells)) {
+            overviewCells[node.getRow() * Game.getMapData().getGridSideSize() + node.getColumn()] = overviewPixel(node);
+        }
+        if (isInViewport(node)) {
+            dirtyCells.set(dirtyIndex(node.getRow(), node.getColumn()));
+            requestFrame.run();
+        }
+    }
+
+    /**
+     * @param row the row coordinate of a cell within the viewport, or just outside it
+     * @param column the column coordinate of the cell
+     * @return the index of the cell in {@link #dirtyCells}; cells are indexed in row-major order
+     */
+    private int dirtyIndex(int row, int column) {
+        return (row - dirtyOriginRow) * dirtyColumns + column - dirtyOriginColumn;
+    }
+
+    /**
+     * @param node a {@link MapLocation}
+     * @return true if any of the rendered {@link MapLocation}, or the icons straddling its borders, is within the
+     * viewport
+     */
+    private boolean isInViewport(MapLocation node) {
+        double cellSize = zoom.getCellSize();
+        double margin = EDGE_SIZE * cellSize / NODE_SIZE;
+        double x = node.getColumn() * cellSize, y = node.getRow() * cellSize;
+        return x - margin < viewportX + viewportWidth && x + cellSize + margin > viewportX
+                && y - margin < viewportY + viewportHeight && y + cellSize + margin > viewportY;
+    }
+
+    /**
+     * Redraws everything marked for redrawing since the last frame: the whole viewport, if it has been marked, or
+     * otherwise each marked cell, followed by the icons straddling the borders of each, so that icons cleared along with
+     * a neighbouring cell are restored. Finished tiles are uploaded first
+     * @return true if another frame is needed, to upload the finished tiles left over
+     */
+    boolean flush() {
+        bindToMap();
+        boolean moreTiles = uploadTiles();
+        if (viewportDirty) {
+            if (zoom.isTiled()) {
+                drawViewport();
+            } else {
+                drawOverview();
+            }
+        } else if (!zoom.isTiled()) {
+            for (int cell = dirtyCells.nextSetBit(0); cell >= 0; cell = dirtyCells.nextSetBit(cell + 1)) {
+                MapLocation node = dirtyNode(cell);
+                if (Objects.nonNull(node)) { //the chunk of a chunked map may have been evicted since
+                    drawOverviewCell(node);
+                }
+            }
+        } else {
+            for (int cell = dirtyCells.nextSetBit(0); cell >= 0; cell = dirtyCells.nextSetBit(cell + 1)) {
+                MapLocation node = dirtyNode(cell);
+                if (Objects.nonNull(node)) {
+                    surface.fillRect(BACKGROUND_PIXEL, node.getColumn() * NODE_SIZE, node.getRow() * NODE_SIZE,
+                            NODE_SIZE, NODE_SIZE);
+                    drawNode(node);
+                }
+            }
+            for (int cell = dirtyCells.nextSetBit(0); cell >= 0; cell = dirtyCells.nextSetBit(cell + 1)) {
+                MapLocation node = dirtyNode(cell);
+                if (Objects.nonNull(node)) {
+                    for (Direction direction : DIRECTIONS) {
+                        drawLockable(node, direction);
+                    }
+                }
+            }
+        }
+        viewportDirty = false;
+        dirtyCells.clear();
+        return moreTiles;
+    }
+
+    /**
+     * @param cell the index of a cell in {@link #dirtyCells}
+     * @return the {@link MapLocation} of the cell, or null if there is none
+     */
+    private MapLocation dirtyNode(int cell) {
+        return Game.getMapData().get(dirtyOriginRow + cell / dirtyColumns, dirtyOriginColumn + cell % dirtyColumns);
+    }
+
+    /**
+     * Draws the cells, and the {@link Lockable}s between them, that are within the viewport
+     */
+    private void drawViewport() {
+        surface.clear(viewportWidth, viewportHeight);
+        int gridSideSize = Game.getMapData().getGridSideSize();
+        double cellSize = zoom.getCellSize();
+        int firstRow = (int) Math.floor(viewportY / cellSize);
+        int firstColumn = (int) Math.floor(viewportX / cellSize);
+        int lastRow = Math.min(gridSideSize - 1, (int) Math.floor((viewportY + viewportHeight) / cellSize));
+        int lastColumn = Math.min(gridSideSize - 1, (int) Math.floor((viewportX + viewportWidth) / cellSize));
+        for (int i = firstRow; i <= lastRow; i++) {
+            for (int j = firstColumn; j <= lastColumn; j++) {
+                MapLocation node = Game.getMapData().get(i, j);
+                if (Objects.nonNull(node)) { //cells of a progressively generated map may not have been added yet
+                    drawNode(node);
+                }
+            }
+        }
+        //lockable icons straddle the border between two cells, so those just outside the viewport may show within it;
+        //each is drawn once, from the cell to the north or west of it
+        for (int i = Math.max(0, firstRow - 1); i <= lastRow; i++) {
+            for (int j = Math.max(0, firstColumn - 1); j <= lastColumn; j++) {
+                MapLocation node = Game.getMapData().get(i, j);
+                if (Objects.nonNull(node)) {
+                    drawLockable(node, Direction.SOUTH);
+                    drawLockable(node, Direction.EAST);
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws the cells within the viewport at an overview zoom level: each cell is a block of pixels in the colour of its
+     * group, or black if it is unexplored, copied from {@link #overviewCells} in a single pass into
+     * {@link #overviewPixels}, which is then drawn in one call; the player's cell is then drawn over it. The cells of
+     * a chunked map are read from its chunks in memory instead, and cells outside them are unexplored
+     */
+    private void drawOverview() {
+        int width = (int) viewportWidth, height = (int) viewportHeight;
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (Objects.isNull(overviewPixels) || overviewPixels.length != width * height) {
+            overviewPixels = new int[width * height];
+        }
+        MapData mapData = Game.getMapData();
+        int gridSideSize = mapData.getGridSideSize();
+        boolean cached = !mapData.isChunked();
+        if (cached && Objects.isNull(overviewCells)) {
+            overviewCells = new int[gridSideSize * gridSideSize];
+            for (int i = 0; i < gridSideSize; i++) {
+                for (int j = 0; j < gridSideSize; j++) {
+                    overviewCells[i * gridSideSize + j] = overviewPixel(mapData.get(i, j));
+                }
+            }
+        }
+        int cellSize = (int) zoom.getCellSize();
+        int left = (int) viewportX, top = (int) viewportY;
+        //the viewport never extends past the map, so every pixel lies within a cell
+        for (int y = 0; y < height; y++) {
+            int row = (top + y) / cellSize;
+            int rowStart = row * gridSideSize;
+            int offset = y * width;
+            if (cellSize == 1 && cached) {
+                System.arraycopy(overviewCells, rowStart + left, overviewPixels, offset, width);
+                continue;
+            }
+            for (int x = 0; x < width; ) {
+                int column = (left + x) / cellSize;
+                int end = Math.min(width, (column + 1) * cellSize - left);
+                int pixel = cached ? overviewCells[rowStart + column] : overviewPixel(mapData.get(row, column));
+                while (x < end) {
+                    overviewPixels[offset + x++] = pixel;
+                }
+            }
+        }
+        surface.drawPixels(overviewPixels, width, height, viewportX, viewportY);
+        drawOverviewCell(Game.getPlayer().getCurrentLocation(), PLAYER_PIXEL);
+    }
+
+    /**
+     * Redraws a single cell at an overview zoom level
+     * @param node the {@link MapLocation} to redraw
+     */
+    private void drawOverviewCell(MapLocation node) {
+        if (node.equals(Game.getPlayer().getCurrentLocation())) {
+            drawOverviewCell(node, PLAYER_PIXEL);
+        } else {
+            drawOverviewCell(node, overviewPixel(node));
+        }
+    }
+
+    /**
+     * Fills a single cell with a colour at an overview zoom level
+     * @param node the {@link MapLocation} to fill
+     * @param argb the opaque ARGB pixel to fill it with
+     */
+    private void drawOverviewCell(MapLocation node, int argb) {
+        double cellSize = zoom.getCellSize();
+        surface.fillRect(argb, node.getColumn() * cellSize, node.getRow() * cellSize, cellSize, cellSize);
+    }
+
+    /**
+     * @param node a {@link MapLocation}, or null for a cell not yet added to a progressively generated map
+     * @return the ARGB pixel a cell is drawn with at overview zoom levels, ignoring the player
+     */
+    private int overviewPixel(MapLocation node) {
+        if (Objects.isNull(node) || !(node.isVisible() || Game.cheatsOn())) {
+            return UNEXPLORED_PIXEL;
+        }
+        return colourPixels[Game.getMapData().getNodeGroup(node)];
+    }
+
+    /**
+     * Renders the {@link Lockable}, if any, leading out of a {@link MapLocation} in a given {@link Direction}
+     * @param node the {@link MapLocation} the {@link Lockable} leads out of
+     * @param direction the {@link Direction} the {@link Lockable} faces, relative to the given node
+     */
+    private void drawLockable(MapLocation node, Direction direction) {
+        Accessway accessway = Game.getMapData().getAccessway(node, direction);
+        if (accessway instanceof Lockable) {
+            drawLockable((Lockable) accessway, node, Game.getMapData().getNeighbour(node, direction), direction);
+        }
+    }
+
+    /**
+     * Renders a {@link Lockable} and any icons associated with it, given the {@link MapLocation}s it connects
+     * @param lockable the {@link Lockable} to render
+     * @param node the {@link MapLocation} to position the icons relative to
+     * @param otherNode the other {@link MapLocation} the {@link Lockable} connects
+     * @param facingDirection the {@link Direction} the {@link Lockable} faces, relative to the first node
+     */
+    private void drawLockable(Lockable lockable, MapLocation node, MapLocation otherNode, Direction facingDirection) {
+        if ((node.isVisible() || otherNode.isVisible() || Game.cheatsOn()) && lockable.keyExists()) {
+            double x = node.getColumn() * NODE_SIZE, y = node.getRow() * NODE_SIZE;
+            switch (facingDirection) {
+                case NORTH:
+                    x += (NODE_SIZE / 2.0) - (EDGE_SIZE / 2.0);
+                    y -= EDGE_SIZE / 2.0;
+                    break;
+                case SOUTH:
+                    x += (NODE_SIZE / 2.0) - (EDGE_SIZE / 2.0);
+                    y += NODE_SIZE - (EDGE_SIZE / 2.0);
+                    break;
+                case WEST:
+                    x -= EDGE_SIZE / 2.0;
+                    y += (NODE_SIZE / 2.0) - (EDGE_SIZE / 2.0);
+                    break;
+                default:
+                    x += NODE_SIZE - (EDGE_SIZE / 2.0);
+                    y += (NODE_SIZE / 2.0) - (EDGE_SIZE / 2.0);
+                    break;
+            }
+            surface.drawLock(lockable.isUnlocked(), zoom, x, y, EDGE_SIZE);
+        }
+    }
+
+    /**
+     * Renders a given {@link MapLocation} and its connected {@link Accessway}s, by copying its tile from
+     * {@link #tileCache}. If no cell has looked the same since the tile was last evicted, the cell is left blank and the
+     * tile is rendered on {@link #rasterExecutor}; the cell is redrawn once the tile has been uploaded. Nothing is
+     * allocated unless the tile has to be rendered
+     * @param node the {@link MapLocation} to draw
+     */
+    private void drawNode(MapLocation node) {
+        if (node.isVisible() || Game.cheatsOn()) {
+            tileProbe.describe(Game.getMapData(), node, Game.getPlayer().getCurrentLocation());
+            T tile = tileCache.get(tileProbe);
+            if (Objects.isNull(tile)) {
+                requestTile(tileProbe);
+            } else {
+                surface.drawTile(tile, node.getColumn() * NODE_SIZE, node.getRow() * NODE_SIZE, NODE_SIZE);
+            }
+        }
+    }
+
+    /**
+     * Asks {@link #rasterExecutor} to render a tile, unless it has already been asked to. The rasterizer is handed a
+     * copy of the key, which is everything it needs to know about the cell, so the world is never read off the thread
+     * the renderer is used on
+     * @param key the description of the cell; copied, so may be reused
+     */
+    private void requestTile(TileKey key) {
+        if (pendingTiles.contains(key)) {
+            return;
+        }
+        TileKey snapshot = key.copy();
+        int groupColour = snapshot.isRoom() ? colourPixels[snapshot.getGroup()] : 0;
+        pendingTiles.add(snapshot);
+        rasterExecutor.execute(() -> {
+            finishedTiles.add(rasterizer.rasterize(snapshot, groupColour));
+            if (uploadScheduled.compareAndSet(false, true)) {
+                frameExecutor.execute(requestFrame);
+            }
+        });
+    }
+
+    /**
+     * Uploads rendered tiles to the surface and caches them, at most {@link #UPLOADS_PER_FRAME} of them, and marks the
+     * cells in the viewport that were waiting for them for redrawing. Only those cells are redrawn, rather than the whole
+     * viewport, so that a viewport needing more tiles than the cache holds does not keep asking for the tiles it has
+     * evicted
+     * @return true if finished tiles are still waiting to be uploaded
+     */
+    private boolean uploadTiles() {
+        uploadScheduled.set(false);
+        int size = rasterizer.getNodeSize();
+        TileRasterizer.Raster raster;
+        uploadedTiles.clear();
+        for (int uploads = 0; uploads < UPLOADS_PER_FRAME && Objects.nonNull(raster = finishedTiles.poll()); uploads++) {
+            tileCache.put(raster.getKey(), surface.uploadTile(raster.getPixels(), size));
+            pendingTiles.remove(raster.getKey());
+            uploadedTiles.add(raster.getKey());
+        }
+        if (!uploadedTiles.isEmpty() && zoom.isTiled() && !viewportDirty) {
+            int gridSideSize = Game.getMapData().getGridSideSize();
+            double cellSize = zoom.getCellSize();
+            int lastRow = Math.min(gridSideSize - 1, (int) Math.floor((viewportY + viewportHeight) / cellSize));
+            int lastColumn = Math.min(gridSideSize - 1, (int) Math.floor((viewportX + viewportWidth) / cellSize));
+            for (int i = (int) Math.floor(viewportY / cellSize); i <= lastRow; i++) {
+                for (int j = (int) Math.floor(viewportX / cellSize); j <= lastColumn; j++) {
+                    MapLocation node = Game.getMapData().get(i, j);
+                    if (Objects.nonNull(node) && (node.isVisible() || Game.cheatsOn())
+                            && uploadedTiles.contains(tileProbe.describe(Game.getMapData(), node,
+                            Game.getPlayer().getCurrentLocation()))) {
+                        dirtyCells.set(dirtyIndex(i, j));
+                    }
+                }
+            }
+        }
+        return !finishedTiles.isEmpty();
+    }
+}
@@ -0,0 +1,74 @@
+package za.ac.mandela.WRPV301.Capstone.UI;
+
+import java.nio.IntBuffer;
+
+/**
+ * The drawing operations {@link MapRenderer} draws the map with. {@link FxMapSurface} draws onto a JavaFX
+ * {@link javafx.scene.canvas.Canvas}, while other implementations can stand in for it, e.g. to measure rendering
+ * without a display. Coordinates are in full-detail map pixels, transformed by the current transform, unless stated
+ * otherwise
+ * @param <T> the type of uploaded tile images
+ */
+interface MapSurface<T> {
+    /**
+     * Sets the transform of every later drawing operation
+     * @param scale the scale from map pixels to surface pixels
+     * @param translateX the X offset, in surface pixels, added after scaling
+     * @param translateY the Y offset, in surface pixels, added after scaling
+     */
+    void setTransform(double scale, double translateX, double translateY);
+
+    /**
+     * Fills the whole surface with black, ignoring the transform
+     * @param width the pixel width of the surface
+     * @param height the pixel height of the surface
+     */
+    void clear(double width, double height);
+
+    /**
+     * Fills a rectangle with a colour
+     * @param argb the opaque ARGB pixel to fill with
+     * @param x the X coordinate of the left edge of the rectangle
+     * @param y the Y coordinate of the top edge of the rectangle
+     * @param width the width of the rectangle
+     * @param height the height of the rectangle
+     */
+    void fillRect(int argb, double x, double y, double width, double height);
+
+    /**
+     * Draws an uploaded tile
+     * @param tile the tile, as returned by {@link #uploadTile(IntBuffer, int)}
+     * @param x the X coordinate of the left edge of the tile
+     * @param y the Y coordinate of the top edge of the tile
+     * @param size the width and height to draw the tile at
+     */
+    void drawTile(T tile, double x, double y, double size);
+
+    /**
+     * Draws the padlock of a {@link za.ac.mandela.WRPV301.Capstone.Map.Access.Lockable}
+     * @param unlocked true to draw the open padlock, false to draw the closed one
+     * @param zoom the current zoom level
+     * @param x the X coordinate of the left edge of the padlock
+     * @param y the Y coordinate of the top edge of the padlock
+     * @param size the width and height to draw the padlock at
+     */
+    void drawLock(boolean unlocked, CanvasManager.Zoom zoom, double x, double y, double size);
+
+    /**
+     * Draws a block of opaque ARGB pixels, one map pixel per pixel
+     * @param pixels the pixels, row by row
+     * @param width the pixel width of the block
+     * @param height the pixel height of the block
+     * @param x the X coordinate of the left edge of the block
+     * @param y the Y coordinate of the top edge of the block
+     */
+    void drawPixels(int[] pixels, int width, int height, double x, double y);
+
+    /**
+     * Uploads the pixels of a rendered tile, so that it can be drawn
+     * @param pixels the premultiplied ARGB pixels of the tile, row by row
+     * @param size the pixel width and height of the tile
+     * @return the uploaded tile
+     */
+    T uploadTile(IntBuffer pixels, int size);
+}
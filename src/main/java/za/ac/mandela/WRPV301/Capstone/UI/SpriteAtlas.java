@@ -0,0 +1,156 @@
+package za.ac.mandela.WRPV301.Capstone.UI;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import za.ac.mandela.WRPV301.Capstone.Main;
+import za.ac.mandela.WRPV301.Capstone.Util.ResourceMapping;
+
+/**
+ * Every sprite drawn on the map, packed into one backing {@link Image}. The atlas holds a row of sprites for each
+ * tiled {@link CanvasManager.Zoom} level, each sprite decoded straight to the size it is drawn at on that level, so
+ * that sprites are copied rather than scaled. Sprites are found by {@link ResourceMapping} ordinal, followed by the
+ * padlocks of {@link za.ac.mandela.WRPV301.Capstone.Map.Access.Lockable}s. Their pixels can also be read out, for
+ * {@link TileRasterizer}
+ */
+class SpriteAtlas {
+    /**
+     * The transparent gap, in pixels, around every sprite, so that smoothing never samples a neighbouring sprite
+     */
+    private static final int PADDING = 1;
+    /**
+     * The slot of the padlock drawn on locked {@link za.ac.mandela.WRPV301.Capstone.Map.Access.Lockable}s
+     */
+    private static final int LOCKED_SLOT = ResourceMapping.values().length;
+    /**
+     * The slot of the padlock drawn on unlocked {@link za.ac.mandela.WRPV301.Capstone.Map.Access.Lockable}s
+     */
+    private static final int UNLOCKED_SLOT = LOCKED_SLOT + 1;
+    /**
+     * The resource name of the sprite in every slot
+     */
+    private static final String[] resourceNames = resourceNames();
+
+    /**
+     * The backing image of every sprite
+     */
+    private final WritableImage image;
+    /**
+     * The pixel width of every sprite in the row of each zoom level, by {@link CanvasManager.Zoom} ordinal; 0 for levels
+     * that are not tiled
+     */
+    private final int[] spriteSizes = new int[CanvasManager.Zoom.values().length];
+    /**
+     * The Y offset, in the backing image, of the row of each zoom level, by {@link CanvasManager.Zoom} ordinal
+     */
+    private final int[] rowOffsets = new int[CanvasManager.Zoom.values().length];
+
+    /**
+     * Constructor; decodes every sprite once for every tiled zoom level, which needs a running JavaFX toolkit
+     * @param spriteSize the pixel width of a sprite at {@link CanvasManager.Zoom#FULL}
+     */
+    SpriteAtlas(double spriteSize) {
+        int width = 0, height = 0;
+        for (CanvasManager.Zoom zoom : CanvasManager.Zoom.values()) {
+            if (zoom.isTiled()) {
+                int size = (int) Math.ceil(spriteSize * zoom.getCellSize() / CanvasManager.Zoom.FULL.getCellSize());
+                spriteSizes[zoom.ordinal()] = size;
+                rowOffsets[zoom.ordinal()] = height + PADDING;
+                width = Math.max(width, resourceNames.length * (size + PADDING) + PADDING);
+                height += size + PADDING;
+            }
+        }
+        image = new WritableImage(width, height + PADDING);
+        for (CanvasManager.Zoom zoom : CanvasManager.Zoom.values()) {
+            int size = spriteSizes[zoom.ordinal()];
+            for (int slot = 0; size > 0 && slot < resourceNames.length; slot++) {
+                Image sprite = new Image(Main.class.getResourceAsStream(resourceNames[slot]), size, size, false, true);
+                if (sprite.isError()) {
+                    continue;
+                }
+                int spriteWidth = Math.min(size, (int) sprite.getWidth());
+                int spriteHeight = Math.min(size, (int) sprite.getHeight());
+                image.getPixelWriter().setPixels(slotOffset(slot, size), rowOffsets[zoom.ordinal()], spriteWidth,
+                        spriteHeight, sprite.getPixelReader(), 0, 0);
+            }
+        }
+    }
+
+    /**
+     * Reads the pixels of the sprite of a {@link ResourceMapping}, so that it can be drawn without JavaFX
+     * @param resourceMapping the mapping to read the sprite of
+     * @param zoom the tiled zoom level to read the sprite of
+     * @return the premultiplied ARGB pixels of the sprite, row by row, {@link #getSpriteSize(CanvasManager.Zoom)}
+     * pixels square
+     */
+    int[] getPixels(ResourceMapping resourceMapping, CanvasManager.Zoom zoom) {
+        int size = getSpriteSize(zoom);
+        int[] pixels = new int[size * size];
+        image.getPixelReader().getPixels(slotOffset(resourceMapping.ordinal(), size), rowOffsets[zoom.ordinal()], size,
+                size, PixelFormat.getIntArgbPreInstance(), pixels, 0, size);
+        return pixels;
+    }
+
+    /**
+     * @param zoom a zoom level
+     * @return the pixel width of the sprites of the given zoom level, or 0 if it is not tiled
+     */
+    int getSpriteSize(CanvasManager.Zoom zoom) {
+        return spriteSizes[zoom.ordinal()];
+    }
+
+    /**
+     * Draws the padlock of a {@link za.ac.mandela.WRPV301.Capstone.Map.Access.Lockable}
+     * @param graphicsContext the {@link GraphicsContext} to draw with
+     * @param unlocked true to draw the open padlock, false to draw the closed one
+     * @param zoom the tiled zoom level whose sprites best match the size the padlock will be on screen
+     * @param x the X coordinate to draw the padlock at
+     * @param y the Y coordinate to draw the padlock at
+     * @param size the width and height to draw the padlock at, before the transform of the context is applied
+     */
+    void drawLock(GraphicsContext graphicsContext, boolean unlocked, CanvasManager.Zoom zoom, double x, double y,
+                  double size) {
+        drawSlot(graphicsContext, unlocked ? UNLOCKED_SLOT : LOCKED_SLOT, zoom, x, y, size);
+    }
+
+    /**
+     * Draws the sprite in a slot, from the row of a tiled zoom level, or of {@link CanvasManager.Zoom#FULL} if the given
+     * level is not tiled
+     * @param graphicsContext the {@link GraphicsContext} to draw with
+     * @param slot the slot of the sprite
+     * @param zoom the zoom level to draw the sprite of
+     * @param x the X coordinate to draw the sprite at
+     * @param y the Y coordinate to draw the sprite at
+     * @param size the width and height to draw the sprite at
+     */
+    private void drawSlot(GraphicsContext graphicsContext, int slot, CanvasManager.Zoom zoom, double x, double y,
+                          double size) {
+        int row = zoom.isTiled() ? zoom.ordinal() : CanvasManager.Zoom.FULL.ordinal();
+        int spriteSize = spriteSizes[row];
+        graphicsContext.drawImage(image, slotOffset(slot, spriteSize), rowOffsets[row], spriteSize, spriteSize, x, y,
+                size, size);
+    }
+
+    /**
+     * @param slot the slot of a sprite
+     * @param size the pixel width of the sprites in its row
+     * @return the X offset of the sprite in the backing image
+     */
+    private static int slotOffset(int slot, int size) {
+        return PADDING + slot * (size + PADDING);
+    }
+
+    /**
+     * @return the resource name of the sprite in every slot
+     */
+    private static String[] resourceNames() {
+        String[] names = new String[UNLOCKED_SLOT + 1];
+        for (ResourceMapping resourceMapping : ResourceMapping.values()) {
+            names[resourceMapping.ordinal()] = resourceMapping.getResourceName();
+        }
+        names[LOCKED_SLOT] = "padlock.png";
+        names[UNLOCKED_SLOT] = "padlock-open.png";
+        return names;
+    }
+}
@@ -0,0 +1,56 @@
+package za.ac.mandela.WRPV301.Capstone.UI;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A cache of pre-rendered map tiles, so that cells that look alike are rendered once and then copied. Every tile is the
+ * same size; tiles are evicted least recently used first once the memory taken up by their pixels would exceed a cap.
+ * Looking a tile up allocates nothing, so keys are usually looked up with a reused probe, and only copied when a missing
+ * tile is {@link #put(Object, Object)}
+ * @param <K> the type of key that identifies how a tile looks
+ * @param <T> the type of tile
+ */
+class TileCache<K, T> {
+    /**
+     * The most tiles kept; at least one
+     */
+    private final int capacity;
+    /**
+     * The cached tiles, least recently used first
+     */
+    private final LinkedHashMap<K, T> tiles = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Constructor
+     * @param capacityBytes the most memory, in bytes, the pixels of cached tiles may take up; at least one tile is kept,
+     *                      however large
+     * @param bytesPerTile the memory, in bytes, taken up by the pixels of each tile
+     */
+    TileCache(long capacityBytes, long bytesPerTile) {
+        this.capacity = (int) Math.max(1, Math.min(Integer.MAX_VALUE, capacityBytes / bytesPerTile));
+    }
+
+    /**
+     * Gets the cached tile for a key, marking it as the most recently used
+     * @param key the key that identifies how the tile looks
+     * @return the tile for the given key, or null if it is not cached
+     */
+    T get(K key) {
+        return tiles.get(key);
+    }
+
+    /**
+     * Caches a tile, evicting the least recently used tiles if the cache is full
+     * @param key the key that identifies how the tile looks; must not be changed once cached
+     * @param tile the tile
+     */
+    void put(K key, T tile) {
+        tiles.put(key, tile);
+        Iterator<K> eldest = tiles.keySet().iterator();
+        while (tiles.size() > capacity) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package za.ac.mandela.WRPV301.Capstone.UI;
+
+import za.ac.mandela.WRPV301.Capstone.Action.Describable;
+import za.ac.mandela.WRPV301.Capstone.Map.Location.Direction;
+import za.ac.mandela.WRPV301.Capstone.Map.Location.MapLocation;
+import za.ac.mandela.WRPV301.Capstone.Map.Location.Room;
+import za.ac.mandela.WRPV301.Capstone.Map.MapData;
+import za.ac.mandela.WRPV301.Capstone.Util.ResourceMapping;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Identifies how the tile of a cell looks: cells with equal keys are drawn identically. A key is reused as a probe to
+ * {@link #describe(MapData, MapLocation, MapLocation)} every cell drawn, which allocates nothing, so that looking up a
+ * cached tile allocates nothing either; only a tile that is not yet cached needs a {@link #copy()} of its key
+ */
+class TileKey {
+    /**
+     * Every {@link Direction}, kept so that {@link Direction#values()} need not copy them for every cell
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * True if the cell is a {@link Room}
+     */
+    private boolean room;
+    /**
+     * The {@link Direction}s of the accessways leading out of the cell, as a bit mask of their ordinals
+     */
+    private int directionMask;
+    /**
+     * The group of the cell if it is a {@link Room}, or -1 otherwise
+     */
+    private int group;
+    /**
+     * The mapping of every item and enemy in the cell, in drawing order, followed by unused capacity
+     */
+    private ResourceMapping[] contents;
+    /**
+     * The number of items and enemies in the cell
+     */
+    private int contentCount;
+    /**
+     * True if the player is in the cell
+     */
+    private boolean hasPlayer;
+    /**
+     * The hash code of this key, computed whenever it is described
+     */
+    private int hash;
+
+    /**
+     * Constructor, for a probe that is yet to describe a cell
+     */
+    TileKey() {
+        this.contents = new ResourceMapping[8];
+    }
+
+    /**
+     * Describes a cell, replacing whatever cell this key described before
+     * @param mapData the map the cell is in
+     * @param node the {@link MapLocation} of the cell
+     * @param playerLocation the {@link MapLocation} of the player
+     * @return this key
+     */
+    TileKey describe(MapData mapData, MapLocation node, MapLocation playerLocation) {
+        room = node instanceof Room;
+        directionMask = 0;
+        for (Direction direction : DIRECTIONS) {
+            if (Objects.nonNull(mapData.getAccessway(node, direction))) {
+                directionMask |= 1 << direction.ordinal();
+            }
+        }
+        group = room ? mapData.getNodeGroup(node) : -1;
+        contentCount = 0;
+        if (room) {
+            for (Describable describable : ((Room) node).getContents()) {
+                addContent(describable);
+            }
+        }
+        hasPlayer = node == playerLocation;
+        int result = (room ? 1 : 0) | (hasPlayer ? 2 : 0) | directionMask << 2;
+        result = 31 * result + group;
+        for (int i = 0; i < contentCount; i++) {
+            result = 31 * result + Objects.hashCode(contents[i]);
+        }
+        hash = result;
+        return this;
+    }
+
+    /**
+     * Appends the mapping of an item or enemy to {@link #contents}, growing it if needed
+     * @param describable the item or enemy
+     */
+    private void addContent(Describable describable) {
+        if (contentCount == contents.length) {
+            contents = Arrays.copyOf(contents, contentCount * 2);
+        }
+        contents[contentCount++] = ResourceMapping.forObject(describable);
+    }
+
+    /**
+     * @return a new key describing the same cell as this one, that is not changed when this one is reused
+     */
+    TileKey copy() {
+        TileKey copy = new TileKey();
+        copy.room = room;
+        copy.directionMask = directionMask;
+        copy.group = group;
+        copy.contents = Arrays.copyOf(contents, Math.max(1, contentCount));
+        copy.contentCount = contentCount;
+        copy.hasPlayer = hasPlayer;
+        copy.hash = hash;
+        return copy;
+    }
+
+    /**
+     * @return true if the cell is a {@link Room}
+     */
+    boolean isRoom() {
+        return room;
+    }
+
+    /**
+     * @param direction a {@link Direction}
+     * @return true if an accessway leads out of the cell in the given {@link Direction}
+     */
+    boolean hasAccessway(Direction direction) {
+        return (directionMask & 1 << direction.ordinal()) != 0;
+    }
+
+    /**
+     * @return the group of the cell if it is a {@link Room}, or -1 otherwise
+     */
+    int getGroup() {
+        return group;
+    }
+
+    /**
+     * @return the number of items and enemies in the cell
+     */
+    int getContentCount() {
+        return contentCount;
+    }
+
+    /**
+     * @param index the position of an item or enemy in drawing order
+     * @return the mapping of the item or enemy, or null if it has none
+     */
+    ResourceMapping getContent(int index) {
+        return contents[index];
+    }
+
+    /**
+     * @return true if the player is in the cell
+     */
+    boolean hasPlayer() {
+        return hasPlayer;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TileKey)) {
+            return false;
+        }
+        TileKey other = (TileKey) o;
+        if (hash != other.hash || room != other.room || directionMask != other.directionMask || group != other.group
+                || hasPlayer != other.hasPlayer || contentCount != other.contentCount) {
+            return false;
+        }
+        for (int i = 0; i < contentCount; i++) {
+            if (contents[i] != other.contents[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,292 @@
+package za.ac.mandela.WRPV301.Capstone.UI;
+
+import za.ac.mandela.WRPV301.Capstone.Map.Location.Direction;
+import za.ac.mandela.WRPV301.Capstone.Util.ResourceMapping;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Rasterizes the tiles of cells into premultiplied ARGB pixels, without touching JavaFX, so that tiles can be rendered
+ * on a worker thread while the JavaFX Application Thread only uploads the finished pixels. A tile is rendered from its
+ * {@link TileKey} alone, which is a snapshot of everything that decides how the cell looks, so the world may change
+ * while the tile is being rendered. An instance is not thread-safe, and should be used by one worker thread
+ */
+class TileRasterizer {
+    /**
+     * The pixel drawn wherever nothing else is
+     */
+    private static final int BACKGROUND = 0xFF000000;
+    /**
+     * Every {@link Direction}, kept so that {@link Direction#values()} need not copy them for every tile
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The pixel width of a tile
+     */
+    private final int nodeSize;
+    /**
+     * The pixel width of accessways, passages and sprites
+     */
+    private final int edgeSize;
+    /**
+     * The pixel accessways and passages are drawn with
+     */
+    private final int edgeColour;
+    /**
+     * The premultiplied ARGB pixels of the sprite of every {@link ResourceMapping}, by ordinal, each {@link #edgeSize}
+     * pixels square
+     */
+    private final int[][] sprites;
+    /**
+     * The layout of the items in a room, by number of items; each is the X and Y offset of every item in turn, within
+     * the tile. Grown as rooms with more items are rendered
+     */
+    private final ArrayList<int[]> itemLayouts = new ArrayList<>();
+
+    /**
+     * A rendered tile, with the key it was rendered from
+     */
+    static class Raster {
+        /**
+         * The key the tile was rendered from
+         */
+        private final TileKey key;
+        /**
+         * The premultiplied ARGB pixels of the tile, row by row
+         */
+        private final IntBuffer pixels;
+
+        /**
+         * Constructor
+         * @param key the key the tile was rendered from
+         * @param pixels the premultiplied ARGB pixels of the tile, row by row
+         */
+        private Raster(TileKey key, IntBuffer pixels) {
+            this.key = key;
+            this.pixels = pixels;
+        }
+
+        /**
+         * @return the key the tile was rendered from
+         */
+        TileKey getKey() {
+            return key;
+        }
+
+        /**
+         * @return the premultiplied ARGB pixels of the tile, row by row
+         */
+        IntBuffer getPixels() {
+            return pixels;
+        }
+    }
+
+    /**
+     * Constructor
+     * @param nodeSize the pixel width of a tile
+     * @param edgeSize the pixel width of accessways, passages and sprites
+     * @param edgeColour the opaque ARGB pixel accessways and passages are drawn with
+     * @param sprites the premultiplied ARGB pixels of the sprite of every {@link ResourceMapping}, by ordinal, each
+     *                edgeSize pixels square; not changed afterwards
+     */
+    TileRasterizer(int nodeSize, int edgeSize, int edgeColour, int[][] sprites) {
+        this.nodeSize = nodeSize;
+        this.edgeSize = edgeSize;
+        this.edgeColour = edgeColour;
+        this.sprites = sprites;
+    }
+
+    /**
+     * Renders the tile of a cell onto a black background
+     * @param key the description of the cell; must not be changed afterwards
+     * @param groupColour the opaque ARGB pixel of the group of the cell, if it is a room
+     * @return the rendered tile
+     */
+    Raster rasterize(TileKey key, int groupColour) {
+        int[] pixels = new int[nodeSize * nodeSize];
+        Arrays.fill(pixels, BACKGROUND);
+        if (key.isRoom()) {
+            drawRoom(pixels, key, groupColour);
+        } else {
+            drawPassage(pixels, key);
+        }
+        drawAccessways(pixels, key);
+        return new Raster(key, IntBuffer.wrap(pixels));
+    }
+
+    /**
+     * @return the pixel width of a tile
+     */
+    int getNodeSize() {
+        return nodeSize;
+    }
+
+    /**
+     * Draws a {@link za.ac.mandela.WRPV301.Capstone.Map.Location.Passage} onto its tile
+     * @param pixels the pixels of the tile
+     * @param key the description of the passage
+     */
+    private void drawPassage(int[] pixels, TileKey key) {
+        int centre = (nodeSize - edgeSize) / 2;
+        fill(pixels, centre, centre, edgeSize, edgeSize, edgeColour);
+        for (Direction direction : DIRECTIONS) {
+            if (key.hasAccessway(direction)) {
+                int x = centre, y = centre;
+                for (int i = 0; i < nodeSize / edgeSize - 3; i++) {
+                    x = (int) direction.translateX(x, edgeSize);
+                    y = (int) direction.translateY(y, edgeSize);
+                    fill(pixels, x, y, edgeSize, edgeSize, edgeColour);
+                }
+            }
+        }
+        if (key.hasPlayer()) {
+            drawSprite(pixels, ResourceMapping.PLAYER, centre, centre);
+        }
+    }
+
+    /**
+     * Draws a {@link za.ac.mandela.WRPV301.Capstone.Map.Location.Room} onto its tile
+     * @param pixels the pixels of the tile
+     * @param key the description of the room
+     * @param groupColour the opaque ARGB pixel of the group of the room
+     */
+    private void drawRoom(int[] pixels, TileKey key, int groupColour) {
+        fill(pixels, edgeSize, edgeSize, nodeSize - 2 * edgeSize, nodeSize - 2 * edgeSize, groupColour);
+        int[] layout = getItemLayout(key.getContentCount());
+        for (int i = 0; i < key.getContentCount(); i++) {
+            if (Objects.nonNull(key.getContent(i))) {
+                drawSprite(pixels, key.getContent(i), layout[2 * i], layout[2 * i + 1]);
+            }
+        }
+        if (key.hasPlayer()) {
+            drawSprite(pixels, ResourceMapping.PLAYER, edgeSize, edgeSize);
+        }
+    }
+
+    /**
+     * Draws the {@link za.ac.mandela.WRPV301.Capstone.Map.Access.Accessway}s leading out of a cell onto its tile
+     * @param pixels the pixels of the tile
+     * @param key the description of the cell
+     */
+    private void drawAccessways(int[] pixels, TileKey key) {
+        int middle = (nodeSize - edgeSize) / 2;
+        for (Direction direction : DIRECTIONS) {
+            if (key.hasAccessway(direction)) {
+                switch (direction) {
+                    case NORTH:
+                        fill(pixels, middle, 0, edgeSize, edgeSize, edgeColour);
+                        break;
+                    case SOUTH:
+                        fill(pixels, middle, nodeSize - edgeSize, edgeSize, edgeSize, edgeColour);
+                        break;
+                    case WEST:
+                        fill(pixels, 0, middle, edgeSize, edgeSize, edgeColour);
+                        break;
+                    default:
+                        fill(pixels, nodeSize - edgeSize, middle, edgeSize, edgeSize, edgeColour);
+                        break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Fills a rectangle of a tile with an opaque pixel
+     * @param pixels the pixels of the tile
+     * @param x the X coordinate of the left edge of the rectangle
+     * @param y the Y coordinate of the top edge of the rectangle
+     * @param width the width of the rectangle
+     * @param height the height of the rectangle
+     * @param pixel the opaque ARGB pixel to fill with
+     */
+    private void fill(int[] pixels, int x, int y, int width, int height, int pixel) {
+        for (int row = Math.max(0, y); row < Math.min(nodeSize, y + height); row++) {
+            Arrays.fill(pixels, row * nodeSize + Math.max(0, x), row * nodeSize + Math.min(nodeSize, x + width), pixel);
+        }
+    }
+
+    /**
+     * Draws the sprite of a {@link ResourceMapping} over a tile, blending it with what is already there
+     * @param pixels the pixels of the tile
+     * @param resourceMapping the mapping to draw the sprite of
+     * @param x the X coordinate of the left edge of the sprite
+     * @param y the Y coordinate of the top edge of the sprite
+     */
+    private void drawSprite(int[] pixels, ResourceMapping resourceMapping, int x, int y) {
+        int[] sprite = sprites[resourceMapping.ordinal()];
+        for (int row = Math.max(0, -y); row < edgeSize && y + row < nodeSize; row++) {
+            for (int column = Math.max(0, -x); column < edgeSize && x + column < nodeSize; column++) {
+                int source = sprite[row * edgeSize + column];
+                int alpha = source >>> 24;
+                int index = (y + row) * nodeSize + x + column;
+                if (alpha == 0xFF) {
+                    pixels[index] = source;
+                } else if (alpha != 0) {
+                    pixels[index] = blend(source, pixels[index], 0xFF - alpha);
+                }
+            }
+        }
+    }
+
+    /**
+     * Blends a premultiplied ARGB pixel over another
+     * @param source the premultiplied ARGB pixel drawn on top
+     * @param destination the premultiplied ARGB pixel underneath
+     * @param inverseAlpha 255 less the alpha of the source pixel
+     * @return the blended premultiplied ARGB pixel
+     */
+    private static int blend(int source, int destination, int inverseAlpha) {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            int channel = (source >>> shift & 0xFF) + ((destination >>> shift & 0xFF) * inverseAlpha + 127) / 255;
+            result |= Math.min(0xFF, channel) << shift;
+        }
+        return result;
+    }
+
+    /**
+     * Gets the layout that centres a grid of items within a tile, computing it if no room with as many items has been
+     * rendered before
+     * @param numItems the number of items the grid will contain
+     * @return the X and Y offset of every item in turn, within the tile
+     */
+    private int[] getItemLayout(int numItems) {
+        while (itemLayouts.size() <= numItems) {
+            itemLayouts.add(createGridLayout(itemLayouts.size()));
+        }
+        return itemLayouts.get(numItems);
+    }
+
+    /**
+     * Creates the layout needed to center a grid containing the specified number of items within a tile
+     * @param numItems the number of items the grid will contain
+     * @return the X and Y offset of every item in turn, within the tile, rounded to whole pixels; the grid may have more
+     * places than items
+     */
+    private int[] createGridLayout(int numItems) {
+        int rows = 0, columns = 0;
+        boolean selector = true;
+        while (rows * columns < numItems) {
+            if (selector) {
+                columns++;
+            } else {
+                rows++;
+            }
+            selector = !selector;
+        }
+        int startX = (int) Math.round((nodeSize - edgeSize * columns) / 2.0);
+        int startY = (int) Math.round((nodeSize - edgeSize * rows) / 2.0);
+        int[] layout = new int[2 * rows * columns];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                layout[2 * (i * columns + j)] = startX + j * edgeSize;
+                layout[2 * (i * columns + j) + 1] = startY + i * edgeSize;
+            }
+        }
+        return layout;
+    }
+}
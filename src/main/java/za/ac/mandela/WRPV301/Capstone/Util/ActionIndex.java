@@ -0,0 +1,429 @@
+package za.ac.mandela.WRPV301.Capstone.Util;
+
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.MultimapBuilder;
+import za.ac.mandela.WRPV301.Capstone.Action.Action;
+import za.ac.mandela.WRPV301.Capstone.Action.Actionable;
+import za.ac.mandela.WRPV301.Capstone.Action.Describable;
+import za.ac.mandela.WRPV301.Capstone.Combat.Combatant;
+import za.ac.mandela.WRPV301.Capstone.Combat.Enemy;
+import za.ac.mandela.WRPV301.Capstone.Combat.Fight;
+import za.ac.mandela.WRPV301.Capstone.Game;
+import za.ac.mandela.WRPV301.Capstone.Map.Access.Accessway;
+import za.ac.mandela.WRPV301.Capstone.Map.Location.Direction;
+import za.ac.mandela.WRPV301.Capstone.Map.Location.MapLocation;
+import za.ac.mandela.WRPV301.Capstone.Map.Location.Room;
+import za.ac.mandela.WRPV301.Capstone.Map.MapData;
+import za.ac.mandela.WRPV301.Capstone.Player;
+
+import java.util.*;
+
+/**
+ * An inverted index from the aliases of the {@link Action}s in the player's scope, by {@link PhraseIndex} id, to those
+ * actions and their subjects, found by the words typed rather than by evaluating every action in scope. The scope is
+ * split into groups: outside of a fight, the player's location and its surroundings, the contents of the location,
+ * the inventory and the player's own health potion; during a fight, the enemies, while it is the player's turn, and
+ * the health potion. A group is only updated when something enters or leaves it, which is checked without walking it:
+ * by identity for the location and its surroundings, by {@link Room#getContents()} (replaced whenever the Room
+ * changes) for the contents, by {@link Player#getInventoryChanges()} for the inventory, and by the combatants and turn
+ * for the fight. Subjects are also indexed by description, and re-indexed only when
+ * {@link Describable#getDescriptionChanges()} says a description has changed. Not thread-safe; the parser runs on the
+ * JavaFX Application Thread
+ */
+class ActionIndex {
+    /**
+     * The phrases aliases and subject descriptions are compiled into
+     */
+    private final PhraseIndex phrases;
+    /**
+     * The player's location, its connected neighbours and the accessways to them
+     */
+    private final Group surroundings = new Group();
+    /**
+     * The contents of the player's location, if it is a {@link Room}
+     */
+    private final Group contents = new Group();
+    /**
+     * The player's inventory
+     */
+    private final Group inventory = new Group();
+    /**
+     * The enemies in the player's current fight, while it is the player's turn
+     */
+    private final Group fight = new Group();
+    /**
+     * The player's own health potion
+     */
+    private final Group potion = new Group();
+    /**
+     * The groups in the player's scope during a fight
+     */
+    private final Group[] fightScope = {fight, potion};
+    /**
+     * The groups in the player's scope outside of a fight
+     */
+    private final Group[] explorationScope = {surroundings, contents, inventory, potion};
+    /**
+     * The groups currently in the player's scope
+     */
+    private Group[] scope = new Group[0];
+
+    /**
+     * The player the groups were filled for
+     */
+    private Player player;
+    /**
+     * The location {@link #surroundings} was filled for
+     */
+    private MapLocation indexedLocation;
+    /**
+     * The neighbour and accessway in each {@link Direction} {@link #surroundings} was filled for, in pairs
+     */
+    private final Actionable[] indexedSurroundings = new Actionable[Direction.values().length * 2];
+    /**
+     * The contents {@link #contents} was filled with
+     */
+    private Describable[] indexedContents;
+    /**
+     * The contents of a location that is not a {@link Room}
+     */
+    private static final Describable[] NO_CONTENTS = new Describable[0];
+    /**
+     * The inventory change count {@link #inventory} was filled at
+     */
+    private int indexedInventoryChanges;
+    /**
+     * The fight {@link #fight} was filled for
+     */
+    private Fight indexedFight;
+    /**
+     * The number of combatants in {@link #indexedFight} when {@link #fight} was filled
+     */
+    private int indexedCombatants;
+    /**
+     * Whether it was the player's turn in {@link #indexedFight} when {@link #fight} was filled
+     */
+    private boolean indexedPlayersTurn;
+    /**
+     * The description change count the subjects of every group were indexed at
+     */
+    private int indexedDescriptionChanges = Describable.getDescriptionChanges();
+
+    /**
+     * Constructor
+     * @param phrases the phrases aliases and subject descriptions are compiled into
+     */
+    ActionIndex(PhraseIndex phrases) {
+        this.phrases = phrases;
+    }
+
+    /**
+     * Brings the index up to date with the player's scope, updating only the groups that have changed
+     * @param player the player
+     */
+    void update(Player player) {
+        if (player != this.player) {
+            this.player = player;
+            for (Group group : new Group[]{surroundings, contents, inventory, fight, potion}) {
+                group.clear();
+            }
+            indexedLocation = null;
+            Arrays.fill(indexedSurroundings, null);
+            indexedContents = null;
+            indexedInventoryChanges = player.getInventoryChanges() - 1;
+            indexedFight = null;
+            potion.add(player.getHealthPotion());
+        }
+        Fight currentFight = player.getCurrentFight();
+        if (Objects.nonNull(currentFight)) {
+            updateFight(currentFight);
+            scope = fightScope;
+        } else {
+            updateSurroundings(player.getCurrentLocation());
+            MapLocation location = player.getCurrentLocation();
+            Describable[] locationContents = location instanceof Room ? ((Room) location).getContents() : NO_CONTENTS;
+            if (locationContents != indexedContents) {
+                indexedContents = locationContents;
+                contents.replace(Arrays.asList(locationContents));
+            }
+            if (player.getInventoryChanges() != indexedInventoryChanges) {
+                indexedInventoryChanges = player.getInventoryChanges();
+                inventory.replace(player.getInventory());
+            }
+            scope = explorationScope;
+        }
+        if (Describable.getDescriptionChanges() != indexedDescriptionChanges) {
+            indexedDescriptionChanges = Describable.getDescriptionChanges();
+            for (Group group : new Group[]{surroundings, contents, inventory, fight, potion}) {
+                group.reindexSubjects();
+            }
+        }
+    }
+
+    /**
+     * Gathers the available actions in scope that have an alias in the user input; only the activators of actions
+     * with such an alias are evaluated. An action is listed once for every group its subject is in
+     * @param userInput tokenized user input
+     * @return a {@link ListMultimap} of the matching available actions, keyed by their subjects
+     */
+    ListMultimap<Actionable, Action> candidates(PhraseIndex.Input userInput) {
+        ListMultimap<Actionable, Action> actionMap = MultimapBuilder
+                .linkedHashKeys()
+                .arrayListValues()
+                .build();
+        BitSet found = userInput.found();
+        for (Group group : scope) {
+            Set<Candidate> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (int id = found.nextSetBit(0); id >= 0; id = found.nextSetBit(id + 1)) {
+                for (Candidate candidate : group.byAlias.getOrDefault(id, Collections.emptySet())) {
+                    if (seen.add(candidate) && candidate.action.isActive()) {
+                        actionMap.put(candidate.subject, candidate.action);
+                    }
+                }
+            }
+        }
+        return actionMap;
+    }
+
+    /**
+     * Tests if the user input names the subject of any available action in scope; only the activators of subjects
+     * named in the input are evaluated
+     * @param userInput tokenized user input
+     * @return true if the single word description of a subject with an available action is in the user input
+     */
+    boolean mentionsSubject(PhraseIndex.Input userInput) {
+        BitSet found = userInput.found();
+        for (Group group : scope) {
+            for (int id = found.nextSetBit(0); id >= 0; id = found.nextSetBit(id + 1)) {
+                for (Actionable subject : group.bySubject.getOrDefault(id, Collections.emptySet())) {
+                    for (Action action : subject.getActions()) {
+                        if (action.isActive()) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Refills {@link #surroundings} if the location, or any of its neighbours or accessways, has changed
+     * @param location the player's location
+     */
+    private void updateSurroundings(MapLocation location) {
+        MapData mapData = Game.getMapData();
+        boolean changed = location != indexedLocation;
+        for (Direction direction : Direction.values()) {
+            Accessway accessway = mapData.getAccessway(location, direction);
+            MapLocation neighbour = Objects.nonNull(accessway) ? mapData.getNeighbour(location, direction) : null;
+            int index = direction.ordinal() * 2;
+            changed |= indexedSurroundings[index] != neighbour || indexedSurroundings[index + 1] != accessway;
+            indexedSurroundings[index] = neighbour;
+            indexedSurroundings[index + 1] = accessway;
+        }
+        if (changed) {
+            indexedLocation = location;
+            surroundings.clear();
+            surroundings.add(location);
+            for (Actionable actionable : indexedSurroundings) {
+                if (Objects.nonNull(actionable)) {
+                    surroundings.add(actionable);
+                }
+            }
+        }
+    }
+
+    /**
+     * Refills {@link #fight} if the fight, its combatants or the turn has changed
+     * @param currentFight the player's current fight
+     */
+    private void updateFight(Fight currentFight) {
+        boolean playersTurn = currentFight.getCurrentCombatant().equals(player);
+        if (currentFight != indexedFight || currentFight.getCombatants().size() != indexedCombatants
+                || playersTurn != indexedPlayersTurn) {
+            indexedFight = currentFight;
+            indexedCombatants = currentFight.getCombatants().size();
+            indexedPlayersTurn = playersTurn;
+            fight.clear();
+            if (playersTurn) {
+                for (Combatant combatant : currentFight.getCombatants()) {
+                    if (combatant instanceof Enemy) {
+                        fight.add((Enemy) combatant);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * An {@link Action} of a subject in one group
+     */
+    private static class Candidate {
+        /**
+         * The subject of the action
+         */
+        private final Actionable subject;
+        /**
+         * The action
+         */
+        private final Action action;
+
+        /**
+         * Constructor
+         * @param subject the subject of the action
+         * @param action the action
+         */
+        private Candidate(Actionable subject, Action action) {
+            this.subject = subject;
+            this.action = action;
+        }
+    }
+
+    /**
+     * A group of subjects in the player's scope, with their actions indexed by alias and the subjects themselves
+     * indexed by description
+     */
+    private class Group {
+        /**
+         * The candidates of each subject in the group
+         */
+        private final IdentityHashMap<Actionable, Candidate[]> members = new IdentityHashMap<>();
+        /**
+         * The candidates with each alias, by phrase id
+         */
+        private final HashMap<Integer, Set<Candidate>> byAlias = new HashMap<>();
+        /**
+         * The {@link Describable} subjects with each single word description, by phrase id
+         */
+        private final HashMap<Integer, Set<Actionable>> bySubject = new HashMap<>();
+        /**
+         * The phrase id each subject is indexed by in {@link #bySubject}
+         */
+        private final IdentityHashMap<Actionable, Integer> subjectIds = new IdentityHashMap<>();
+
+        /**
+         * Adds a subject and its actions to the group, unless it is already in it
+         * @param subject the subject to add
+         */
+        private void add(Actionable subject) {
+            if (members.containsKey(subject)) {
+                return;
+            }
+            List<Action> actions = subject.getActions();
+            Candidate[] candidates = new Candidate[actions.size()];
+            for (int i = 0; i < candidates.length; i++) {
+                candidates[i] = new Candidate(subject, actions.get(i));
+                for (int id : phrases.idsOf(candidates[i].action.getAliases())) {
+                    if (id >= 0) {
+                        byAlias.computeIfAbsent(id, key -> new LinkedHashSet<>()).add(candidates[i]);
+                    }
+                }
+            }
+            members.put(subject, candidates);
+            indexSubject(subject);
+        }
+
+        /**
+         * Removes a subject and its actions from the group
+         * @param subject the subject to remove
+         */
+        private void remove(Actionable subject) {
+            Candidate[] candidates = members.remove(subject);
+            if (Objects.isNull(candidates)) {
+                return;
+            }
+            for (Candidate candidate : candidates) {
+                for (int id : phrases.idsOf(candidate.action.getAliases())) {
+                    Set<Candidate> withAlias = byAlias.get(id);
+                    if (Objects.nonNull(withAlias)) {
+                        withAlias.remove(candidate);
+                        if (withAlias.isEmpty()) {
+                            byAlias.remove(id);
+                        }
+                    }
+                }
+            }
+            unindexSubject(subject);
+        }
+
+        /**
+         * Indexes every subject in the group by its current description again, moving only those whose description has
+         * changed
+         */
+        private void reindexSubjects() {
+            for (Actionable subject : members.keySet()) {
+                Integer indexed = subjectIds.get(subject);
+                if ((Objects.isNull(indexed) ? -1 : indexed) != subjectId(subject)) {
+                    unindexSubject(subject);
+                    indexSubject(subject);
+                }
+            }
+        }
+
+        /**
+         * Indexes a subject by its current single word description, if it has one
+         * @param subject the subject to index
+         */
+        private void indexSubject(Actionable subject) {
+            int subjectId = subjectId(subject);
+            if (subjectId >= 0) {
+                bySubject.computeIfAbsent(subjectId, key -> new LinkedHashSet<>()).add(subject);
+                subjectIds.put(subject, subjectId);
+            }
+        }
+
+        /**
+         * Removes a subject from the description index, if it is in it
+         * @param subject the subject to remove
+         */
+        private void unindexSubject(Actionable subject) {
+            Integer subjectId = subjectIds.remove(subject);
+            if (Objects.nonNull(subjectId)) {
+                Set<Actionable> withDescription = bySubject.get(subjectId);
+                withDescription.remove(subject);
+                if (withDescription.isEmpty()) {
+                    bySubject.remove(subjectId);
+                }
+            }
+        }
+
+        /**
+         * Makes the group hold exactly the given subjects, removing and adding only those that differ
+         * @param subjects the subjects the group should hold
+         */
+        private void replace(Collection<? extends Actionable> subjects) {
+            Set<Actionable> wanted = Collections.newSetFromMap(new IdentityHashMap<>());
+            wanted.addAll(subjects);
+            for (Actionable member : new ArrayList<>(members.keySet())) {
+                if (!wanted.contains(member)) {
+                    remove(member);
+                }
+            }
+            for (Actionable subject : subjects) {
+                add(subject);
+            }
+        }
+
+        /**
+         * Empties the group
+         */
+        private void clear() {
+            members.clear();
+            byAlias.clear();
+            bySubject.clear();
+            subjectIds.clear();
+        }
+
+        /**
+         * @param subject a subject
+         * @return the phrase id of the single word description of the subject, or -1 if it has none
+         */
+        private int subjectId(Actionable subject) {
+            if (subject instanceof Describable) {
+                return phrases.idOf(((Describable) subject).getSingleWordDescription());
+            }
+            return -1;
+        }
+    }
+}
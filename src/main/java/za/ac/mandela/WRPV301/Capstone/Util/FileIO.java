@@ -7,6 +7,9 @@ import org.xml.sax.SAXException;
 import za.ac.mandela.WRPV301.Capstone.Game;
 import za.ac.mandela.WRPV301.Capstone.Map.Location.MapLocation;
 import za.ac.mandela.WRPV301.Capstone.Map.MapData;
+import za.ac.mandela.WRPV301.Capstone.Map.MapDataBuilder;
+import za.ac.mandela.WRPV301.Capstone.Map.MapDelta;
+import za.ac.mandela.WRPV301.Capstone.Map.MazeAlgorithm;
 import za.ac.mandela.WRPV301.Capstone.Player;
 
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -27,6 +30,8 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Utility class to handle file IO for XML save data
@@ -64,7 +69,10 @@ public class FileIO {
     }
 
     /**
-     * Serialises the current game state and flushes it to a file
+     * Serialises the current game state and flushes it to a file. Maps that know their seed are saved as the seed,
+     * grid size and generation options, plus a {@link MapDelta} of the changes made since generation; other maps are
+     * saved whole. A progressively generated map that is not yet complete is completed first; a chunked map is saved
+     * with the changes of its chunks spilled to disk, but its other chunks are never generated
      * @param filePath the URI of the file to save to
      * @return an {@link XMLResult} containing the result of this operation
      */
@@ -80,18 +88,38 @@ public class FileIO {
             document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
             root = document.createElement("savefile");
             document.appendChild(root);
-            //map
-            Element mapElement = document.createElement("map");
-            String mapDataString = serializeObject(Game.getMapData().toSerializable());
-            mapElement.setTextContent(mapDataString);
-            mapElement.setAttribute("md5hash", hashSerializedObject(mapDataString));
-            root.appendChild(mapElement);
-            //player
-            Element playerElement = document.createElement("player");
-            String playerString = serializeObject(Game.getPlayer());
-            playerElement.setTextContent(playerString);
-            playerElement.setAttribute("md5hash", hashSerializedObject(playerString));
-            root.appendChild(playerElement);
+            MapData mapData = Game.getMapData();
+            mapData.complete();
+            if (mapData.isReproducible()) {
+                //world: seed and options, plus map changes and player, in one stream so that shared references survive
+                Element worldElement = document.createElement("world");
+                worldElement.setAttribute("seed", Long.toString(mapData.getSeed()));
+                worldElement.setAttribute("size", Integer.toString(mapData.getGridSideSize()));
+                worldElement.setAttribute("algorithm", mapData.getAlgorithm().name());
+                if (mapData.isProgressive()) {
+                    worldElement.setAttribute("progressive", Boolean.toString(true));
+                }
+                if (mapData.isChunked()) {
+                    worldElement.setAttribute("chunked", Boolean.toString(true));
+                }
+                String worldString = serializeWorld(mapData, Game.getPlayer());
+                worldElement.setTextContent(worldString);
+                worldElement.setAttribute("md5hash", hashSerializedObject(worldSpecification(worldElement) + worldString));
+                root.appendChild(worldElement);
+            } else {
+                //map
+                Element mapElement = document.createElement("map");
+                String mapDataString = serializeObject(mapData.toSerializable());
+                mapElement.setTextContent(mapDataString);
+                mapElement.setAttribute("md5hash", hashSerializedObject(mapDataString));
+                root.appendChild(mapElement);
+                //player
+                Element playerElement = document.createElement("player");
+                String playerString = serializeObject(Game.getPlayer());
+                playerElement.setTextContent(playerString);
+                playerElement.setAttribute("md5hash", hashSerializedObject(playerString));
+                root.appendChild(playerElement);
+            }
             Transformer transformer = TransformerFactory.newInstance().newTransformer();
             transformer.setOutputProperty(OutputKeys.INDENT, "yes");
             transformer.transform(new DOMSource(document), new StreamResult(saveFile));
@@ -99,6 +127,9 @@ public class FileIO {
         } catch (ParserConfigurationException | TransformerException | IOException | NoSuchAlgorithmException e) {
             e.printStackTrace();
             return new XMLResult(false, e);
+        } catch (UncheckedIOException e) {
+            e.printStackTrace();
+            return new XMLResult(false, e.getCause());
         }
     }
 
@@ -115,10 +146,15 @@ public class FileIO {
         if (saveFile.exists()) {
             if (saveFile.canRead()) {
                 try {
-                    //map
                     Document saveXMLDocument = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(saveFile);
                     saveXMLDocument.normalizeDocument();
                     XPath xPath = XPathFactory.newInstance().newXPath();
+                    //world
+                    Node worldNode = (Node) xPath.compile("//world[1]").evaluate(saveXMLDocument, XPathConstants.NODE);
+                    if (Objects.nonNull(worldNode)) {
+                        return loadWorld((Element) worldNode);
+                    }
+                    //map
                     Node mapNode = (Node) xPath.compile("//map[1]").evaluate(saveXMLDocument, XPathConstants.NODE);
                     String mapDataHash = mapNode.getAttributes().getNamedItem("md5hash").getNodeValue();
                     String mapDataString = mapNode.getTextContent();
@@ -153,6 +189,80 @@ public class FileIO {
         }
     }
 
+    /**
+     * Restores a game state saved as a seed plus changes, by regenerating the map and applying the saved changes to it
+     * @param worldElement the element containing the seed, grid size, generation options and serialised changes
+     * @return an {@link XMLResult} containing the result of this operation
+     * @throws IOException if the saved changes cannot be read
+     * @throws NoSuchAlgorithmException if the current system does not have the MD5 algorithm installed
+     */
+    private static XMLResult loadWorld(Element worldElement) throws IOException, NoSuchAlgorithmException {
+        String worldString = worldElement.getTextContent();
+        if (isHashIncorrect(worldElement.getAttribute("md5hash"), worldSpecification(worldElement) + worldString)) {
+            return new XMLResult(false, new IOException("File is corrupt"));
+        }
+        MapData mapData;
+        try {
+            mapData = MapDataBuilder.newInstance()
+                    .setSeed(Long.parseLong(worldElement.getAttribute("seed")))
+                    .setGridSideSize(Integer.parseInt(worldElement.getAttribute("size")))
+                    .setAlgorithm(MazeAlgorithm.valueOf(worldElement.getAttribute("algorithm")))
+                    .setProgressive(Boolean.parseBoolean(worldElement.getAttribute("progressive")))
+                    .setChunked(Boolean.parseBoolean(worldElement.getAttribute("chunked")))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return new XMLResult(false, new IOException("File is corrupt", e));
+        }
+        Player player;
+        try (MapDelta.Reader reader = new MapDelta.Reader(new GZIPInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(worldString.getBytes()))), mapData)) {
+            MapDelta delta = (MapDelta) reader.readObject();
+            player = (Player) reader.readObject();
+            delta.applyTo(mapData);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            return new XMLResult(false, new IOException("File is corrupt", e));
+        } catch (UncheckedIOException e) {
+            return new XMLResult(false, e.getCause());
+        }
+        Game.setMapData(mapData);
+        Game.setPlayer(player);
+        MapLocation location = player.getCurrentLocation();
+        player.setCurrentLocation(mapData.get(location.getRow(), location.getColumn()));
+        return new XMLResult(true, null);
+    }
+
+    /**
+     * Gets the generation attributes of a saved world element, for inclusion in its integrity hash
+     * @param worldElement the saved world element
+     * @return the seed, grid size and generation options of the saved world, as a single string
+     */
+    private static String worldSpecification(Element worldElement) {
+        String specification = String.format("%s;%s;%s;", worldElement.getAttribute("seed"), worldElement.getAttribute("size"), worldElement.getAttribute("algorithm"));
+        if (worldElement.hasAttribute("progressive")) {
+            specification += worldElement.getAttribute("progressive") + ";";
+        }
+        if (worldElement.hasAttribute("chunked")) {
+            specification += "chunked=" + worldElement.getAttribute("chunked") + ";";
+        }
+        return specification;
+    }
+
+    /**
+     * Serialises the changes made to a map since generation, together with the player, to a base64 encoded string
+     * containing a compressed serialisation bytestream
+     * @param mapData the map to serialise the changes of
+     * @param player the player to serialise
+     * @return a base64 encoded string containing the compressed serialisation bytestream
+     * @throws IOException if an error occurs while writing the bytestream
+     */
+    private static String serializeWorld(MapData mapData, Player player) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (MapDelta.Writer writer = new MapDelta.Writer(new GZIPOutputStream(outputStream), mapData)) {
+            writer.writeObject(MapDelta.of(mapData));
+            writer.writeObject(player);
+        }
+        return Base64.getEncoder().encodeToString(outputStream.toByteArray());
+    }
+
     /**
      * Converts an object to a base64 encoded string containing the object's serialisation bytestream
      * @param object the object to serialise
@@ -1,6 +1,5 @@
 package za.ac.mandela.WRPV301.Capstone.Util;
 
-import com.google.common.base.Strings;
 import com.google.common.collect.*;
 import za.ac.mandela.WRPV301.Capstone.Action.Action;
 import za.ac.mandela.WRPV301.Capstone.Action.Actionable;
@@ -8,27 +7,33 @@ import za.ac.mandela.WRPV301.Capstone.Action.Describable;
 import za.ac.mandela.WRPV301.Capstone.Event.ConsoleEvent;
 import za.ac.mandela.WRPV301.Capstone.Game;
 
-import java.util.Arrays;
-import java.util.HashSet;
+import java.util.BitSet;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Utility class that parses, disambiguates and executes player command inputs
  */
 public class InputParser {
     /**
-     * A set of common prepositions. These words make sense to humans, but just clutter input strings for the parser.
+     * A set of common prepositions, as {@link WordDictionary} ids. These words make sense to humans, but just clutter
+     * input strings for the parser.
      */
-    private static final HashSet<String> prepositions = new HashSet<>(Arrays.asList("above", "across", "against", "along", "among",
-            "around", "at", "before", "behind", "below", "beneath", "beside", "between", "by", "down", "from", "in",
-            "into", "near", "of", "off", "on", "to", "toward", "under", "upon", "with", "within"));
+    private static final BitSet prepositions = WordDictionary.idsOf(ImmutableSet.of("ABOVE", "ACROSS", "AGAINST", "ALONG", "AMONG",
+            "AROUND", "AT", "BEFORE", "BEHIND", "BELOW", "BENEATH", "BESIDE", "BETWEEN", "BY", "DOWN", "FROM", "IN",
+            "INTO", "NEAR", "OF", "OFF", "ON", "TO", "TOWARD", "UNDER", "UPON", "WITH", "WITHIN"));
     /**
-     * Words that refer to objects, i.e. articles and demonstrative pronouns. These words make sense to humans, but just
-     * clutter input strings for the parser.
+     * Words that refer to objects, i.e. articles and demonstrative pronouns, as {@link WordDictionary} ids. These words
+     * make sense to humans, but just clutter input strings for the parser.
      */
-    private static final HashSet<String> subjectReferences = new HashSet<>(Arrays.asList("a", "an", "the", "this", "these", "those", "that"));
+    private static final BitSet subjectReferences = WordDictionary.idsOf(ImmutableSet.of("A", "AN", "THE", "THIS", "THESE", "THOSE", "THAT"));
+    /**
+     * The action aliases and subject descriptions looked for in user input, each compiled once
+     */
+    private static final PhraseIndex phrases = new PhraseIndex();
+    /**
+     * The actions in the player's scope, indexed by alias
+     */
+    private static final ActionIndex actions = new ActionIndex(phrases);
 
     /**
      * Static method that accepts user input and tries to resolve it to a single action. If resolution is successful,
@@ -36,9 +41,10 @@ public class InputParser {
      * @param userInput user input string
      */
     public static void parseAndExecute(String userInput) {
-        ListMultimap<Actionable, Action> actionMap = Game.getPlayer().getAvailablePlayerActions();
-        String input = userInput.toUpperCase().replaceAll("[^A-Z\\s]", "");
-        disambiguate(actionMap, input);
+        actions.update(Game.getPlayer());
+        PhraseIndex.Input input = phrases.tokenize(userInput);
+        ListMultimap<Actionable, Action> actionMap = actions.candidates(input);
+        disambiguate(actionMap, input, actions.mentionsSubject(input));
         switch (actionMap.size()) {
             case 0:
                 ConsoleEvent.output("I'm afraid you can't do that.");
@@ -60,72 +66,45 @@ public class InputParser {
     }
 
     /**
-     * Filters out possible actions by subject and action: if the user specifies a subject, actions not pertaining to it
-     * are removed; actions which do not have an alias present in the user input are also removed.
+     * Filters out possible actions by subject: if the user specifies a subject, actions not pertaining to it are
+     * removed. Actions which do not have an alias present in the user input are never gathered in the first place; see
+     * {@link ActionIndex#candidates(PhraseIndex.Input)}
      * @param actionMap a {@link Multimap} keyed by actionable subjects and populated with available actions
-     * @param userInput processed user input string
+     * @param userInput tokenized user input
+     * @param containsSubject true if the user input names the subject of any available action
      */
-    private static void validateActions(ListMultimap<Actionable, Action> actionMap, String userInput) {
-        boolean containsSubject = false;
-        for (Actionable actionable : actionMap.keySet()) {
-            if (actionable instanceof Describable && userInput.matches(String.format("(s?).*(\\b%s)(\\b|\\W).*", ((Describable) actionable).getSingleWordDescription().toUpperCase()))) {
-                containsSubject = true;
-                break;
-            }
-        }
+    private static void validateActions(ListMultimap<Actionable, Action> actionMap, PhraseIndex.Input userInput, boolean containsSubject) {
         if (containsSubject) {
-            actionMap.entries().removeIf(entry -> !subjectActionIsValid(entry, userInput));
-        } else {
-            actionMap.entries().removeIf(entry -> !actionIsValid(entry, userInput));
+            actionMap.entries().removeIf(entry -> !subjectIsValid(entry, userInput));
         }
     }
 
     /**
-     * Predicate function that tests actions by subject and alias
+     * Predicate function that tests actions by subject
      * @param entry {@link Multimap} {@link Map.Entry} keyed by actionable subject, valued by an {@link Action}
-     * @param userInput processed user input string
-     * @return true if the current entry matches the subject and action alias in the user input string; false otherwise
+     * @param userInput tokenized user input
+     * @return true if the current entry matches the subject in the user input string; false otherwise
      */
-    private static boolean subjectActionIsValid(Map.Entry<Actionable, Action> entry, String userInput) {
-        if (entry.getKey() instanceof Describable) {
-            if (!userInput.matches(String.format("(s?).*(\\b%s)(\\b|\\W).*", ((Describable) entry.getKey()).getSingleWordDescription().toUpperCase()))) {
-                return false;
-            }
-        }
-        return actionIsValid(entry, userInput);
-    }
-
-    /**
-     * Predicate function that tests actions by alias
-     * @param entry {@link Multimap} {@link Map.Entry} keyed by actionable subject, valued by an {@link Action}
-     * @param userInput processed user input string
-     * @return true if the current entry value matches the action alias in the user input string; false otherwise
-     */
-    private static boolean actionIsValid(Map.Entry<Actionable, Action> entry, String userInput) {
-        for (String alias : entry.getValue().getAliases()) {
-            if (userInput.matches(String.format("(s?).*(\\b%s)(\\b|\\W).*", alias.toUpperCase()))) {
-                return true;
-            }
-        }
-        return false;
+    private static boolean subjectIsValid(Map.Entry<Actionable, Action> entry, PhraseIndex.Input userInput) {
+        return !(entry.getKey() instanceof Describable) || userInput.contains(subjectId(entry.getKey()));
     }
 
     /**
      * Reduces the space of possible actions the user input potentially translates to, first by testing for subject and
      * action alias, then, if necessary, by adjectives associated with remaining candidate actionable subjects
      * @param possibleActions a {@link Multimap} keyed by actionable subjects and populated with available actions
-     * @param userInput processed user input string
+     * @param userInput tokenized user input
+     * @param containsSubject true if the user input names the subject of any available action
      */
-    private static void disambiguate(ListMultimap<Actionable, Action> possibleActions, String userInput) {
-        validateActions(possibleActions, userInput);
+    private static void disambiguate(ListMultimap<Actionable, Action> possibleActions, PhraseIndex.Input userInput, boolean containsSubject) {
+        validateActions(possibleActions, userInput, containsSubject);
         if (possibleActions.size() > 1) {
             possibleActions.entries().removeIf(entry -> {
                 Actionable actionable = entry.getKey();
-                Action action = entry.getValue();
-                String[] remaining = stripAndSplit(userInput, action, actionable);
-                    if (actionable instanceof Describable) {
-                        return !hasAdjectives(((Describable) actionable), remaining);
-                    }
+                if (actionable instanceof Describable) {
+                    PhraseIndex.Input remaining = stripAndSplit(userInput, entry.getValue(), actionable);
+                    return !hasAdjectives(((Describable) actionable), remaining);
+                }
                 return true;
             });
         }
@@ -137,44 +116,35 @@ public class InputParser {
      * @param adjectives the (presumed) adjectives extracted from the user input string
      * @return true if all supplied adjectives are contained within the object's adjective set; false otherwise.
      */
-    private static boolean hasAdjectives(Describable describable, String[] adjectives) {
-        if (adjectives.length < 1) {
-            return true;
-        }
-        Set<String> subjectAdjectives = describable.getAdjectives();
-        subjectAdjectives = subjectAdjectives.stream().map(String::toUpperCase).collect(Collectors.toCollection(HashSet::new));
-        return subjectAdjectives.containsAll(Arrays.asList(adjectives));
+    private static boolean hasAdjectives(Describable describable, PhraseIndex.Input adjectives) {
+        return adjectives.allRemainingIn(describable.getAdjectiveIds());
     }
 
     /**
-     * Strips out the subject and all possible action aliases from a user input string, as well as common prepositions,
-     * articles and demonstrative pronouns, then splits the remaining words into an array of presumed adjectives
-     * @param userInput processed user input string
-     * @param action the {@link Action} to use when stripping aliases from the input string
+     * Strips out the subject and the first action alias found from the user input, as well as common prepositions,
+     * articles and demonstrative pronouns, leaving the presumed adjectives
+     * @param userInput tokenized user input
+     * @param action the {@link Action} to use when stripping aliases from the input
      * @param subject the {@link Actionable} object to use when stripping out action subjects
-     * @return an array of presumed adjectives present in the user input
+     * @return a copy of the user input, holding only the presumed adjectives present in it
      */
-    private static String[] stripAndSplit(String userInput, Action action, Actionable subject) {
+    private static PhraseIndex.Input stripAndSplit(PhraseIndex.Input userInput, Action action, Actionable subject) {
+        PhraseIndex.Input stripped = userInput.copy();
         if (subject instanceof Describable) {
-            userInput = userInput.replaceAll(String.format("(\\b%s)(\\b|\\W)",((Describable) subject).getSingleWordDescription().toUpperCase()),"");
-        }
-        for (String alias : action.getAliases()) {
-            if (userInput.matches(String.format("(s?).*(\\b%s)(\\b|\\W).*", alias.toUpperCase()))) {
-                userInput = userInput.replaceAll(String.format("(\\b%s)(\\b|\\W)", alias.toUpperCase()), "");
-                break;
-            }
-        }
-        for (String subjectReference : subjectReferences) {
-            userInput = userInput.replaceAll(String.format("(\\b%s)(\\b|\\W)", subjectReference.toUpperCase()), "");
+            stripped.remove(subjectId(subject));
         }
-        for (String preposition: prepositions) {
-            userInput = userInput.replaceAll(String.format("(\\b%s)(\\b|\\W)", preposition.toUpperCase()), "");
-        }
-        userInput = userInput.trim();
-        if (Strings.isNullOrEmpty(userInput)) {
-            return new String[0];
-        }
-        return userInput.split("\\s+");
+        stripped.remove(stripped.firstOf(phrases.idsOf(action.getAliases())));
+        stripped.removeWords(subjectReferences);
+        stripped.removeWords(prepositions);
+        return stripped;
+    }
+
+    /**
+     * @param subject a {@link Describable} {@link Actionable}
+     * @return the phrase id of the single word description of the subject
+     */
+    private static int subjectId(Actionable subject) {
+        return phrases.idOf(((Describable) subject).getSingleWordDescription());
     }
 
 }
@@ -0,0 +1,164 @@
+package za.ac.mandela.WRPV301.Capstone.Util;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import javafx.application.Platform;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontPosture;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Discovers the monospace fonts installed on the system on a background thread, so that the (slow) discovery stays off
+ * the startup path. The result is cached on disk, keyed by a fingerprint of the installed font families, so that later
+ * runs on an unchanged system skip discovery altogether
+ */
+public class MonoFonts {
+    /**
+     * The file discovered fonts are cached in: the fingerprint on the first line, then one family per line
+     */
+    private static final Path cacheFile = Paths.get(System.getProperty("user.home"), ".capstone", "monospace-fonts.txt");
+    /**
+     * The monospace font families, once discovered
+     */
+    private static final CompletableFuture<ImmutableList<String>> families = new CompletableFuture<>();
+    /**
+     * True once discovery has been started
+     */
+    private static final AtomicBoolean started = new AtomicBoolean(false);
+
+    /**
+     * Private constructor
+     */
+    private MonoFonts() {
+    }
+
+    /**
+     * Starts discovering the monospace fonts in the background, unless already started; the JavaFX toolkit must be
+     * running
+     */
+    public static void discover() {
+        if (started.compareAndSet(false, true)) {
+            Thread thread = new Thread(() -> {
+                try {
+                    families.complete(load());
+                } catch (RuntimeException e) {
+                    families.complete(ImmutableList.of());
+                    e.printStackTrace();
+                }
+            }, "font-discovery");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.start();
+        }
+    }
+
+    /**
+     * Runs an action on the JavaFX Application Thread once discovery has finished, starting discovery if need be
+     * @param action consumes the monospace font families, which may be empty
+     */
+    public static void whenDiscovered(Consumer<ImmutableList<String>> action) {
+        discover();
+        families.thenAcceptAsync(action, Platform::runLater);
+    }
+
+    /**
+     * Reads the monospace font families from the cache, or discovers and caches them if the cache is missing or was
+     * made for another set of installed fonts
+     * @return the monospace font families
+     */
+    private static ImmutableList<String> load() {
+        List<String> installed = Font.getFamilies();
+        String fingerprint = Hashing.sha256().hashString(System.getProperty("javafx.runtime.version", "") + "\n"
+                + String.join("\n", installed), StandardCharsets.UTF_8).toString();
+        ImmutableList<String> cached = readCache(fingerprint);
+        if (Objects.nonNull(cached)) {
+            return cached;
+        }
+        ImmutableList<String> discovered = getMonoFontFamilyNames(installed);
+        writeCache(fingerprint, discovered);
+        return discovered;
+    }
+
+    /**
+     * @param fingerprint the fingerprint of the installed font families
+     * @return the cached monospace font families, or null if there is no cache for the fingerprint
+     */
+    private static ImmutableList<String> readCache(String fingerprint) {
+        try {
+            List<String> lines = Files.readAllLines(cacheFile, StandardCharsets.UTF_8);
+            if (!lines.isEmpty() && lines.get(0).equals(fingerprint)) {
+                return ImmutableList.copyOf(lines.subList(1, lines.size()));
+            }
+        } catch (IOException e) {
+            //no usable cache; discover instead
+        }
+        return null;
+    }
+
+    /**
+     * Caches the monospace font families, replacing the cache file whole so that a concurrent reader never sees half
+     * of it
+     * @param fingerprint the fingerprint of the installed font families
+     * @param monoFamilies the monospace font families
+     */
+    private static void writeCache(String fingerprint, List<String> monoFamilies) {
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            Path temp = Files.createTempFile(cacheFile.getParent(), "monospace-fonts", ".tmp");
+            List<String> lines = new ArrayList<>(monoFamilies.size() + 1);
+            lines.add(fingerprint);
+            lines.addAll(monoFamilies);
+            Files.write(temp, lines, StandardCharsets.UTF_8);
+            Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            //the cache only saves time; discovery runs again next time
+        }
+    }
+
+    /**
+     * Return a list of all the mono-spaced fonts on the system.
+     * <a href="https://yo-dave.com/2015/07/27/finding-mono-spaced-fonts-in-javafx/">https://yo-dave.com/2015/07/27/finding-mono-spaced-fonts-in-javafx/</a>
+     * @author David D. Clark, with modifications
+     *
+     * @param fontFamilyList the font families installed on the system
+     * @return A list of all of the mono-spaced fonts on the system.
+     */
+    private static ImmutableList<String> getMonoFontFamilyNames(List<String> fontFamilyList) {
+
+        // Compare the layout widths of two strings. One string is composed
+        // of "thin" characters, the other of "wide" characters. In mono-spaced
+        // fonts the widths should be the same.
+
+        final Text thinTxt = new Text("1 l"); // note the space
+        final Text thickText = new Text("MWX");
+
+        ArrayList<String> monoFamilyList = new ArrayList<>();
+
+        Font font;
+
+        for (String fontFamilyName : fontFamilyList) {
+            font = Font.font(fontFamilyName, FontWeight.NORMAL, FontPosture.REGULAR, 14.0d);
+            thinTxt.setFont(font);
+            thickText.setFont(font);
+            if (thinTxt.getLayoutBounds().getWidth() == thickText.getLayoutBounds().getWidth()) {
+                monoFamilyList.add(fontFamilyName);
+            }
+        }
+
+        return ImmutableList.copyOf(monoFamilyList);
+    }
+}
@@ -0,0 +1,352 @@
+package za.ac.mandela.WRPV301.Capstone.Util;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * A trie of the phrases (action aliases and subject descriptions) {@link InputParser} looks for in user input. Each
+ * phrase is compiled once, the first time it is seen, into a sequence of words and given an id; a tokenized input is
+ * then searched for every known phrase at once by walking the trie from each word, so that finding which phrases an
+ * input contains costs in proportion to the length of the input, not the number of phrases. Words are held as their
+ * {@link WordDictionary} ids, so that they are compared as ints.
+ * <p>
+ * A phrase is found where its words appear whole and in order, each separated from the last by exactly one space, as
+ * the patterns this replaces required. Phrases that are not words of letters separated by single spaces can never
+ * appear in processed input, and are given no id. Not thread-safe; the parser runs on the JavaFX Application Thread
+ */
+class PhraseIndex {
+    /**
+     * The root of the trie
+     */
+    private final Node root = new Node();
+    /**
+     * The id of every phrase seen, keyed by the phrase as given; -1 for phrases that can never be found
+     */
+    private final HashMap<String, Integer> ids = new HashMap<>();
+    /**
+     * The words of every phrase, indexed by id
+     */
+    private final ArrayList<int[]> phrases = new ArrayList<>();
+    /**
+     * The ids of arrays of aliases, in the same order, keyed by the (identity of the) array; entries go when the
+     * {@link za.ac.mandela.WRPV301.Capstone.Action.Action} holding the array does
+     */
+    private final WeakHashMap<String[], int[]> aliasIds = new WeakHashMap<>();
+
+    /**
+     * Gets the id of a phrase, compiling it and adding it to the trie if it has not been seen before
+     * @param phrase the phrase, in any case; may be null
+     * @return the id of the phrase, or -1 if it can never be found in processed input
+     */
+    int idOf(String phrase) {
+        if (Objects.isNull(phrase)) {
+            return -1;
+        }
+        Integer id = ids.get(phrase);
+        if (Objects.isNull(id)) {
+            id = compile(phrase.toUpperCase());
+            ids.put(phrase, id);
+        }
+        return id;
+    }
+
+    /**
+     * Gets the ids of an array of aliases, compiling them the first time the array is seen
+     * @param aliases the aliases of an action
+     * @return the id of each alias, in the same order; -1 for aliases that can never be found
+     */
+    int[] idsOf(String[] aliases) {
+        int[] result = aliasIds.get(aliases);
+        if (Objects.isNull(result)) {
+            result = new int[aliases.length];
+            for (int i = 0; i < aliases.length; i++) {
+                result[i] = idOf(aliases[i]);
+            }
+            aliasIds.put(aliases, result);
+        }
+        return result;
+    }
+
+    /**
+     * Tokenizes user input the way the parser reads it: upper case, with every character that is neither a letter nor
+     * whitespace dropped. Words are only looked up in the {@link WordDictionary}, never interned, so that free text does
+     * not grow it
+     * @param userInput raw user input string
+     * @return the words of the input
+     */
+    Input tokenize(String userInput) {
+        String upper = userInput.toUpperCase();
+        ArrayList<String> words = new ArrayList<>();
+        ArrayList<Boolean> spaced = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        //the whitespace since the last word: -1 for none, 1 for a single space, 2 for anything else
+        int gap = -1;
+        for (int i = 0; i < upper.length(); i++) {
+            char c = upper.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                if (word.length() == 0) {
+                    spaced.add(gap == 1);
+                    gap = 0;
+                }
+                word.append(c);
+            } else if (c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r') {
+                if (word.length() > 0) {
+                    words.add(word.toString());
+                    word.setLength(0);
+                }
+                gap = gap == 0 && c == ' ' ? 1 : 2;
+            }
+        }
+        if (word.length() > 0) {
+            words.add(word.toString());
+        }
+        int[] ids = new int[words.size()];
+        String[] unknown = new String[words.size()];
+        boolean[] spacedArray = new boolean[spaced.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = WordDictionary.find(words.get(i));
+            if (ids[i] < 0) {
+                unknown[i] = words.get(i);
+            }
+            spacedArray[i] = spaced.get(i);
+        }
+        return new Input(ids, unknown, spacedArray);
+    }
+
+    /**
+     * Adds a phrase to the trie
+     * @param phrase the phrase, in upper case
+     * @return the id of the phrase, or -1 if it can never be found in processed input
+     */
+    private int compile(String phrase) {
+        String[] split = phrase.split(" ", -1);
+        for (String word : split) {
+            if (word.isEmpty() || !word.chars().allMatch(c -> c >= 'A' && c <= 'Z')) {
+                return -1;
+            }
+        }
+        int[] words = new int[split.length];
+        Node node = root;
+        for (int i = 0; i < split.length; i++) {
+            words[i] = WordDictionary.idOf(split[i]);
+            node = node.children.computeIfAbsent(words[i], key -> new Node());
+        }
+        if (node.id < 0) {
+            node.id = phrases.size();
+            phrases.add(words);
+        }
+        return node.id;
+    }
+
+    /**
+     * A node of the trie, reached by a sequence of words
+     */
+    private static class Node {
+        /**
+         * The nodes reached by one more word
+         */
+        private final HashMap<Integer, Node> children = new HashMap<>();
+        /**
+         * The id of the phrase ending at this node, or -1 if none does
+         */
+        private int id = -1;
+    }
+
+    /**
+     * The words of a user input, from which phrases and words can be removed
+     */
+    class Input {
+        /**
+         * The {@link WordDictionary} ids of the words, in order; -1 for words not interned when last looked up
+         */
+        private final int[] words;
+        /**
+         * The text of each word that was not interned when the input was tokenized, and null for every other word, so
+         * that it can be looked up again once phrases or adjectives containing it may have been interned
+         */
+        private final String[] unknown;
+        /**
+         * Whether each word is separated from the one before it by exactly one space
+         */
+        private final boolean[] spaced;
+        /**
+         * Whether each word has been removed
+         */
+        private final boolean[] removed;
+        /**
+         * The ids of the phrases found among the remaining words; null until needed after a change
+         */
+        private BitSet found;
+        /**
+         * The number of phrases in the trie when {@link #found} was filled, since phrases added later were not looked for
+         */
+        private int foundPhrases;
+
+        /**
+         * Constructor
+         * @param words the {@link WordDictionary} ids of the words, in order; -1 for words not interned
+         * @param unknown the text of each word not interned, and null for every other word
+         * @param spaced whether each word is separated from the one before it by exactly one space
+         */
+        private Input(int[] words, String[] unknown, boolean[] spaced) {
+            this.words = words;
+            this.unknown = unknown;
+            this.spaced = spaced;
+            this.removed = new boolean[words.length];
+        }
+
+        /**
+         * @return a copy of this input, from which words can be removed without changing this one
+         */
+        Input copy() {
+            Input copy = new Input(words, unknown, spaced);
+            System.arraycopy(removed, 0, copy.removed, 0, removed.length);
+            copy.found = found;
+            copy.foundPhrases = foundPhrases;
+            return copy;
+        }
+
+        /**
+         * @param id the id of a phrase
+         * @return true if the phrase is found among the remaining words
+         */
+        boolean contains(int id) {
+            return id >= 0 && found().get(id);
+        }
+
+        /**
+         * @param ids the ids of phrases
+         * @return the first of the phrases, in the order given, found among the remaining words, or -1 if none is
+         */
+        int firstOf(int[] ids) {
+            for (int id : ids) {
+                if (contains(id)) {
+                    return id;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Removes every occurrence of a phrase, from left to right. A removed word is taken out but the whitespace
+         * around it is left, so that the words either side of it are no longer separated by a single space
+         * @param id the id of the phrase
+         */
+        void remove(int id) {
+            if (!contains(id)) {
+                return;
+            }
+            int[] phrase = phrases.get(id);
+            for (int i = 0; i < words.length; i++) {
+                if (matchesAt(i, phrase)) {
+                    for (int j = 0; j < phrase.length; j++) {
+                        removed[i + j] = true;
+                    }
+                    i += phrase.length - 1;
+                }
+            }
+            found = null;
+        }
+
+        /**
+         * Removes every occurrence of any of a set of single words
+         * @param wordIds the {@link WordDictionary} ids of the words
+         */
+        void removeWords(BitSet wordIds) {
+            for (int i = 0; i < words.length; i++) {
+                if (!removed[i] && wordIdIn(i, wordIds)) {
+                    removed[i] = true;
+                    found = null;
+                }
+            }
+        }
+
+        /**
+         * @param wordIds the {@link WordDictionary} ids of a set of words
+         * @return true if every remaining word is in the set, which is also the case if no word remains
+         */
+        boolean allRemainingIn(BitSet wordIds) {
+            for (int i = 0; i < words.length; i++) {
+                if (!removed[i] && !wordIdIn(i, wordIds)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return the ids of the phrases found among the remaining words, walking the trie from each of them; must not
+         * be modified
+         */
+        BitSet found() {
+            if (Objects.isNull(found) || foundPhrases != phrases.size()) {
+                foundPhrases = phrases.size();
+                found = new BitSet(foundPhrases);
+                for (int i = 0; i < words.length; i++) {
+                    if (removed[i]) {
+                        continue;
+                    }
+                    Node node = root.children.get(wordAt(i));
+                    for (int j = i + 1; Objects.nonNull(node); j++) {
+                        if (node.id >= 0) {
+                            found.set(node.id);
+                        }
+                        node = j < words.length && joined(j) ? node.children.get(wordAt(j)) : null;
+                    }
+                }
+            }
+            return found;
+        }
+
+        /**
+         * @param index the index of a word
+         * @param phrase the {@link WordDictionary} ids of the words of a phrase
+         * @return true if the phrase occurs among the remaining words, starting at the word
+         */
+        private boolean matchesAt(int index, int[] phrase) {
+            if (index + phrase.length > words.length || removed[index]) {
+                return false;
+            }
+            for (int j = 0; j < phrase.length; j++) {
+                if ((j > 0 && !joined(index + j)) || wordAt(index + j) != phrase[j]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Gets the id of a word, looking up again a word that was not interned when last looked up
+         * @param index the index of a word
+         * @return the {@link WordDictionary} id of the word, or -1 if it is still not interned
+         */
+        private int wordAt(int index) {
+            if (words[index] < 0) {
+                words[index] = WordDictionary.find(unknown[index]);
+            }
+            return words[index];
+        }
+
+        /**
+         * @param index the index of a word
+         * @param wordIds the {@link WordDictionary} ids of a set of words
+         * @return true if the word is in the set
+         */
+        private boolean wordIdIn(int index, BitSet wordIds) {
+            int id = wordAt(index);
+            return id >= 0 && wordIds.get(id);
+        }
+
+        /**
+         * @param index the index of a word after the first
+         * @return true if the word remains and is separated from the word before it, which also remains, by exactly
+         * one space
+         */
+        private boolean joined(int index) {
+            return spaced[index] && !removed[index] && !removed[index - 1];
+        }
+    }
+}
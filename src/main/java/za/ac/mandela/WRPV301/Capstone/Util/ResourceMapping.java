@@ -1,6 +1,5 @@
 package za.ac.mandela.WRPV301.Capstone.Util;
 
-import javafx.scene.image.Image;
 import za.ac.mandela.WRPV301.Capstone.Combat.Ghost;
 import za.ac.mandela.WRPV301.Capstone.Combat.Humanoid;
 import za.ac.mandela.WRPV301.Capstone.Combat.Insect;
@@ -10,12 +9,9 @@ import za.ac.mandela.WRPV301.Capstone.Item.Player.Armour.Armour;
 import za.ac.mandela.WRPV301.Capstone.Item.Room.Crown;
 import za.ac.mandela.WRPV301.Capstone.Item.Room.HealthChest;
 import za.ac.mandela.WRPV301.Capstone.Item.Player.Weapon.Weapon;
-import za.ac.mandela.WRPV301.Capstone.Main;
 import za.ac.mandela.WRPV301.Capstone.Map.Access.Lockable;
 import za.ac.mandela.WRPV301.Capstone.Player;
 
-import java.util.HashMap;
-
 /**
  * Enum utility to map static image resources to class instances
  */
@@ -35,9 +31,20 @@ public enum ResourceMapping {
     ;
 
     /**
-     * The static Map of the values of this enum
+     * The mapping of every class looked up so far, found once per class so that later lookups allocate nothing; null
+     * for classes without a mapping
      */
-    private final static HashMap<Class<?>, Image> classImageResourceMap = populateImageResourceMap();
+    private final static ClassValue<ResourceMapping> classMappings = new ClassValue<>() {
+        @Override
+        protected ResourceMapping computeValue(Class<?> type) {
+            for (ResourceMapping resourceMapping : values()) {
+                if (resourceMapping.getClazz().isAssignableFrom(type)) {
+                    return resourceMapping;
+                }
+            }
+            return null;
+        }
+    };
 
     /**
      * The class mapping for the resource
@@ -72,28 +79,12 @@ public enum ResourceMapping {
     }
 
     /**
-     * @return the static Map of the values of this enum
-     */
-    private static HashMap<Class<?>, Image> populateImageResourceMap() {
-        HashMap<Class<?>, Image> resourceMap = new HashMap<>();
-        for (ResourceMapping resourceMapping : ResourceMapping.values()) {
-            resourceMap.put(resourceMapping.getClazz(), new Image(Main.class.getResourceAsStream(resourceMapping.getResourceName())));
-        }
-        return resourceMap;
-    }
-
-    /**
-     * Returns the {@link Image} resource associated with the {@link Class} of the given Object
-     * @param object an Object for which to get the {@link Class}-associated {@link Image} resource
-     * @return the {@link Image} resource associated with the {@link Class} of the given Object
+     * Returns the mapping associated with the {@link Class} of the given Object
+     * @param object an Object for which to get the {@link Class}-associated mapping
+     * @return the mapping associated with the {@link Class} of the given Object, or null if there is none
      */
-    public static Image of(Object object) {
-        for (Class<?> clazz : classImageResourceMap.keySet()) {
-            if (clazz.isInstance(object)) {
-                return classImageResourceMap.get(clazz);
-            }
-        }
-        return classImageResourceMap.get(object.getClass());
+    public static ResourceMapping forObject(Object object) {
+        return classMappings.get(object.getClass());
     }
 
 }
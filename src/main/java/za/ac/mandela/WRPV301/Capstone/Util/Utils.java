@@ -1,29 +1,17 @@
 package za.ac.mandela.WRPV301.Capstone.Util;
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.eventbus.EventBus;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Paint;
-import javafx.scene.text.Font;
-import javafx.scene.text.FontPosture;
-import javafx.scene.text.FontWeight;
-import javafx.scene.text.Text;
 import za.ac.mandela.WRPV301.Capstone.Action.SerializableCallable;
 import za.ac.mandela.WRPV301.Capstone.Map.Location.Direction;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
 
 /**
  * A collection of useful utilities that don't go anywhere in particular
  */
 public class Utils {
-    /**
-     * A list of monospace fonts installed on the system
-     */
-    public static final ImmutableList<String> monoSpaceFonts = getMonoFontFamilyNames();
-
     /**
      * A class for containing and manipulating XY screenspace coordinates
      */
@@ -175,21 +163,17 @@ public class Utils {
             graphicsContext.setFill(fill);
             graphicsContext.fillRect(X, Y, W, H);
         }
-
-        /**
-         * Draws the mapped image resource for the class of a given object at the coordinates of this XYWH instance
-         * @param graphicsContext the {@link GraphicsContext} to use to draw the resultant image
-         * @param object the object to map to an image resource
-         */
-        public void img(GraphicsContext graphicsContext, Object object) {
-            graphicsContext.drawImage(ResourceMapping.of(object), X, Y, W, H);
-        }
     }
 
     /**
      * A {@link Random} instance used for dice, coin and percentile rolls
      */
     private static final Random random = new Random();
+    /**
+     * {@link Random} instances bound to individual threads, used instead of {@link #random} by the bound thread; see
+     * {@link #setThreadRandom(Random)}
+     */
+    private static final ThreadLocal<Random> threadRandom = new ThreadLocal<>();
     /**
      * Messages bus used to pass events to their handlers
      */
@@ -202,7 +186,7 @@ public class Utils {
      * @return an integer between 0 and {@code sides}
      */
     public static int d(int sides) {
-        return random.nextInt(sides);
+        return random().nextInt(sides);
     }
 
     /**
@@ -234,39 +218,44 @@ public class Utils {
      * @return true if the coin flip passes, false if not
      */
     public static boolean coin() {
-        return random.nextBoolean();
+        return random().nextBoolean();
     }
 
     /**
-     * Return a list of all the mono-spaced fonts on the system.
-     * <a href="https://yo-dave.com/2015/07/27/finding-mono-spaced-fonts-in-javafx/">https://yo-dave.com/2015/07/27/finding-mono-spaced-fonts-in-javafx/</a>
-     * @author David D. Clark, with modifications
-     *
-     * @return A list of all of the mono-spaced fonts on the system.
+     * Binds a {@link Random} instance to the current thread, so that all dice, coin and percentile rolls made on this
+     * thread use it instead of the shared instance. Used to make map generation reproducible from a seed
+     * @param threadRandom the {@link Random} instance to bind to the current thread, or null to unbind any bound instance
+     * @return the {@link Random} instance previously bound to the current thread, or null if there was none
      */
-    private static ImmutableList<String> getMonoFontFamilyNames() {
-
-        // Compare the layout widths of two strings. One string is composed
-        // of "thin" characters, the other of "wide" characters. In mono-spaced
-        // fonts the widths should be the same.
-
-        final Text thinTxt = new Text("1 l"); // note the space
-        final Text thickText = new Text("MWX");
-
-        List<String> fontFamilyList = Font.getFamilies();
-        ArrayList<String> monoFamilyList = new ArrayList<>();
-
-        Font font;
-
-        for (String fontFamilyName : fontFamilyList) {
-            font = Font.font(fontFamilyName, FontWeight.NORMAL, FontPosture.REGULAR, 14.0d);
-            thinTxt.setFont(font);
-            thickText.setFont(font);
-            if (thinTxt.getLayoutBounds().getWidth() == thickText.getLayoutBounds().getWidth()) {
-                monoFamilyList.add(fontFamilyName);
-            }
+    public static Random setThreadRandom(Random threadRandom) {
+        Random previous = Utils.threadRandom.get();
+        if (threadRandom == null) {
+            Utils.threadRandom.remove();
+        } else {
+            Utils.threadRandom.set(threadRandom);
         }
+        return previous;
+    }
+
+    /**
+     * @return the {@link Random} instance bound to the current thread, or the shared instance if there is none
+     */
+    private static Random random() {
+        Random bound = threadRandom.get();
+        return bound == null ? random : bound;
+    }
 
-        return ImmutableList.copyOf(monoFamilyList);
+    /**
+     * Derives an independent seed for a numbered stream of random values from a base seed, so that separately seeded
+     * {@link Random} instances can be handed out without their sequences depending on each other (SplitMix64 finaliser)
+     * @param seed the base seed
+     * @param stream the number of the stream to derive a seed for
+     * @return the derived seed
+     */
+    public static long mixSeed(long seed, long stream) {
+        long z = seed + (stream + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
     }
 }
@@ -0,0 +1,65 @@
+package za.ac.mandela.WRPV301.Capstone.Util;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A global dictionary that interns words to small, dense int ids, so that the words of user input, action aliases,
+ * prepositions, subject nouns and adjectives can be compared as ints and sets of them held as {@link BitSet}s. Words
+ * are case-insensitive: every word is interned in upper case, as {@link InputParser} reads input. Ids are never reused
+ * or forgotten, so only the words of the game itself are interned; words typed by the player are only looked up
+ */
+public class WordDictionary {
+    /**
+     * The id of every interned word, keyed by the word in upper case
+     */
+    private static final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    /**
+     * The id the next new word is given
+     */
+    private static final AtomicInteger nextId = new AtomicInteger();
+
+    /**
+     * Private constructor
+     */
+    private WordDictionary() {
+    }
+
+    /**
+     * Gets the id of a word, interning it if it has not been seen before
+     * @param word the word, in any case
+     * @return the id of the word
+     */
+    public static int idOf(String word) {
+        String upper = word.toUpperCase();
+        Integer id = ids.get(upper);
+        return Objects.nonNull(id) ? id : ids.computeIfAbsent(upper, key -> nextId.getAndIncrement());
+    }
+
+    /**
+     * Gets the id of a word without interning it
+     * @param word the word, in any case
+     * @return the id of the word, or -1 if it has not been interned
+     */
+    public static int find(String word) {
+        return ids.getOrDefault(word.toUpperCase(), -1);
+    }
+
+    /**
+     * Gets the ids of a collection of words, interning any that have not been seen before
+     * @param words the words, in any case; may be null, which is treated as empty
+     * @return a new {@link BitSet} of the ids of the words
+     */
+    public static BitSet idsOf(Collection<String> words) {
+        BitSet result = new BitSet();
+        if (Objects.nonNull(words)) {
+            for (String word : words) {
+                result.set(idOf(word));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,71 @@
+package za.ac.mandela.WRPV301.Capstone.Map;
+
+import za.ac.mandela.WRPV301.Capstone.Game;
+import za.ac.mandela.WRPV301.Capstone.Map.Location.MapLocation;
+import za.ac.mandela.WRPV301.Capstone.Player;
+
+/**
+ * Headless exploration run for chunked {@link MapData} instances; see {@link MapData#isChunked()}. Moves the player
+ * diagonally out from the starting point, a cell at a time, and reports how many chunks are resident and spilled and
+ * how much heap is in use along the way; resident chunks and heap should stay flat however far the player goes, while
+ * spilled chunks grow with the cells the player has seen. The player then returns to the starting point, which should
+ * be read back from disk still visible.
+ * <p>
+ * Usage: {@code ChunkedWorldBenchmark [size [seed]]}; the grid size defaults to the largest a chunked map may have.
+ */
+public class ChunkedWorldBenchmark {
+    /**
+     * The number of reports printed over the walk
+     */
+    private static final int REPORTS = 10;
+
+    /**
+     * Entry point
+     * @param args the grid side size and the map seed
+     */
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : MapData.MAX_CHUNKED_GRID_SIDE_SIZE;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        long start = System.nanoTime();
+        MapData mapData = MapDataBuilder.newInstance().setGridSideSize(size).setSeed(seed).setChunked(true).build();
+        System.out.printf("generated %d by %d map in %d ms%n", mapData.getGridSideSize(), mapData.getGridSideSize(),
+                (System.nanoTime() - start) / 1_000_000);
+        Game.setMapData(mapData);
+        Player player = new Player();
+        Game.setPlayer(player);
+        MapLocation origin = mapData.getStartingPoint();
+        player.setCurrentLocation(origin);
+
+        int distance = Math.min(mapData.getGridSideSize() - 1 - origin.getRow(),
+                mapData.getGridSideSize() - 1 - origin.getColumn());
+        System.out.printf("%12s %10s %10s %10s %10s %10s%n", "distance", "resident", "spilled", "nodes", "heap KB", "ms");
+        start = System.nanoTime();
+        int reportInterval = Math.max(1, distance / REPORTS);
+        for (int step = 1; step <= distance; step++) {
+            player.setCurrentLocation(mapData.load(origin.getRow() + step, origin.getColumn() + step));
+            if (step % reportInterval == 0) {
+                report(mapData, step, start);
+            }
+        }
+        player.setCurrentLocation(mapData.load(origin.getRow(), origin.getColumn()));
+        report(mapData, 0, start);
+
+        MapLocation reloaded = mapData.getStartingPoint();
+        System.out.printf("starting point reloaded from disk: %b, still visible: %b%n", reloaded != origin,
+                reloaded.isVisible());
+    }
+
+    /**
+     * Prints one line of the report
+     * @param mapData the map being explored
+     * @param distance the distance of the player from the starting point, along each axis
+     * @param start the time the walk started, in nanoseconds
+     */
+    private static void report(MapData mapData, int distance, long start) {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.out.printf("%12d %10d %10d %10d %10d %10d%n", distance, mapData.getWorld().getResidentChunkCount(),
+                mapData.getWorld().getSpilledChunkCount(), mapData.nodes().size(),
+                (runtime.totalMemory() - runtime.freeMemory()) / 1024, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,94 @@
+package za.ac.mandela.WRPV301.Capstone.Map;
+
+import za.ac.mandela.WRPV301.Capstone.Map.Location.Direction;
+
+import java.util.Random;
+
+/**
+ * Headless size sweep for {@link TraversalGrouping}. Runs the same depth-first traversal and grouping calls that
+ * {@link MapData} makes while building a maze, but over bare grid coordinates, so that the cost of grouping can be
+ * measured without creating any {@link za.ac.mandela.WRPV301.Capstone.Map.Location.MapLocation}s or JavaFX state.
+ * <p>
+ * Usage: {@code TraversalGroupingBenchmark [size ...]}; with no arguments, sizes from 100 to 1000 are swept.
+ */
+public class TraversalGroupingBenchmark {
+    /**
+     * The number of untimed runs per size, to let the JIT settle
+     */
+    private static final int WARMUP_RUNS = 2;
+    /**
+     * The number of timed runs per size; the fastest is reported
+     */
+    private static final int TIMED_RUNS = 3;
+
+    /**
+     * Entry point
+     * @param args the grid side sizes to sweep
+     */
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0
+                ? new int[]{100, 200, 300, 400, 500, 600, 700, 800, 900, 1000}
+                : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        System.out.printf("%8s %12s %10s %10s %12s%n", "size", "nodes", "groups", "ms", "ns/node");
+        for (int size : sizes) {
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                traverse(size, new Random(i));
+            }
+            long best = Long.MAX_VALUE;
+            int groups = 0;
+            for (int i = 0; i < TIMED_RUNS; i++) {
+                long start = System.nanoTime();
+                groups = traverse(size, new Random(i));
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            long nodes = (long) size * size;
+            System.out.printf("%8d %12d %10d %10.1f %12.1f%n", size, nodes, groups, best / 1e6, (double) best / nodes);
+        }
+    }
+
+    /**
+     * Performs a randomised depth-first traversal of a square grid, grouping nodes as {@link MapData} does
+     * @param size the size, in nodes, of any side of the square grid
+     * @param random the source of randomness for neighbour selection
+     * @return the number of groups kept after processing
+     */
+    private static int traverse(int size, Random random) {
+        TraversalGrouping grouping = new TraversalGrouping(size);
+        Direction[] directions = Direction.values();
+        int[] stack = new int[size * size];
+        int[] neighbours = new int[directions.length];
+        int top = 0;
+        int currentGroup = grouping.newGroup(-1);
+        int start = random.nextInt(size * size);
+        grouping.addNode(start / size, start % size, currentGroup);
+        stack[top++] = start;
+        boolean backtrackSentinel = false;
+        while (top > 0) {
+            int current = stack[--top];
+            int row = current / size, column = current % size;
+            int currentlyTraversing = grouping.groupOf(row, column);
+            int neighbourCount = 0;
+            for (Direction direction : directions) {
+                int neighbourRow = direction.translateRow(row), neighbourColumn = direction.translateColumn(column);
+                if (neighbourRow >= 0 && neighbourColumn >= 0 && neighbourRow < size && neighbourColumn < size
+                        && !grouping.isVisited(neighbourRow, neighbourColumn)) {
+                    neighbours[neighbourCount++] = neighbourRow * size + neighbourColumn;
+                }
+            }
+            if (neighbourCount > 0) {
+                backtrackSentinel = false;
+                stack[top++] = current;
+                int neighbour = neighbours[random.nextInt(neighbourCount)];
+                grouping.addNode(neighbour / size, neighbour % size, currentGroup);
+                stack[top++] = neighbour;
+            } else if (!backtrackSentinel) {
+                currentGroup = grouping.newGroup(currentlyTraversing);
+                backtrackSentinel = true;
+            }
+        }
+        return grouping.process().numGroups;
+    }
+}
@@ -0,0 +1,149 @@
+package za.ac.mandela.WRPV301.Capstone.UI;
+
+import java.nio.IntBuffer;
+
+/**
+ * A {@link MapSurface} that draws nothing, but counts the drawing operations made on it and the surface pixels they
+ * would have touched, so that the cost of rendering can be measured headlessly; see {@link RenderCommandBenchmark}
+ */
+class RecordingMapSurface implements MapSurface<Object> {
+    /**
+     * The stand-in for every uploaded tile
+     */
+    private static final Object TILE = new Object();
+    /**
+     * The number of bytes in a pixel
+     */
+    private static final int BYTES_PER_PIXEL = 4;
+
+    /**
+     * The scale of the current transform
+     */
+    private double scale = 1;
+    /**
+     * The number of rectangles filled, including clears
+     */
+    private long fills = 0;
+    /**
+     * The number of images drawn: tiles, padlocks and blocks of pixels
+     */
+    private long images = 0;
+    /**
+     * The number of tiles uploaded
+     */
+    private long uploads = 0;
+    /**
+     * The number of bytes of surface pixels written by drawing, and of tile pixels uploaded
+     */
+    private long bytesTouched = 0;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setTransform(double scale, double translateX, double translateY) {
+        this.scale = scale;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear(double width, double height) {
+        fills++;
+        bytesTouched += area(width, height);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void fillRect(int argb, double x, double y, double width, double height) {
+        fills++;
+        bytesTouched += area(width * scale, height * scale);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawTile(Object tile, double x, double y, double size) {
+        images++;
+        bytesTouched += area(size * scale, size * scale);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawLock(boolean unlocked, CanvasManager.Zoom zoom, double x, double y, double size) {
+        images++;
+        bytesTouched += area(size * scale, size * scale);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void drawPixels(int[] pixels, int width, int height, double x, double y) {
+        images++;
+        bytesTouched += area(width * scale, height * scale);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object uploadTile(IntBuffer pixels, int size) {
+        uploads++;
+        bytesTouched += area(size, size);
+        return TILE;
+    }
+
+    /**
+     * Sets every count back to zero, as at the start of a measured frame
+     */
+    void reset() {
+        fills = 0;
+        images = 0;
+        uploads = 0;
+        bytesTouched = 0;
+    }
+
+    /**
+     * @return the number of rectangles filled, including clears
+     */
+    long getFills() {
+        return fills;
+    }
+
+    /**
+     * @return the number of images drawn: tiles, padlocks and blocks of pixels
+     */
+    long getImages() {
+        return images;
+    }
+
+    /**
+     * @return the number of tiles uploaded
+     */
+    long getUploads() {
+        return uploads;
+    }
+
+    /**
+     * @return the number of bytes of surface pixels written by drawing, and of tile pixels uploaded
+     */
+    long getBytesTouched() {
+        return bytesTouched;
+    }
+
+    /**
+     * @param width the width of an area, in surface pixels
+     * @param height the height of an area, in surface pixels
+     * @return the number of bytes of pixels in the area
+     */
+    private static long area(double width, double height) {
+        return Math.round(width * height) * BYTES_PER_PIXEL;
+    }
+}
@@ -0,0 +1,83 @@
+package za.ac.mandela.WRPV301.Capstone.UI;
+
+import za.ac.mandela.WRPV301.Capstone.Map.MapData;
+import za.ac.mandela.WRPV301.Capstone.Map.Location.MapLocation;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Objects;
+
+/**
+ * Headless allocation check for the per-cell path of {@link CanvasManager}. Repaints every cell of a map the way a
+ * redraw does, describing the cell with a reused {@link TileKey} probe and looking its tile up in a {@link TileCache},
+ * and reports the heap allocated per repainted cell once the cache is warm; it should be zero. The drawing calls
+ * themselves need a JavaFX toolkit, so they are left out.
+ * <p>
+ * Usage: {@code RenderAllocationBenchmark [size [passes]]}; the size defaults to 300 and the passes to 10.
+ */
+public class RenderAllocationBenchmark {
+    /**
+     * The stand-in for a rendered tile
+     */
+    private static final Object TILE = new Object();
+
+    /**
+     * Entry point
+     * @param args the grid side size of the map and the number of measured passes over it
+     */
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        int passes = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)
+                || !((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            System.out.println("this JVM cannot measure the heap allocated by a thread");
+            return;
+        }
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+        long threadId = Thread.currentThread().getId();
+
+        MapData mapData = MapData.build(size);
+        TileCache<TileKey, Object> cache = new TileCache<>(Long.MAX_VALUE, 1);
+        TileKey probe = new TileKey();
+        int tiles = 0;
+        for (int i = 0; i < 3; i++) {
+            tiles += repaint(mapData, cache, probe);
+        }
+
+        long cells = (long) size * size * passes;
+        long startBytes = allocationBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < passes; i++) {
+            repaint(mapData, cache, probe);
+        }
+        long nanos = System.nanoTime() - start;
+        long allocated = allocationBean.getThreadAllocatedBytes(threadId) - startBytes;
+        System.out.printf("%8s %12s %10s %12s %12s %10s%n", "size", "cells", "tiles", "ns/cell", "bytes", "bytes/cell");
+        System.out.printf("%8d %12d %10d %12.1f %12d %10.2f%n", size, cells, tiles, (double) nanos / cells,
+                allocated, (double) allocated / cells);
+    }
+
+    /**
+     * Describes every cell of a map and looks its tile up, caching a stand-in tile on a miss
+     * @param mapData the map
+     * @param cache the tile cache
+     * @param probe the reused key
+     * @return the number of tiles cached
+     */
+    private static int repaint(MapData mapData, TileCache<TileKey, Object> cache, TileKey probe) {
+        MapLocation player = mapData.getStartingPoint();
+        int size = mapData.getGridSideSize();
+        int cached = 0;
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                probe.describe(mapData, mapData.get(row, column), player);
+                if (Objects.isNull(cache.get(probe))) {
+                    cache.put(probe.copy(), TILE);
+                    cached++;
+                }
+            }
+        }
+        return cached;
+    }
+}
@@ -0,0 +1,200 @@
+package za.ac.mandela.WRPV301.Capstone.UI;
+
+import za.ac.mandela.WRPV301.Capstone.Event.MapChangeEvent;
+import za.ac.mandela.WRPV301.Capstone.Game;
+import za.ac.mandela.WRPV301.Capstone.Map.Access.Accessway;
+import za.ac.mandela.WRPV301.Capstone.Map.Access.Lockable;
+import za.ac.mandela.WRPV301.Capstone.Map.Location.Direction;
+import za.ac.mandela.WRPV301.Capstone.Map.Location.MapLocation;
+import za.ac.mandela.WRPV301.Capstone.Map.Location.Room;
+import za.ac.mandela.WRPV301.Capstone.Map.MapData;
+import za.ac.mandela.WRPV301.Capstone.Map.MapDataBuilder;
+import za.ac.mandela.WRPV301.Capstone.Map.MazeAlgorithm;
+import za.ac.mandela.WRPV301.Capstone.Player;
+import za.ac.mandela.WRPV301.Capstone.Util.ResourceMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static za.ac.mandela.WRPV301.Capstone.Util.Utils.eventBus;
+
+/**
+ * Headless count of the drawing a {@link MapRenderer} does. For each of a few fixed seeded maps, a renderer drawing onto
+ * a {@link RecordingMapSurface} is put through a load of the map, a move of the player to a neighbouring cell, and a
+ * toggle of cheat mode, and the frames, fills, images, tile uploads and bytes touched by each are reported. Tiles are
+ * rendered synchronously, so the counts are the same from run to run; every scenario is run twice to check that, and
+ * the benchmark exits with status 1 if the counts differ.
+ * <p>
+ * Usage: {@code RenderCommandBenchmark [size [seed ...]]}; the size defaults to 30 and the seeds to 1, 2 and 3.
+ */
+public class RenderCommandBenchmark {
+    /**
+     * The pixel width of the viewport
+     */
+    private static final double VIEWPORT_WIDTH = 1280;
+    /**
+     * The pixel height of the viewport
+     */
+    private static final double VIEWPORT_HEIGHT = 720;
+
+    /**
+     * Entry point
+     * @param args the grid side size of the maps, and their seeds
+     */
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+        long[] seeds = args.length > 1 ? new long[args.length - 1] : new long[]{1, 2, 3};
+        for (int i = 1; i < args.length; i++) {
+            seeds[i - 1] = Long.parseLong(args[i]);
+        }
+        boolean repeatable = true;
+        System.out.printf("%6s %-8s %8s %8s %8s %8s %12s%n", "seed", "scenario", "frames", "fills", "images", "uploads",
+                "KB touched");
+        for (long seed : seeds) {
+            List<String> first = run(size, seed), second = run(size, seed);
+            first.forEach(System.out::println);
+            repeatable &= first.equals(second);
+        }
+        System.out.printf("repeatable: %b%n", repeatable);
+        if (!repeatable) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Builds a seeded map and puts a new renderer through every scenario
+     * @param size the grid side size of the map
+     * @param seed the seed of the map
+     * @return a line reporting the counts of each scenario
+     */
+    private static List<String> run(int size, long seed) {
+        MapData mapData = MapDataBuilder.newInstance().setGridSideSize(size).setSeed(seed)
+                .setAlgorithm(MazeAlgorithm.DEPTH_FIRST).build();
+        Game.setMapData(mapData);
+        Game.setCheats(false);
+        Player player = new Player();
+        Game.setPlayer(player);
+        player.setCurrentLocation(mapData.getStartingPoint());
+
+        RecordingMapSurface surface = new RecordingMapSurface();
+        Frames frames = new Frames();
+        MapRenderer<Object> renderer = new MapRenderer<>(surface, rasterizer(), Runnable::run, Runnable::run,
+                frames::request);
+        eventBus.register(renderer);
+        List<String> lines = new ArrayList<>();
+        try {
+            MapLocation start = player.getCurrentLocation();
+            double cellSize = CanvasManager.Zoom.FULL.getCellSize();
+            double mapSize = size * cellSize;
+            double width = Math.min(VIEWPORT_WIDTH, mapSize), height = Math.min(VIEWPORT_HEIGHT, mapSize);
+            renderer.setViewport(centre(start.getColumn(), cellSize, width, mapSize),
+                    centre(start.getRow(), cellSize, height, mapSize), width, height);
+            surface.reset();
+            MapChangeEvent.post();
+            lines.add(report(seed, "load", frames.settle(renderer), surface));
+
+            MapLocation destination = neighbour(mapData, start);
+            if (Objects.nonNull(destination)) {
+                surface.reset();
+                destination.enter();
+                lines.add(report(seed, "move", frames.settle(renderer), surface));
+            }
+
+            surface.reset();
+            Game.setCheats(true);
+            lines.add(report(seed, "cheats", frames.settle(renderer), surface));
+        } finally {
+            Game.setCheats(false);
+            eventBus.unregister(renderer);
+        }
+        return lines;
+    }
+
+    /**
+     * @return a rasterizer with blank sprites, which draw nothing but cost as much to blend as real ones
+     */
+    private static TileRasterizer rasterizer() {
+        int edgeSize = (int) MapRenderer.EDGE_SIZE;
+        int[][] sprites = new int[ResourceMapping.values().length][];
+        for (int i = 0; i < sprites.length; i++) {
+            sprites[i] = new int[edgeSize * edgeSize];
+        }
+        return new TileRasterizer((int) MapRenderer.NODE_SIZE, edgeSize, MapRenderer.EDGE_PIXEL, sprites);
+    }
+
+    /**
+     * @param index the row or column of a cell
+     * @param cellSize the pixel width of a cell
+     * @param extent the pixel width or height of the viewport
+     * @param mapSize the pixel width of the map
+     * @return the offset of the viewport that centres the cell, kept within the map
+     */
+    private static double centre(int index, double cellSize, double extent, double mapSize) {
+        return Math.floor(Math.max(0, Math.min(mapSize - extent, (index + 0.5) * cellSize - extent / 2)));
+    }
+
+    /**
+     * @param mapData the map
+     * @param location a {@link MapLocation}
+     * @return the first connected neighbour of the location, in {@link Direction} order, that can be entered without a
+     * key or a fight, or null if there is none
+     */
+    private static MapLocation neighbour(MapData mapData, MapLocation location) {
+        for (Direction direction : Direction.values()) {
+            Accessway accessway = mapData.getAccessway(location, direction);
+            MapLocation neighbour = mapData.getNeighbour(location, direction);
+            if (Objects.nonNull(accessway) && !(accessway instanceof Lockable && !((Lockable) accessway).isUnlocked())
+                    && !(neighbour instanceof Room && !((Room) neighbour).getEnemies().isEmpty())) {
+                return neighbour;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param seed the seed of the map
+     * @param scenario the name of the scenario
+     * @param frames the number of frames the scenario took to settle
+     * @param surface the surface drawn onto
+     * @return a line reporting the counts of the scenario
+     */
+    private static String report(long seed, String scenario, int frames, RecordingMapSurface surface) {
+        return String.format("%6d %-8s %8d %8d %8d %8d %12.1f", seed, scenario, frames, surface.getFills(),
+                surface.getImages(), surface.getUploads(), surface.getBytesTouched() / 1024.0);
+    }
+
+    /**
+     * Stands in for the frame pulse of {@link CanvasManager}
+     */
+    private static class Frames {
+        /**
+         * True if the renderer has asked for a frame
+         */
+        private boolean requested = false;
+
+        /**
+         * Asks for a frame
+         */
+        private void request() {
+            requested = true;
+        }
+
+        /**
+         * Flushes the renderer for as long as it asks for frames
+         * @param renderer the renderer
+         * @return the number of frames flushed
+         */
+        private int settle(MapRenderer<?> renderer) {
+            int frames = 0;
+            while (requested) {
+                //tiles rendered during a flush ask for the next frame themselves
+                requested = false;
+                boolean leftOver = renderer.flush();
+                requested |= leftOver;
+                frames++;
+            }
+            return frames;
+        }
+    }
+}